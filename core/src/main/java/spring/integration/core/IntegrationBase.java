@@ -8,18 +8,42 @@ import org.junit.jupiter.api.DynamicTest;
 import org.junit.jupiter.api.TestFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.util.StringUtils;
 import spring.integration.core.support.IntegrationRestTemplate;
 import spring.integration.core.support.ResponseHistoryService;
 import spring.integration.core.support.assertion.AssertionSupporterFactory;
+import spring.integration.core.support.history.Regression;
+import spring.integration.core.support.history.TimingHistory;
+import spring.integration.core.support.incremental.DependencyRecorder;
+import spring.integration.core.support.incremental.IncrementalSelection;
+import spring.integration.core.support.load.LoadProfile;
+import spring.integration.core.support.metrics.IntegrationMetrics;
 import spring.integration.core.support.mock.MockSupporter;
+import spring.integration.core.support.recording.FlightRecording;
+import spring.integration.core.support.recording.PhaseRecorder;
+import spring.integration.core.support.queue.SpecificationQueue;
+import spring.integration.core.support.resource.ResourceUsageRegistry;
+import spring.integration.core.support.shard.Shard;
+import spring.integration.core.support.shard.ShardPlanner;
 import spring.integration.core.utils.ResourceUtility;
 
 import java.io.File;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import static org.junit.jupiter.api.Assertions.fail;
 import static org.junit.jupiter.api.DynamicTest.dynamicTest;
 
 @Slf4j
@@ -27,7 +51,12 @@ public abstract class IntegrationBase {
 
     protected static final String JSON_FILE_FILTER = ".+\\.(?i)json$";
 
-    @LocalServerPort
+    protected static final String PARALLELISM_PROPERTY = "integration.parallelism";
+
+    /**
+     * Port of embedded server. It's not available when requests are dispatched through MockMvc.
+     */
+    @Value("${local.server.port:0}")
     private int port;
 
     @Value("${server.servlet.context-path:}")
@@ -45,6 +74,27 @@ public abstract class IntegrationBase {
     @Autowired
     private ObjectMapper integrationObjectMapper;
 
+    @Autowired
+    private ResourceUsageRegistry resourceUsageRegistry;
+
+    @Autowired
+    private IntegrationMetrics integrationMetrics;
+
+    /**
+     * JFR recording of the suite, or null when it's disabled.
+     */
+    private FlightRecording flightRecording;
+
+    /**
+     * Timing history to detect regressions across runs, or null when it's disabled.
+     */
+    private TimingHistory timingHistory;
+
+    /**
+     * Fingerprints to select changed specifications, or null when they are disabled.
+     */
+    private IncrementalSelection incrementalSelection;
+
     /**
      * Get directory path of test data location.
      */
@@ -67,6 +117,33 @@ public abstract class IntegrationBase {
         return false;
     }
 
+    /**
+     * Get number of worker threads to execute test specification files.
+     * The default is value of "integration.parallelism" system property, or 1 which means sequential execution.
+     * Need to override when it's needed to change.
+     */
+    protected int getParallelism() {
+        return Integer.getInteger(PARALLELISM_PROPERTY, 1);
+    }
+
+    /**
+     * Get profile of load test mode, in which each specification is executed repeatedly by concurrent virtual users.
+     * The default is created from "integration.load.*" system properties, and load test mode is disabled without them.
+     * Need to override when it's needed to change.
+     */
+    protected LoadProfile getLoadProfile() {
+        return LoadProfile.fromSystemProperties();
+    }
+
+    /**
+     * Get shard of specification files which is executed by this JVM, or null to execute all of them.
+     * The default is value of "integration.shard" system property, e.g. "3/8".
+     * Need to override when it's needed to change.
+     */
+    protected Shard getShard() {
+        return Shard.fromSystemProperties();
+    }
+
     /**
      * Setup parameterized test with test specification data.
      */
@@ -75,26 +152,208 @@ public abstract class IntegrationBase {
     Stream<DynamicTest> setup() {
         IntegrationExecutor integrationExecutor = new IntegrationExecutor(integrationObjectMapper, mockSupporter, isMockableAssertionMandatory(), responseHistoryService);
         AssertionSupporterFactory assertionFactory =
-                new AssertionSupporterFactory(port, serverContextPath, integrationObjectMapper, integrationRestTemplate, responseHistoryService);
+                new AssertionSupporterFactory(port, serverContextPath, integrationObjectMapper, integrationRestTemplate, responseHistoryService,
+                        resourceUsageRegistry);
+        assertionFactory.setTestDataLocation(getTestDataLocation());
         if (!StringUtils.isEmpty(System.getProperty("integration.interactive.port"))) {
             integrationExecutor.execute(assertionFactory, Integer.parseInt(System.getProperty("integration.interactive.port")));
             return Stream.empty();
         } else {
-            String testDataLocation = getTestDataLocation();
-            String includePattern = getIncludePattern();
-            log.info(includePattern);
-            List<File> specificationFileList = ResourceUtility.getFilesRecursively(testDataLocation, includePattern);
+            flightRecording = FlightRecording.startFromSystemProperties();
+            if (integrationMetrics.isEnabled()) {
+                PhaseRecorder.addListener(integrationMetrics);
+            }
+            timingHistory = TimingHistory.fromSystemProperties(this::getSpecificationKey);
+            if (timingHistory != null) {
+                PhaseRecorder.addListener(timingHistory);
+            }
+            incrementalSelection = IncrementalSelection.fromSystemProperties();
+            LoadProfile loadProfile = getLoadProfile();
+            SpecificationQueue specificationQueue = loadProfile.isEnabled() ? null : getSpecificationQueue();
+            if (specificationQueue != null) {
+                return executeFromQueue(integrationExecutor, assertionFactory, specificationQueue);
+            }
+            List<File> specificationFileList = findSpecificationFiles();
+            if (loadProfile.isEnabled()) {
+                // Virtual users must not wait for connections of each other, which would be measured as latency.
+                integrationRestTemplate.ensureMaxConnections(loadProfile.getConcurrency());
+                return specificationFileList.stream()
+                        .map(file -> dynamicTest(getDisplayName(file), () -> integrationExecutor.executeLoad(assertionFactory, file, loadProfile)));
+            }
+            int parallelism = getParallelism();
+            if (parallelism > 1) {
+                return executeInParallel(integrationExecutor, assertionFactory, specificationFileList, parallelism);
+            }
             return specificationFileList.stream()
-                    .map(file -> {
-                        String displayName = file.getPath().replaceAll(".*" + testDataLocation, "");
-                        return dynamicTest(displayName, () -> integrationExecutor.execute(assertionFactory, file));
+                    .map(file -> dynamicTest(getDisplayName(file), () -> execute(integrationExecutor, assertionFactory, file)));
+        }
+    }
+
+    /**
+     * List specification files to execute, which are only changed ones in incremental mode, in the order of the shard when it's specified.
+     */
+    private List<File> findSpecificationFiles() {
+        String testDataLocation = getTestDataLocation();
+        String includePattern = getIncludePattern();
+        log.info(includePattern);
+        List<File> specificationFileList = ResourceUtility.getFilesRecursively(testDataLocation, includePattern);
+        if (incrementalSelection != null) {
+            specificationFileList = incrementalSelection.select(specificationFileList, this::getDisplayName);
+        }
+        Shard shard = getShard();
+        if (shard != null) {
+            specificationFileList = ShardPlanner.plan(specificationFileList, shard, getShardDurations(shard), this::getDisplayName);
+        }
+        return specificationFileList;
+    }
+
+    /**
+     * Get estimated durations of specification files for sharding.
+     * Every shard must plan with the same durations, so that they are read from the baseline file which isn't appended during the run.
+     * Timing history of this run is used only when there is a single shard, because other shards may append to it before they start.
+     */
+    private Map<String, Long> getShardDurations(Shard shard) {
+        Path baselineFile = Shard.getBaselineFile();
+        if (baselineFile != null) {
+            return TimingHistory.readBaselines(baselineFile);
+        }
+        if (timingHistory == null) {
+            return Map.of();
+        }
+        if (shard.getCount() > 1) {
+            log.warn("(Integration) Timing history isn't used for sharding, because shards may append to it before others start. "
+                    + "Specify \"integration.shard.baseline\" with a copy of it.");
+            return Map.of();
+        }
+        return timingHistory.getBaselines();
+    }
+
+    /**
+     * Take specification files from the queue shared with other JVMs one by one, and report each result as dynamic test.
+     * Only the first JVM lists specification files and publishes them.
+     */
+    private Stream<DynamicTest> executeFromQueue(IntegrationExecutor integrationExecutor, AssertionSupporterFactory assertionFactory,
+                                                 SpecificationQueue specificationQueue) {
+        specificationQueue.publish(() -> findSpecificationFiles().stream().map(this::getDisplayName).collect(Collectors.toList()));
+        log.info("(Integration) Executing specification files from {} as {}.", specificationQueue.getDirectory(), specificationQueue.getWorker());
+        AtomicInteger executed = new AtomicInteger();
+        return Stream.generate(specificationQueue::poll)
+                .takeWhile(Objects::nonNull)
+                .map(specification -> dynamicTest(specification, () -> {
+                    long startTime = System.nanoTime();
+                    boolean failed = true;
+                    try {
+                        execute(integrationExecutor, assertionFactory, new File(getTestDataLocation() + specification));
+                        failed = false;
+                    } finally {
+                        executed.incrementAndGet();
+                        specificationQueue.complete(specification, failed, Duration.ofNanos(System.nanoTime() - startTime));
+                    }
+                }))
+                .onClose(() -> log.info("(Integration) Executed {} of {} specification files, {} of them have been finished by all workers.",
+                        executed.get(), specificationQueue.size(), specificationQueue.readResults().size()));
+    }
+
+    /**
+     * Get queue of specification files shared with other JVMs, or null to execute all of them in this JVM.
+     * The default is the sub directory for this test class in the directory of "integration.queue.dir" system property.
+     * Need to override when it's needed to change.
+     */
+    protected SpecificationQueue getSpecificationQueue() {
+        return SpecificationQueue.fromSystemProperties(getClass().getName());
+    }
+
+    /**
+     * Submit all specification files to worker threads, and report each result as dynamic test in original order.
+     */
+    private Stream<DynamicTest> executeInParallel(IntegrationExecutor integrationExecutor, AssertionSupporterFactory assertionFactory,
+                                                  List<File> specificationFileList, int parallelism) {
+        log.info("(Integration) Executing {} specification files with {} workers.", specificationFileList.size(), parallelism);
+        ExecutorService executorService = Executors.newFixedThreadPool(parallelism, new CustomizableThreadFactory("integration-worker-"));
+        List<DynamicTest> dynamicTests = specificationFileList.stream()
+                .map(file -> {
+                    Future<?> result = executorService.submit(() -> {
+                        execute(integrationExecutor, assertionFactory, file);
+                        return null;
+                    });
+                    return dynamicTest(getDisplayName(file), () -> {
+                        try {
+                            result.get();
+                        } catch (ExecutionException ex) {
+                            throw ex.getCause();
+                        }
                     });
+                })
+                .collect(Collectors.toList());
+        // Workers finish submitted specifications and terminate afterwards.
+        executorService.shutdown();
+        return dynamicTests.stream();
+    }
+
+    /**
+     * Execute specification file. Flight recording is dumped when it fails or is slow, and files it read are recorded for incremental mode.
+     */
+    private void execute(IntegrationExecutor integrationExecutor, AssertionSupporterFactory assertionFactory, File file) throws Exception {
+        if (flightRecording == null && incrementalSelection == null) {
+            integrationExecutor.execute(assertionFactory, file);
+            return;
         }
+        long startTime = System.nanoTime();
+        boolean failed = true;
+        DependencyRecorder.start();
+        try {
+            integrationExecutor.execute(assertionFactory, file);
+            failed = false;
+        } finally {
+            Set<String> resources = DependencyRecorder.finish();
+            if (flightRecording != null) {
+                flightRecording.dumpIfNeeded(file, Duration.ofNanos(System.nanoTime() - startTime), failed);
+            }
+            if (incrementalSelection != null) {
+                incrementalSelection.record(getDisplayName(file), file, resources, failed);
+            }
+        }
+    }
+
+    private String getDisplayName(File file) {
+        return getSpecificationKey(file.getPath());
+    }
+
+    /**
+     * Get path of specification file relative to test data location.
+     */
+    private String getSpecificationKey(String path) {
+        return path.replaceAll(".*" + getTestDataLocation(), "");
     }
 
     @AfterEach
     void destroyMock() {
         mockSupporter.destroy();
+        if (integrationMetrics.isEnabled()) {
+            PhaseRecorder.removeListener(integrationMetrics);
+            integrationMetrics.export();
+        }
+        if (flightRecording != null) {
+            flightRecording.close();
+            flightRecording = null;
+        }
+        if (incrementalSelection != null) {
+            incrementalSelection.save();
+            incrementalSelection = null;
+        }
+        if (timingHistory != null) {
+            PhaseRecorder.removeListener(timingHistory);
+            List<Regression> regressions = timingHistory.finish();
+            boolean failOnRegression = timingHistory.isFailOnRegression();
+            timingHistory = null;
+            if (!regressions.isEmpty()) {
+                String report = TimingHistory.toReport(regressions);
+                log.warn("(Integration) {}", report);
+                if (failOnRegression) {
+                    fail(report);
+                }
+            }
+        }
     }
 
 }
@@ -1,6 +1,7 @@
 package spring.integration.core;
 
 import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static org.junit.jupiter.api.Assertions.fail;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.io.BufferedReader;
@@ -16,17 +17,30 @@ import java.nio.file.StandardWatchEventKinds;
 import java.nio.file.WatchKey;
 import java.nio.file.WatchService;
 import java.nio.file.Watchable;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.io.FileUtils;
 import org.springframework.util.StringUtils;
-import spring.integration.core.support.JsonSchemaValidator;
+import spring.integration.core.support.CompiledSpecification;
 import spring.integration.core.support.ResponseHistoryService;
-import spring.integration.core.support.assertion.AssertionSupporter;
 import spring.integration.core.support.assertion.AssertionSupporterFactory;
-import spring.integration.core.support.injector.ValueInjectionManager;
+import spring.integration.core.support.assertion.LatencyBudget;
+import spring.integration.core.support.load.LatencyHistogram;
+import spring.integration.core.support.load.LoadProfile;
+import spring.integration.core.support.load.LoadTestResult;
+import spring.integration.core.support.load.LoadTestRunner;
 import spring.integration.core.support.mock.MockSupporter;
+import spring.integration.core.support.recording.Phase;
+import spring.integration.core.support.recording.PhaseRecorder;
 import spring.integration.core.utils.ObjectConverter;
 
 @Slf4j
@@ -49,6 +63,11 @@ class IntegrationExecutor {
 
 	private final ResponseHistoryService responseHistoryService;
 
+	/**
+	 * Specifications which use only isolated mockables share read lock, the others need write lock exclusively.
+	 */
+	private final ReadWriteLock mockableLock = new ReentrantReadWriteLock();
+
 	/**
 	 * Test Execution.
 	 *
@@ -56,24 +75,122 @@ class IntegrationExecutor {
 	 * @param file                      Test specification file.
 	 */
 	void execute(AssertionSupporterFactory assertionSupporterFactory, File file) throws Exception {
+		PhaseRecorder.startSpecification(file.getPath());
+		boolean failed = true;
+		try {
+			executeSpecification(assertionSupporterFactory, file);
+			failed = false;
+		} finally {
+			PhaseRecorder.endSpecification(failed);
+		}
+	}
+
+	private void executeSpecification(AssertionSupporterFactory assertionSupporterFactory, File file) {
 		log.info("(Integration) Starting test : {}", file.getPath());
-		JsonSchemaValidator.validate(objectMapper, file);
 		Map<String, Object> injectedSpecificationData =
-				ValueInjectionManager.inject(objectMapper, ObjectConverter.toMap(objectMapper, file));
-		Map<String, Object> setup = ObjectConverter.toMap(objectMapper, injectedSpecificationData.get("setup"));
+				CompiledSpecification.compile(objectMapper, file).instantiate(objectMapper);
+		Map<String, Object> setup = ObjectConverter.asMap(objectMapper, injectedSpecificationData.get("setup"));
+		// Mockables record what the application did for each request, so that other specifications must not run meanwhile.
+		boolean stepVerification = containsStepVerification(injectedSpecificationData);
+		Lock lock = !stepVerification && mockSupporter.isConcurrentExecutable(setup) ? mockableLock.readLock() : mockableLock.writeLock();
+		lock.lock();
 		try {
 			mockSupporter.setup(setup);
-			assertionSupporterFactory.create(injectedSpecificationData).forEach(AssertionSupporter::executeAssert);
+			if (stepVerification) {
+				mockSupporter.startStep();
+			}
+			// Each step sends its request when it's created, so that recording for the next step starts after verification.
+			assertionSupporterFactory.create(injectedSpecificationData).forEach(assertionSupporter -> {
+				PhaseRecorder.record(Phase.ASSERTION, "response", assertionSupporter::executeAssert);
+				PhaseRecorder.record(Phase.ASSERTION, "latency", assertionSupporter::assertLatency);
+				PhaseRecorder.record(Phase.ASSERTION, "resource", assertionSupporter::assertResourceUsage);
+				if (stepVerification) {
+					PhaseRecorder.record(Phase.ASSERTION, "verify", () -> mockSupporter.verifyStep(assertionSupporter.getVerification()));
+					mockSupporter.startStep();
+				}
+			});
 			if (mockableAssertionMandatory) {
 				mockSupporter.executeMockableAssertion(setup);
 			}
 		} finally {
-			mockSupporter.cleanUp(setup, ObjectConverter.toMap(objectMapper, injectedSpecificationData.get("cleanup")));
-			responseHistoryService.clear();
-			log.info("(Integration) Finished test : {}", file.getPath());
+			try {
+				mockSupporter.cleanUp(setup, ObjectConverter.asMap(objectMapper, injectedSpecificationData.get("cleanup")));
+			} finally {
+				lock.unlock();
+				responseHistoryService.clear();
+				log.info("(Integration) Finished test : {}", file.getPath());
+			}
 		}
 	}
 
+	/**
+	 * Load test execution. Mockables are set up once, and the scenario is executed repeatedly in accordance with the profile.
+	 * "verify" of each request is ignored, because mockables cannot tell which execution the application worked for.
+	 *
+	 * @param assertionSupporterFactory Factory of instance for assertion.
+	 * @param file                      Test specification file.
+	 * @param loadProfile               How the scenario is executed.
+	 */
+	LoadTestResult executeLoad(AssertionSupporterFactory assertionSupporterFactory, File file, LoadProfile loadProfile) throws Exception {
+		log.info("(Integration) Starting load test : {}", file.getPath());
+		CompiledSpecification compiledSpecification = CompiledSpecification.compile(objectMapper, file);
+		Map<String, Object> specificationData = compiledSpecification.instantiate(objectMapper);
+		Map<String, Object> setup = ObjectConverter.asMap(objectMapper, specificationData.get("setup"));
+		// Load test occupies the application, so that latencies aren't affected by the other specifications.
+		Lock lock = mockableLock.writeLock();
+		lock.lock();
+		try {
+			mockSupporter.setup(setup);
+			// Latency budgets per step, which are same in all executions.
+			Map<Integer, LatencyBudget> latencyBudgets = new ConcurrentHashMap<>();
+			LoadTestResult result = new LoadTestRunner(loadProfile).run(file.getName(), stepRecorder -> {
+				AtomicInteger position = new AtomicInteger();
+				PhaseRecorder.startSpecification(file.getPath(), true);
+				boolean failed = true;
+				try {
+					assertionSupporterFactory.create(compiledSpecification.instantiate(objectMapper)).forEach(assertionSupporter -> {
+						stepRecorder.record(assertionSupporter.getStepName(), assertionSupporter.getLatency(), assertionSupporter.getConnectionWaitTime());
+						latencyBudgets.putIfAbsent(position.incrementAndGet(), assertionSupporter.getLatencyBudget());
+						PhaseRecorder.record(Phase.ASSERTION, "response", assertionSupporter::executeAssert);
+						PhaseRecorder.record(Phase.ASSERTION, "latency", assertionSupporter::assertLatency);
+						PhaseRecorder.record(Phase.ASSERTION, "resource", assertionSupporter::assertResourceUsage);
+					});
+					failed = false;
+				} finally {
+					responseHistoryService.clear();
+					PhaseRecorder.endSpecification(failed);
+				}
+			});
+			List<String> violations = new ArrayList<>();
+			int position = 0;
+			for (Map.Entry<String, LatencyHistogram> step : result.getSteps().entrySet()) {
+				LatencyBudget latencyBudget = latencyBudgets.get(++position);
+				if (latencyBudget != null) {
+					violations.addAll(latencyBudget.verify(step.getKey(), step.getValue()));
+				}
+			}
+			if (result.isErrorRateExceeded() || !violations.isEmpty()) {
+				fail(String.join(System.lineSeparator(), violations) + System.lineSeparator() + result.toReport());
+			}
+			return result;
+		} finally {
+			try {
+				mockSupporter.cleanUp(setup, ObjectConverter.asMap(objectMapper, specificationData.get("cleanup")));
+			} finally {
+				lock.unlock();
+				log.info("(Integration) Finished load test : {}", file.getPath());
+			}
+		}
+	}
+
+	private boolean containsStepVerification(Map<String, Object> specificationData) {
+		Stream<Object> responses = specificationData.containsKey("scenario")
+				? ObjectConverter.asList(objectMapper, specificationData.get("scenario")).stream()
+						.map(step -> ObjectConverter.asMap(objectMapper, step).get("response"))
+				: Stream.of(specificationData.get("response"));
+		return responses.anyMatch(response -> ObjectConverter.asMap(objectMapper, response).containsKey("verify"));
+	}
+
 	void execute(AssertionSupporterFactory assertionSupporterFactory, int port) {
 		// To reflect test resources in interactive mode
 		new Thread(this::watchTestResources).start();
@@ -124,6 +241,8 @@ class IntegrationExecutor {
 					Object context = watchEvent.context();
 					try {
 						FileUtils.copyDirectory(new File(resourcePath + context), new File(destinationPath + context));
+						// Referenced files might have been changed as well
+						CompiledSpecification.clearCache();
 					} catch (IOException e) {
 						e.printStackTrace();
 					}
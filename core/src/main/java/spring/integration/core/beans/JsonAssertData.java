@@ -0,0 +1,24 @@
+package spring.integration.core.beans;
+
+import lombok.Getter;
+import org.skyscreamer.jsonassert.JSONCompareMode;
+
+@Getter
+public class JsonAssertData extends AssertData {
+
+	/**
+	 * Maximum number of differences after which comparison stops.
+	 */
+	private int maxDifferences;
+
+	/**
+	 * constructor of json AssertData for body.
+	 *
+	 * @Param jsonCompareMode is used for asserting body part
+	 * @Param maxDifferences is the number of differences after which comparison stops
+	 */
+	public JsonAssertData(Object actual, Object expected, JSONCompareMode jsonCompareMode, int maxDifferences) {
+		super(actual, expected, false, jsonCompareMode);
+		this.maxDifferences = maxDifferences;
+	}
+}
@@ -9,6 +9,16 @@ public class XmlAssertData extends AssertData {
 
 	private XmlCompareMode xmlCompareMode;
 
+	/**
+	 * Whether the body is compared event by event with StAX instead of DOM.
+	 */
+	private boolean streaming;
+
+	/**
+	 * Maximum number of differences after which streaming comparison stops.
+	 */
+	private int maxDifferences;
+
 	/**
 	 * constructor of xml AssertData.
 	 *
@@ -20,4 +30,16 @@ public class XmlAssertData extends AssertData {
 		super(actual, expected, isRegex, jsonCompareMode);
 		this.xmlCompareMode = xmlCompareMode;
 	}
+
+	/**
+	 * constructor of xml AssertData for streaming comparison of body.
+	 *
+	 * @Param xmlCompareMode is used for asserting body part
+	 * @Param maxDifferences is the number of differences after which comparison stops
+	 */
+	public XmlAssertData(Object actual, Object expected, XmlCompareMode xmlCompareMode, int maxDifferences) {
+		this(actual, expected, false, null, xmlCompareMode);
+		this.streaming = true;
+		this.maxDifferences = maxDifferences;
+	}
 }
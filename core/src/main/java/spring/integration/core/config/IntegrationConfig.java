@@ -2,17 +2,23 @@ package spring.integration.core.config;
 
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.Ordered;
 import org.springframework.core.annotation.Order;
 import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.util.StringUtils;
 import spring.integration.core.support.AvailablePortPropertySource;
 import spring.integration.core.support.IntegrationRestTemplate;
 import spring.integration.core.support.ResponseHistoryService;
+import spring.integration.core.support.metrics.IntegrationMetrics;
 import spring.integration.core.support.mock.MockSupporter;
 import spring.integration.core.support.mock.Mockable;
+import spring.integration.core.support.resource.ResourceUsageFilter;
+import spring.integration.core.support.resource.ResourceUsageRegistry;
 
+import java.nio.file.Paths;
 import java.util.Map;
 
 @Configuration
@@ -42,6 +48,28 @@ public class IntegrationConfig {
         return new ObjectMapper().enable(JsonParser.Feature.ALLOW_COMMENTS);
     }
 
+    @Bean
+    public ResourceUsageRegistry resourceUsageRegistry(@Value("${integration.resource.timeout:1000}") long timeout,
+                                                       @Value("${integration.resource.timeToLive:60000}") long timeToLive) {
+        return new ResourceUsageRegistry(timeout, timeToLive);
+    }
+
+    /**
+     * Filter registered to the application under test, which measures resources consumed for requests of specifications.
+     */
+    @Bean
+    public ResourceUsageFilter resourceUsageFilter(ResourceUsageRegistry resourceUsageRegistry) {
+        return new ResourceUsageFilter(resourceUsageRegistry);
+    }
+
+    /**
+     * Metrics of specification execution, which are exported into "integration.metrics.file" when it's specified.
+     */
+    @Bean
+    public IntegrationMetrics integrationMetrics(@Value("${integration.metrics.file:}") String file, ObjectMapper integrationObjectMapper) {
+        return new IntegrationMetrics(integrationObjectMapper, StringUtils.hasText(file) ? Paths.get(file) : null);
+    }
+
     @Bean
     public ResponseHistoryService responseHistoryService(ObjectMapper integrationObjectMapper) {
         return new ResponseHistoryService(integrationObjectMapper);
@@ -0,0 +1,21 @@
+package spring.integration.core.enums;
+
+/**
+ * Type of HTTP client which sends requests of Test Specification.
+ */
+public enum HttpClientType {
+
+	/**
+	 * HttpURLConnection of JDK. A connection is opened for each request.
+	 */
+	SIMPLE,
+	/**
+	 * Apache HttpClient with connection pool. Connections are kept alive and reused.
+	 */
+	POOLED,
+	/**
+	 * MockMvc which dispatches requests to the application in-process without network.
+	 * It's always used when the application runs without embedded server.
+	 */
+	MOCK_MVC
+}
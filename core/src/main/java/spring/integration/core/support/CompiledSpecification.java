@@ -0,0 +1,185 @@
+package spring.integration.core.support;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import spring.integration.core.support.incremental.DependencyRecorder;
+import spring.integration.core.support.injector.ValueInjectionManager;
+import spring.integration.core.support.recording.Phase;
+import spring.integration.core.support.recording.PhaseRecorder;
+import spring.integration.core.utils.ObjectConverter;
+
+/**
+ * Test specification which has been parsed, validated and resolved its static values already.
+ * Instances are cached per file and reused until the file or a resource which it depends on is modified.
+ */
+@Slf4j
+public final class CompiledSpecification {
+
+	private static final Map<String, CompiledSpecification> CACHE = new ConcurrentHashMap<>();
+
+	/**
+	 * Same pattern as script part and reference key which are resolved by injectors for each execution.
+	 */
+	private static final Pattern DYNAMIC_VALUE_PATTERN = Pattern.compile("```(.+)?```");
+
+	private static final String REFERENCE_KEY = "$ref";
+
+	/**
+	 * Stamp of resource which is not found in class path.
+	 */
+	private static final String MISSING = "missing";
+
+	@Getter
+	private final File file;
+
+	private final long lastModified;
+
+	private final long length;
+
+	/**
+	 * Specification data whose static values are resolved. It's never exposed to keep it unchanged.
+	 */
+	private final Map<String, Object> template;
+
+	/**
+	 * Whether the specification has parts which need to be injected for each execution.
+	 */
+	@Getter
+	private final boolean dynamic;
+
+	/**
+	 * Resources which were read to resolve static values.
+	 */
+	@Getter
+	private final Set<String> dependencies;
+
+	/**
+	 * Last modified time and length of each dependency when it was compiled.
+	 */
+	private final Map<String, String> dependencyStamps;
+
+	private CompiledSpecification(File file, long lastModified, long length, Map<String, Object> template, Set<String> dependencies) {
+		this.file = file;
+		this.lastModified = lastModified;
+		this.length = length;
+		this.template = template;
+		this.dynamic = containsDynamicValue(template);
+		this.dependencies = dependencies;
+		this.dependencyStamps = dependencies.stream().collect(Collectors.toMap(Function.identity(), CompiledSpecification::stamp));
+	}
+
+	/**
+	 * Get compiled specification of the file. It's compiled only when it's not cached, or the file or its dependencies have been modified.
+	 * Resources read to compile it are recorded as dependencies of the executed specification even when it's cached.
+	 *
+	 * @param objectMapper ObjectMapper instance which contains JsonParser.Feature.ALLOW_COMMENTS
+	 * @param specificationFile Test specification file
+	 */
+	public static CompiledSpecification compile(ObjectMapper objectMapper, File specificationFile) {
+		String key = specificationFile.getAbsolutePath();
+		CompiledSpecification cached = CACHE.get(key);
+		if (cached != null && cached.isUpToDate()) {
+			cached.dependencies.forEach(DependencyRecorder::record);
+			return cached;
+		}
+		// Stamp of the file is taken before reading it, so that modification while compiling is detected next time.
+		long lastModified = specificationFile.lastModified();
+		long length = specificationFile.length();
+		Map<String, Object> template;
+		Set<String> dependencies;
+		DependencyRecorder.start();
+		try {
+			template = resolveStaticValues(objectMapper, specificationFile);
+		} finally {
+			dependencies = DependencyRecorder.finish();
+		}
+		CompiledSpecification compiled = new CompiledSpecification(specificationFile, lastModified, length, template, dependencies);
+		CACHE.put(key, compiled);
+		return compiled;
+	}
+
+	/**
+	 * Discard all compiled specifications. e.g. when referenced files have been modified.
+	 */
+	public static void clearCache() {
+		CACHE.clear();
+	}
+
+	/**
+	 * Create specification data for a single execution. The returned data can be modified freely.
+	 */
+	public Map<String, Object> instantiate(ObjectMapper objectMapper) {
+		Map<String, Object> specificationData = ObjectConverter.deepCopy(template);
+		if (!dynamic) {
+			return specificationData;
+		}
+		Map<String, Object> injected = ValueInjectionManager.injectDynamicValues(objectMapper, specificationData);
+		ValueInjectionManager.logInjectResult(objectMapper, template, injected);
+		return injected;
+	}
+
+	private boolean isUpToDate() {
+		return file.lastModified() == lastModified && file.length() == length
+				&& dependencyStamps.entrySet().stream().allMatch(dependency -> dependency.getValue().equals(stamp(dependency.getKey())));
+	}
+
+	/**
+	 * Get last modified time and length of the resource in class path. Resources in jar files are regarded as unchanged.
+	 */
+	private static String stamp(String resourcePath) {
+		URL url = ClassLoader.getSystemResource(resourcePath);
+		if (url == null) {
+			return MISSING;
+		}
+		if (!"file".equals(url.getProtocol())) {
+			return url.toString();
+		}
+		try {
+			File resource = new File(url.toURI());
+			return resource.lastModified() + ":" + resource.length();
+		} catch (URISyntaxException ex) {
+			return url.toString();
+		}
+	}
+
+	private static Map<String, Object> resolveStaticValues(ObjectMapper objectMapper, File specificationFile) {
+		JsonNode specification;
+		try {
+			specification = objectMapper.readTree(specificationFile);
+		} catch (IOException ex) {
+			throw new TestException(ex.getMessage(), ex);
+		}
+		PhaseRecorder.record(Phase.SCHEMA_VALIDATION, specificationFile.getName(),
+				() -> JsonSchemaValidator.validate(specification, specificationFile.getName()));
+		Map<String, Object> specificationData = objectMapper.convertValue(specification, new TypeReference<LinkedHashMap<String, Object>>() {});
+		Map<String, Object> resolved = ValueInjectionManager.injectStaticValues(objectMapper, ObjectConverter.deepCopy(specificationData));
+		ValueInjectionManager.logInjectResult(objectMapper, specificationData, resolved);
+		return resolved;
+	}
+
+	private static boolean containsDynamicValue(Object object) {
+		if (object instanceof Map) {
+			Map<?, ?> map = (Map<?, ?>) object;
+			return map.containsKey(REFERENCE_KEY) || map.values().stream().anyMatch(CompiledSpecification::containsDynamicValue);
+		}
+		if (object instanceof List) {
+			return ((List<?>) object).stream().anyMatch(CompiledSpecification::containsDynamicValue);
+		}
+		return object instanceof String && DYNAMIC_VALUE_PATTERN.matcher((String) object).find();
+	}
+}
@@ -2,23 +2,100 @@ package spring.integration.core.support;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.annotation.PostConstruct;
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.io.ConnectionEndpoint;
+import org.apache.hc.client5.http.io.HttpClientConnectionManager;
+import org.apache.hc.client5.http.io.LeaseRequest;
+import org.apache.hc.core5.http.protocol.HttpContext;
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import jakarta.servlet.Filter;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ApplicationContext;
 import org.springframework.http.*;
-import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.http.client.support.HttpRequestWrapper;
 import org.springframework.http.converter.StringHttpMessageConverter;
 import org.springframework.stereotype.Component;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.util.StringUtils;
 import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.RequestCallback;
 import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.ResponseExtractor;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.context.WebApplicationContext;
+import spring.integration.core.enums.HttpClientType;
+import spring.integration.core.support.resource.ResourceUsageFilter;
 
 import java.io.IOException;
+import java.net.URI;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
 
 @Component
-public class IntegrationRestTemplate extends RestTemplate {
+public class IntegrationRestTemplate extends RestTemplate implements DisposableBean {
+
+    @Value("${integration.connect.client:POOLED}")
+    private HttpClientType clientType = HttpClientType.POOLED;
 
     @Value("${integration.connect.connectTimeout:30000}")
-    private int connectTimeout;
+    private int connectTimeout = 30000;
+
+    /**
+     * Timeout to wait for response in milliseconds, 0 means infinite.
+     */
+    @Value("${integration.connect.readTimeout:0}")
+    private int readTimeout;
+
+    @Value("${integration.connect.maxConnections:20}")
+    private int maxConnections = 20;
+
+    /**
+     * Maximum time to keep an idle connection alive in milliseconds.
+     */
+    @Value("${integration.connect.keepAlive:30000}")
+    private long keepAlive = 30000;
+
+    @Value("${server.servlet.context-path:}")
+    private String serverContextPath = "";
+
+    @Autowired(required = false)
+    private ApplicationContext applicationContext;
+
+    /**
+     * Request factory created by this instance, which is wrapped when interceptors are set.
+     */
+    private ClientHttpRequestFactory requestFactory;
+
+    /**
+     * Pool of connections, which is null unless the client is POOLED.
+     */
+    private PoolingHttpClientConnectionManager connectionManager;
+
+    /**
+     * Value of System.nanoTime when response headers of the last request on the current thread were received.
+     */
+    private final ThreadLocal<Long> responseReceivedTime = ThreadLocal.withInitial(() -> 0L);
+
+    /**
+     * Time in nanoseconds which the last request on the current thread waited for pooled connections.
+     */
+    private final ThreadLocal<Long> connectionWaitTime = ThreadLocal.withInitial(() -> 0L);
 
     public IntegrationRestTemplate() {
         StringHttpMessageConverter stringConverter = new StringHttpMessageConverter();
@@ -26,6 +103,111 @@ public class IntegrationRestTemplate extends RestTemplate {
         getMessageConverters().add(stringConverter);
     }
 
+    @PostConstruct
+    public void initRequestFactory() {
+        requestFactory = createRequestFactory();
+        setRequestFactory(requestFactory);
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        if (requestFactory instanceof DisposableBean) {
+            ((DisposableBean) requestFactory).destroy();
+        }
+    }
+
+    /**
+     * Get type of HTTP client. MockMvc is used regardless of the property when the application runs without embedded server.
+     */
+    private HttpClientType resolveClientType() {
+        if (applicationContext instanceof WebApplicationContext && !(applicationContext instanceof WebServerApplicationContext)) {
+            return HttpClientType.MOCK_MVC;
+        }
+        return clientType;
+    }
+
+    private ClientHttpRequestFactory createRequestFactory() {
+        HttpClientType clientType = resolveClientType();
+        if (clientType == HttpClientType.MOCK_MVC) {
+            // MockMvc configured by @AutoConfigureMockMvc contains filters of the application, otherwise only the filter to measure resources.
+            MockMvc mockMvc = applicationContext.getBeanProvider(MockMvc.class)
+                    .getIfAvailable(() -> MockMvcBuilders.webAppContextSetup((WebApplicationContext) applicationContext)
+                            .addFilters(applicationContext.getBeanProvider(ResourceUsageFilter.class).stream().toArray(Filter[]::new))
+                            .build());
+            getInterceptors().add(new GetRedirectInterceptor());
+            return new MockMvcClientHttpRequestFactory(mockMvc, serverContextPath);
+        }
+        if (clientType == HttpClientType.SIMPLE) {
+            SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+            requestFactory.setConnectTimeout(connectTimeout);
+            requestFactory.setReadTimeout(readTimeout);
+            return requestFactory;
+        }
+        ConnectionConfig connectionConfig = ConnectionConfig.custom()
+                .setConnectTimeout(Timeout.ofMilliseconds(connectTimeout))
+                .setSocketTimeout(Timeout.ofMilliseconds(readTimeout))
+                // Check connections which might have been closed by server before reusing them.
+                .setValidateAfterInactivity(TimeValue.ofSeconds(1))
+                .build();
+        getInterceptors().add(new GetRedirectInterceptor());
+        connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnections)
+                .setDefaultConnectionConfig(connectionConfig)
+                .build();
+        // Behave like HttpURLConnection except connection reuse, so that responses are asserted as they are.
+        return new HttpComponentsClientHttpRequestFactory(HttpClients.custom()
+                .setConnectionManager(new TimedConnectionManager(connectionManager, connectionWaitTime))
+                .setKeepAliveStrategy((response, context) -> TimeValue.ofMilliseconds(keepAlive))
+                .evictIdleConnections(TimeValue.ofMilliseconds(keepAlive))
+                .disableRedirectHandling()
+                .disableCookieManagement()
+                .disableContentCompression()
+                .build());
+    }
+
+    /**
+     * Get value of System.nanoTime when response headers of the last request on the current thread were received.
+     * The response body is read after that.
+     */
+    public long getResponseReceivedTime() {
+        return responseReceivedTime.get();
+    }
+
+    /**
+     * Get time in nanoseconds which the last request on the current thread waited for pooled connections.
+     * It's not a part of server latency, e.g. when more requests are sent concurrently than maximum connections.
+     */
+    public long getConnectionWaitTime() {
+        return connectionWaitTime.get();
+    }
+
+    /**
+     * Raise maximum number of pooled connections, so that concurrent requests don't wait for connections.
+     * It does nothing unless the client is POOLED, or when the maximum is already enough.
+     *
+     * @param connections Number of requests which are sent concurrently
+     */
+    public synchronized void ensureMaxConnections(int connections) {
+        if (connectionManager != null && connectionManager.getMaxTotal() < connections) {
+            connectionManager.setMaxTotal(connections);
+            connectionManager.setDefaultMaxPerRoute(connections);
+        }
+    }
+
+    @Override
+    protected <T> T doExecute(URI url, String uriTemplate, HttpMethod method, RequestCallback requestCallback,
+                              ResponseExtractor<T> responseExtractor) {
+        connectionWaitTime.set(0L);
+        return super.doExecute(url, uriTemplate, method, requestCallback, responseExtractor);
+    }
+
+    @Override
+    protected void handleResponse(URI url, HttpMethod method, ClientHttpResponse response) throws IOException {
+        responseReceivedTime.set(System.nanoTime());
+        super.handleResponse(url, method, response);
+    }
+
     public ResponseEntity exchange(ObjectMapper objectMapper, RequestEntity requestEntity, Class clazz) {
         try {
 
@@ -58,4 +240,97 @@ public class IntegrationRestTemplate extends RestTemplate {
             throw new TestException("Exception while parsing response json.", ioException);
         }
     }
+
+    /**
+     * Follow redirects only for GET like HttpURLConnection does.
+     * Apache HttpClient doesn't follow them, because its redirect handling applies to any method.
+     */
+    private static class GetRedirectInterceptor implements ClientHttpRequestInterceptor {
+
+        private static final int MAX_REDIRECTS = 20;
+
+        @Override
+        public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+            ClientHttpResponse response = execution.execute(request, body);
+            HttpRequest currentRequest = request;
+            for (int i = 0; i < MAX_REDIRECTS && HttpMethod.GET.equals(request.getMethod()) && isRedirected(response); i++) {
+                URI location = currentRequest.getURI().resolve(response.getHeaders().getLocation());
+                response.close();
+                currentRequest = new HttpRequestWrapper(request) {
+                    @Override
+                    public URI getURI() {
+                        return location;
+                    }
+                };
+                response = execution.execute(currentRequest, body);
+            }
+            return response;
+        }
+
+        private boolean isRedirected(ClientHttpResponse response) throws IOException {
+            return response.getStatusCode().is3xxRedirection() && response.getHeaders().getLocation() != null;
+        }
+    }
+
+    /**
+     * Connection manager which adds time to lease connections to the wait time of the current thread.
+     * Redirected requests lease connections more than once, so that their wait times are summed up.
+     */
+    private static class TimedConnectionManager implements HttpClientConnectionManager {
+
+        private final HttpClientConnectionManager delegate;
+
+        private final ThreadLocal<Long> connectionWaitTime;
+
+        TimedConnectionManager(HttpClientConnectionManager delegate, ThreadLocal<Long> connectionWaitTime) {
+            this.delegate = delegate;
+            this.connectionWaitTime = connectionWaitTime;
+        }
+
+        @Override
+        public LeaseRequest lease(String id, HttpRoute route, Timeout requestTimeout, Object state) {
+            LeaseRequest leaseRequest = delegate.lease(id, route, requestTimeout, state);
+            return new LeaseRequest() {
+                @Override
+                public ConnectionEndpoint get(Timeout timeout) throws InterruptedException, ExecutionException, TimeoutException {
+                    long startTime = System.nanoTime();
+                    try {
+                        return leaseRequest.get(timeout);
+                    } finally {
+                        connectionWaitTime.set(connectionWaitTime.get() + System.nanoTime() - startTime);
+                    }
+                }
+
+                @Override
+                public boolean cancel() {
+                    return leaseRequest.cancel();
+                }
+            };
+        }
+
+        @Override
+        public void release(ConnectionEndpoint endpoint, Object newState, TimeValue validDuration) {
+            delegate.release(endpoint, newState, validDuration);
+        }
+
+        @Override
+        public void connect(ConnectionEndpoint endpoint, TimeValue connectTimeout, HttpContext context) throws IOException {
+            delegate.connect(endpoint, connectTimeout, context);
+        }
+
+        @Override
+        public void upgrade(ConnectionEndpoint endpoint, HttpContext context) throws IOException {
+            delegate.upgrade(endpoint, context);
+        }
+
+        @Override
+        public void close(CloseMode closeMode) {
+            delegate.close(closeMode);
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+    }
 }
@@ -0,0 +1,60 @@
+package spring.integration.core.support;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.github.fge.jsonschema.main.JsonSchema;
+import com.github.fge.jsonschema.main.JsonSchemaFactory;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hashing;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutionException;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+/**
+ * Compiled JSON schemas which are shared across specifications and steps.
+ * Schemas are cached by hash of their content, so that the same schema is compiled only once even if it's loaded from different files.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class JsonSchemaCache {
+
+	static final long MAXIMUM_SIZE = 256;
+
+	/**
+	 * Factory is expensive to build, and it keeps schemas loaded from URIs, so that it's shared as well.
+	 */
+	private static final JsonSchemaFactory FACTORY = JsonSchemaFactory.byDefault();
+
+	private static final Cache<String, JsonSchema> CACHE = CacheBuilder.newBuilder()
+			.maximumSize(MAXIMUM_SIZE)
+			.build();
+
+	/**
+	 * Get compiled JSON schema, which is compiled and cached at the first time.
+	 * It throws TestException when the schema cannot be compiled.
+	 *
+	 * @param schema JSON schema
+	 *
+	 * @return JsonSchema which is thread safe
+	 */
+	public static JsonSchema getJsonSchema(JsonNode schema) {
+		try {
+			return CACHE.get(hash(schema), () -> FACTORY.getJsonSchema(schema));
+		} catch (ExecutionException | UncheckedExecutionException ex) {
+			throw new TestException(ex.getCause().getMessage(), ex.getCause());
+		}
+	}
+
+	static long size() {
+		return CACHE.size();
+	}
+
+	static void clear() {
+		CACHE.invalidateAll();
+	}
+
+	private static String hash(JsonNode schema) {
+		return Hashing.sha256().hashString(schema.toString(), StandardCharsets.UTF_8).toString();
+	}
+}
@@ -1,11 +1,11 @@
 package spring.integration.core.support;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.fge.jackson.JsonLoader;
 import com.github.fge.jsonschema.core.exceptions.ProcessingException;
 import com.github.fge.jsonschema.core.report.ProcessingReport;
 import com.github.fge.jsonschema.main.JsonSchema;
-import com.github.fge.jsonschema.main.JsonSchemaFactory;
 import java.io.File;
 import java.io.IOException;
 import lombok.AccessLevel;
@@ -20,7 +20,7 @@ public class JsonSchemaValidator {
 
 	static {
 		try {
-			SCHEMA = JsonSchemaFactory.byDefault().getJsonSchema(JsonLoader.fromResource(SCHEMA_FILE_PATH));
+			SCHEMA = JsonSchemaCache.getJsonSchema(JsonLoader.fromResource(SCHEMA_FILE_PATH));
 		} catch (Exception ex) {
 			throw new TestException(ex.getMessage(), ex);
 		}
@@ -35,14 +35,28 @@ public class JsonSchemaValidator {
 	 */
 	public static void validate(ObjectMapper objectMapper, File specificationFile) {
 		try {
-			ProcessingReport report = SCHEMA.validate(objectMapper.readTree(specificationFile));
+			validate(objectMapper.readTree(specificationFile), specificationFile.getName());
+		} catch (IOException ex) {
+			throw new TestException(ex.getMessage(), ex);
+		}
+	}
+
+	/**
+	 * Validate parsed json whether it matches Test Specification JSON schema.
+	 * It throws TestException when specification has violation of JSON schema.
+	 *
+	 * @param specification Parsed test specification
+	 * @param name Name of test specification to be shown in the message
+	 */
+	public static void validate(JsonNode specification, String name) {
+		try {
+			ProcessingReport report = SCHEMA.validate(specification);
 			if (!report.isSuccess()) {
-				throw new TestException(String.format("%s contains violation of json schema. %s", specificationFile.getName(), report.toString()));
+				throw new TestException(String.format("%s contains violation of json schema. %s", name, report.toString()));
 			}
-		} catch (IOException | ProcessingException ex) {
+		} catch (ProcessingException ex) {
 			throw new TestException(ex.getMessage(), ex);
 		}
-
 	}
 
 }
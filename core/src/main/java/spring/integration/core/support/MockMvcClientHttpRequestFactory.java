@@ -0,0 +1,72 @@
+package spring.integration.core.support;
+
+import java.io.IOException;
+import java.net.URI;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.util.StringUtils;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.request;
+
+/**
+ * Request factory which dispatches requests to DispatcherServlet through MockMvc instead of sending them over network.
+ * Host and port of request URI are ignored, and the context path is removed from its path like servlet container does.
+ */
+@RequiredArgsConstructor
+public class MockMvcClientHttpRequestFactory implements ClientHttpRequestFactory {
+
+	private final MockMvc mockMvc;
+
+	private final String contextPath;
+
+	@Override
+	public ClientHttpRequest createRequest(URI uri, HttpMethod httpMethod) {
+		return new MockClientHttpRequest(httpMethod, uri) {
+			@Override
+			protected ClientHttpResponse executeInternal() throws IOException {
+				MockHttpServletRequestBuilder requestBuilder = request(httpMethod, uri)
+						.headers(getHeaders())
+						.content(getBodyAsBytes());
+				if (StringUtils.hasLength(contextPath) && uri.getRawPath().startsWith(contextPath)) {
+					requestBuilder.contextPath(contextPath);
+				}
+				return toClientHttpResponse(perform(requestBuilder, uri));
+			}
+		};
+	}
+
+	private MockHttpServletResponse perform(MockHttpServletRequestBuilder requestBuilder, URI uri) throws IOException {
+		try {
+			MvcResult result = mockMvc.perform(requestBuilder).andReturn();
+			if (result.getRequest().isAsyncStarted()) {
+				// Wait for the result of asynchronous handler, and dispatch it like servlet container does.
+				result.getAsyncResult();
+				result = mockMvc.perform(asyncDispatch(result)).andReturn();
+			}
+			return result.getResponse();
+		} catch (IOException ex) {
+			throw ex;
+		} catch (Exception ex) {
+			throw new IOException("Exception while dispatching request to " + uri, ex);
+		}
+	}
+
+	private ClientHttpResponse toClientHttpResponse(MockHttpServletResponse servletResponse) {
+		MockClientHttpResponse response = new MockClientHttpResponse(servletResponse.getContentAsByteArray(),
+				HttpStatusCode.valueOf(servletResponse.getStatus()));
+		servletResponse.getHeaderNames()
+				.forEach(name -> servletResponse.getHeaders(name).forEach(value -> response.getHeaders().add(name, value)));
+		return response;
+	}
+}
@@ -5,7 +5,6 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.jayway.jsonpath.DocumentContext;
 import com.jayway.jsonpath.JsonPath;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.regex.Matcher;
@@ -24,7 +23,10 @@ public class ResponseHistoryService {
 
 	private final ObjectMapper integrationObjectMapper;
 
-	private List<Map<String, Object>> responseHistory = Collections.synchronizedList(new ArrayList<>());
+	/**
+	 * Response history is kept per thread, because each specification is executed on a single thread.
+	 */
+	private final ThreadLocal<List<Map<String, Object>>> responseHistory = ThreadLocal.withInitial(ArrayList::new);
 
 	private static final Pattern REFERENCE_PATTERN = Pattern.compile("%\\{(.+)}");
 
@@ -34,7 +36,7 @@ public class ResponseHistoryService {
 	public ResponseHistoryService addToResponseHistory(ResponseEntity responseEntity) {
 		// Convert responseEntity to Map.
 		// Because ResponseEntity isn't able to be converted to DocumentContext directly.
-		responseHistory.add(ObjectConverter.toMap(integrationObjectMapper, responseEntity));
+		getResponseHistory().add(ObjectConverter.toMap(integrationObjectMapper, responseEntity));
 		return this;
 	}
 
@@ -42,7 +44,7 @@ public class ResponseHistoryService {
 	 * Clear response history.
 	 */
 	public ResponseHistoryService clear() {
-		responseHistory.clear();
+		responseHistory.remove();
 		return this;
 	}
 
@@ -50,13 +52,21 @@ public class ResponseHistoryService {
 	 * Exchange request map with response history.
 	 */
 	public Map<String, Object> executeExchangeWithHistory(Map<String, Object> requestMap) {
-		if (!responseHistory.isEmpty() && containReferenceSyntax(requestMap)) {
-			DocumentContext documentContext = JsonPath.parse(responseHistory);
+		List<Map<String, Object>> history = getResponseHistory();
+		if (!history.isEmpty() && containReferenceSyntax(requestMap)) {
+			DocumentContext documentContext = JsonPath.parse(history);
 			replace(requestMap, documentContext);
 		}
 		return requestMap;
 	}
 
+	/**
+	 * Get response history of specification which is executed on current thread.
+	 */
+	List<Map<String, Object>> getResponseHistory() {
+		return responseHistory.get();
+	}
+
 	private boolean containReferenceSyntax(Object object) {
 		try {
 			return REFERENCE_PATTERN.matcher(integrationObjectMapper.writeValueAsString(object)).find();
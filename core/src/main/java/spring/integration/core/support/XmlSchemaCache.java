@@ -0,0 +1,63 @@
+package spring.integration.core.support;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hashing;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutionException;
+import javax.xml.XMLConstants;
+import javax.xml.transform.stream.StreamSource;
+import javax.xml.validation.Schema;
+import javax.xml.validation.SchemaFactory;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+/**
+ * Compiled XML schemas which are shared across specifications and steps.
+ * Schemas are cached by hash of their content, because compilation of a large XSD is much more expensive than validation with it.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class XmlSchemaCache {
+
+	static final long MAXIMUM_SIZE = 64;
+
+	private static final Cache<String, Schema> CACHE = CacheBuilder.newBuilder()
+			.maximumSize(MAXIMUM_SIZE)
+			.build();
+
+	/**
+	 * Get compiled XML schema, which is compiled and cached at the first time.
+	 * It throws TestException when the schema cannot be compiled.
+	 *
+	 * @param xsdContent Content of XSD
+	 *
+	 * @return Schema which is thread safe, unlike Validator created from it
+	 */
+	public static Schema getSchema(String xsdContent) {
+		try {
+			return CACHE.get(hash(xsdContent), () -> compile(xsdContent));
+		} catch (ExecutionException | UncheckedExecutionException ex) {
+			throw new TestException(ex.getCause().getMessage(), ex.getCause());
+		}
+	}
+
+	static long size() {
+		return CACHE.size();
+	}
+
+	static void clear() {
+		CACHE.invalidateAll();
+	}
+
+	private static Schema compile(String xsdContent) throws Exception {
+		// SchemaFactory is not thread safe, so that it's created for each compilation.
+		return SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI)
+				.newSchema(new StreamSource(new StringReader(xsdContent)));
+	}
+
+	private static String hash(String xsdContent) {
+		return Hashing.sha256().hashString(xsdContent, StandardCharsets.UTF_8).toString();
+	}
+}
@@ -18,6 +18,7 @@ import org.springframework.http.ResponseEntity;
 import spring.integration.core.beans.AssertData;
 import spring.integration.core.enums.HeaderAssertion;
 import spring.integration.core.support.TestException;
+import spring.integration.core.support.resource.ResourceUsage;
 import spring.integration.core.utils.ObjectConverter;
 
 @RequiredArgsConstructor(access = AccessLevel.PACKAGE)
@@ -37,6 +38,53 @@ public abstract class AssertionSupporter {
 	@Getter
 	Class responseType;
 
+	/**
+	 * Method and URL of the request. e.g. "GET /foo/{id}"
+	 */
+	@Getter
+	String stepName;
+
+	/**
+	 * Location of test specifications in class path, which is used to identify the specification by relative path.
+	 */
+	String testDataLocation;
+
+	/**
+	 * Elapsed time in nanoseconds from sending request until receiving response, excluding connectionWaitTime.
+	 */
+	@Getter
+	long latency;
+
+	/**
+	 * Time in nanoseconds which the request waited for pooled connections before it was sent.
+	 */
+	@Getter
+	long connectionWaitTime;
+
+	/**
+	 * Elapsed time in nanoseconds from sending request until receiving response headers.
+	 */
+	@Getter
+	long waitingTime;
+
+	@Getter
+	LatencyBudget latencyBudget;
+
+	@Getter
+	ResourceBudget resourceBudget;
+
+	/**
+	 * Resources consumed by the application to handle the request, which is measured only when resourceBudget isn't empty.
+	 */
+	@Getter
+	ResourceUsage resourceUsage;
+
+	/**
+	 * Expectation of mockables for the request, which is "verify" of "response".
+	 */
+	@Getter
+	Map<String, Object> verification;
+
 	/**
 	 * Assert data setup.
 	 *
@@ -46,12 +94,30 @@ public abstract class AssertionSupporter {
 	 *
 	 */
 	void setUpAssertList(Map<String, Object> metaData, ResponseEntity actual, Map<String, Object> expected) {
-		Map<String, Object> assertOptions = ObjectConverter.toMap(objectMapper, metaData.get("assert"));
+		Map<String, Object> assertOptions = ObjectConverter.asMap(objectMapper, metaData.get("assert"));
 		List<AssertData> assertList = new ArrayList<>();
 		assertList.add(httpStatus(actual.getStatusCodeValue(), expected.get("status")));
 		assertList.addAll(header(actual.getHeaders(), expected.get("headers"), assertOptions));
 		Optional.ofNullable(body(actual.getBody(), expected.get("body"), assertOptions)).ifPresent(assertList::add);
 		this.assertList = assertList;
+		this.latencyBudget = LatencyBudget.of(assertOptions, expected);
+		this.verification = ObjectConverter.asMap(objectMapper, expected.get("verify"));
+	}
+
+	/**
+	 * Assert latency with "maxLatencyMs" budget. It's executed after executeAssert, so that wrong responses are reported first.
+	 */
+	public void assertLatency() {
+		latencyBudget.assertLatency(stepName, latency, waitingTime);
+	}
+
+	/**
+	 * Assert resources consumed by the application with "maxAllocatedBytes" and "maxCpuMs" budget.
+	 */
+	public void assertResourceUsage() {
+		if (resourceUsage != null) {
+			resourceBudget.assertUsage(stepName, resourceUsage);
+		}
 	}
 
 	/**
@@ -83,7 +149,7 @@ public abstract class AssertionSupporter {
 	protected List<AssertData> header(HttpHeaders actualHeaders, Object expectedHeaders, Map<String, Object> assertOptions) {
 		Boolean isRegex = HeaderAssertion.REGEX.equals(HeaderAssertion.fromAssert(assertOptions));
 		List<AssertData> assertDataList = new ArrayList<>();
-		Map<String, Object> expectedHeadersMap = ObjectConverter.toMap(objectMapper, expectedHeaders);
+		Map<String, Object> expectedHeadersMap = ObjectConverter.asMap(objectMapper, expectedHeaders);
 		for (Map.Entry<String, Object> expectedHeader : expectedHeadersMap.entrySet()) {
 			String actual = Optional.ofNullable(actualHeaders.get(expectedHeader.getKey()))
 					// Due to RFC 7230 (Header can have multiple fields with same name), we merge it to single string before assertion.
@@ -2,6 +2,7 @@ package spring.integration.core.support.assertion;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.http.client.utils.URIBuilder;
 import org.springframework.core.io.FileSystemResource;
@@ -13,7 +14,11 @@ import org.springframework.util.StringUtils;
 import spring.integration.core.support.IntegrationRestTemplate;
 import spring.integration.core.support.ResponseHistoryService;
 import spring.integration.core.support.TestException;
+import spring.integration.core.support.recording.Phase;
+import spring.integration.core.support.recording.PhaseRecorder;
+import spring.integration.core.support.resource.ResourceUsageRegistry;
 import spring.integration.core.utils.ObjectConverter;
+import spring.integration.core.utils.ResourceUtility;
 import spring.integration.core.utils.UriUtility;
 
 import java.net.URI;
@@ -22,7 +27,9 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
+import java.util.UUID;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.fail;
@@ -42,39 +49,85 @@ public class AssertionSupporterFactory {
 
     private final ResponseHistoryService responseHistoryService;
 
+    /**
+     * Registry of resource usage measured by the application, or null when it's not available.
+     */
+    private final ResourceUsageRegistry resourceUsageRegistry;
+
+    /**
+     * Location of test specifications in class path, which is passed to assertion supporters.
+     */
+    @Setter
+    private String testDataLocation;
+
     public AssertionSupporterFactory(int port, String serverContextPath, ObjectMapper objectMapper,
                                      IntegrationRestTemplate integrationRestTemplate, ResponseHistoryService responseHistoryService) {
+        this(port, serverContextPath, objectMapper, integrationRestTemplate, responseHistoryService, null);
+    }
+
+    public AssertionSupporterFactory(int port, String serverContextPath, ObjectMapper objectMapper,
+                                     IntegrationRestTemplate integrationRestTemplate, ResponseHistoryService responseHistoryService,
+                                     ResourceUsageRegistry resourceUsageRegistry) {
         this.port = port;
         this.serverContextPath = serverContextPath;
         this.objectMapper = objectMapper;
         this.integrationRestTemplate = integrationRestTemplate;
         this.responseHistoryService = responseHistoryService;
+        this.resourceUsageRegistry = resourceUsageRegistry;
     }
 
     public Stream<AssertionSupporter> create(Map<String, Object> specificationData) {
-        Map<String, Object> metadataMap = ObjectConverter.toMap(objectMapper, specificationData.get("metadata"));
+        Map<String, Object> metadataMap = ObjectConverter.asMap(objectMapper, specificationData.get("metadata"));
         if (specificationData.containsKey("scenario")) {
-            List<Map<String, Object>> requestsAndResponses = ObjectConverter.toList(objectMapper, specificationData.get("scenario"));
-            return requestsAndResponses
-                    .stream()
-                    .map(requestAndResponse -> create(metadataMap, requestAndResponse));
+            List<Map<String, Object>> requestsAndResponses = ObjectConverter.asList(objectMapper, specificationData.get("scenario"));
+            return IntStream.range(0, requestsAndResponses.size())
+                    .mapToObj(i -> {
+                        PhaseRecorder.setStep(i + 1);
+                        return create(metadataMap, requestsAndResponses.get(i));
+                    });
         } else {
+            PhaseRecorder.setStep(1);
             return Stream.of(create(metadataMap, specificationData));
         }
     }
 
     private AssertionSupporter create(Map<String, Object> metadataMap, Map<String, Object> requestAndResponseMap) {
-        Map<String, Object> responseMap = ObjectConverter.toMap(objectMapper, requestAndResponseMap.get("response"));
+        Map<String, Object> responseMap = ObjectConverter.asMap(objectMapper, requestAndResponseMap.get("response"));
         String contentType = getContentType(responseMap);
         AssertionSupporter assertionSupporter = createAssertionSupporter(contentType);
         Map<String, Object> requestMap = responseHistoryService.executeExchangeWithHistory(
                 ObjectConverter.toMap(objectMapper, requestAndResponseMap.get("request")));
-        ResponseEntity response = sendRequest(requestMap, assertionSupporter.getResponseType());
-        Map<String, String> assertFieldMap = ObjectConverter.toMap(objectMapper, metadataMap.get("assert"));
+        Map<String, String> assertFieldMap = ObjectConverter.asMap(objectMapper, metadataMap.get("assert"));
+        assertionSupporter.resourceBudget = ResourceBudget.of(ObjectConverter.asMap(objectMapper, metadataMap.get("assert")), responseMap);
+        // Resource usage is measured only for requests which have request id.
+        String requestId = assertionSupporter.resourceBudget.isEmpty() ? null : UUID.randomUUID().toString();
+        String stepName = requestMap.get("method") + " " + requestMap.get("url");
+        RequestEntity request = requestEntityBuilder(requestMap, requestId);
+        log.debug("(Integration) Requesting with RequestEntity : {}", request);
+        // Latency covers only the exchange, so that building the request and keeping the history are not counted.
+        long startTime = System.nanoTime();
+        ResponseEntity response = PhaseRecorder.record(Phase.REQUEST, stepName,
+                () -> integrationRestTemplate.exchange(objectMapper, request, assertionSupporter.getResponseType()));
+        // Waiting for pooled connections is client side, so that it's excluded from latency of the server.
+        assertionSupporter.connectionWaitTime = integrationRestTemplate.getConnectionWaitTime();
+        assertionSupporter.latency = System.nanoTime() - startTime - assertionSupporter.connectionWaitTime;
+        long responseReceivedTime = integrationRestTemplate.getResponseReceivedTime();
+        assertionSupporter.waitingTime = responseReceivedTime > startTime
+                ? responseReceivedTime - startTime - assertionSupporter.connectionWaitTime : assertionSupporter.latency;
+        log.debug("(Integration) Responded with ResponseEntity : {}", response);
+        PhaseRecorder.record(Phase.RESPONSE_CONVERSION, "history", () -> responseHistoryService.addToResponseHistory(response));
+        assertionSupporter.stepName = stepName;
+        assertionSupporter.testDataLocation = testDataLocation;
+        if (requestId != null) {
+            if (resourceUsageRegistry == null) {
+                throw new TestException("Resource usage of request cannot be measured without ResourceUsageRegistry.");
+            }
+            assertionSupporter.resourceUsage = resourceUsageRegistry.take(requestId);
+        }
         if (assertFieldMap.containsKey("swagger")) {
             executeSwaggerValidation(assertFieldMap.get("swagger"), requestMap, response);
         }
-        assertionSupporter.setUpAssertList(metadataMap, response, responseMap);
+        PhaseRecorder.record(Phase.RESPONSE_CONVERSION, "assertion", () -> assertionSupporter.setUpAssertList(metadataMap, response, responseMap));
         return assertionSupporter;
     }
 
@@ -86,16 +139,7 @@ public class AssertionSupporterFactory {
         Map<String, Map<String, Object>> requestMapForValidation = ObjectConverter.toMap(objectMapper, requestMap);
     }
 
-    private ResponseEntity sendRequest(Map<String, Object> requestMap, Class responseType) {
-        RequestEntity request = requestEntityBuilder(requestMap);
-        log.debug("(Integration) Requesting with RequestEntity : {}", request);
-        ResponseEntity response = integrationRestTemplate.exchange(objectMapper, request, responseType);
-        responseHistoryService.addToResponseHistory(response);
-        log.debug("(Integration) Responded with ResponseEntity : {}", response);
-        return response;
-    }
-
-    private RequestEntity requestEntityBuilder(Map<String, Object> requestMap) {
+    private RequestEntity requestEntityBuilder(Map<String, Object> requestMap, String requestId) {
         URI requestUri = createRequestUri(requestMap);
         MultiValueMap<String, String> headers = new LinkedMultiValueMap<>();
         Map<String, String> headerMap = objectMapper.convertValue(requestMap.get("headers"),
@@ -104,6 +148,9 @@ public class AssertionSupporterFactory {
         if (!CollectionUtils.isEmpty(headerMap)) {
             headerMap.forEach(headers::add);
         }
+        if (requestId != null) {
+            headers.add(ResourceUsageRegistry.REQUEST_ID_HEADER, requestId);
+        }
         return new RequestEntity<>(
                 createRequestBody(requestMap, headerMap),
                 headers,
@@ -169,7 +216,7 @@ public class AssertionSupporterFactory {
         requestBodyMap.forEach((key, value) -> {
             if (value instanceof String && ((String) value).startsWith(AssertionSupporter.START_CHARACTER_OF_FILE_PATH)) {
                 String filePathString = ((String) value).replaceFirst(AssertionSupporter.START_CHARACTER_OF_FILE_PATH, "");
-                URL filePath = ClassLoader.getSystemResource(filePathString);
+                URL filePath = ResourceUtility.getResource(filePathString);
                 if (filePath != null) {
                     linkedMultiValueMap.add(key, new FileSystemResource(filePath.getPath()));
                 } else {
@@ -215,7 +262,7 @@ public class AssertionSupporterFactory {
     private String getContentType(Map<String, Object> responseMap) {
         if (responseMap.containsKey("headers")) {
             Map<String, Object> headerMap = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
-            headerMap.putAll(ObjectConverter.toMap(objectMapper, responseMap.get("headers")));
+            headerMap.putAll(ObjectConverter.asMap(objectMapper, responseMap.get("headers")));
             if (headerMap.containsKey(HttpHeaders.CONTENT_TYPE)) {
                 return String.valueOf(headerMap.get(HttpHeaders.CONTENT_TYPE)).toLowerCase();
             }
@@ -12,6 +12,7 @@ import org.apache.commons.io.IOUtils;
 import spring.integration.core.beans.AssertData;
 import spring.integration.core.enums.BodyAssertion;
 import spring.integration.core.support.TestException;
+import spring.integration.core.utils.ResourceUtility;
 
 class BinaryAssertionSupporter extends AssertionSupporter {
 
@@ -51,7 +52,7 @@ class BinaryAssertionSupporter extends AssertionSupporter {
 	private void assertAsBinary(AssertData assertData) throws IOException {
 		String filePath = String.valueOf(assertData.getExpected());
 		if (filePath.startsWith(START_CHARACTER_OF_FILE_PATH)) {
-			InputStream inputStream = ClassLoader.getSystemResourceAsStream(filePath.replaceFirst(START_CHARACTER_OF_FILE_PATH, ""));
+			InputStream inputStream = ResourceUtility.getResourceAsStream(filePath.replaceFirst(START_CHARACTER_OF_FILE_PATH, ""));
 			if (inputStream == null) {
 				fail(filePath + " is not found. Please check the path in your test spec.");
 			}
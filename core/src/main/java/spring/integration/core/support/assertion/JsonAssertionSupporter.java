@@ -1,30 +1,43 @@
 package spring.integration.core.support.assertion;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.fail;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.fge.jsonschema.core.exceptions.ProcessingException;
 import com.github.fge.jsonschema.core.report.ProcessingReport;
-import com.github.fge.jsonschema.main.JsonSchemaFactory;
 import com.jayway.jsonpath.DocumentContext;
 import com.jayway.jsonpath.InvalidPathException;
 import com.jayway.jsonpath.JsonPath;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import org.json.JSONArray;
-import org.json.JSONException;
-import org.json.JSONObject;
-import org.skyscreamer.jsonassert.JSONAssert;
+import java.util.Optional;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 import org.skyscreamer.jsonassert.JSONCompareMode;
 import spring.integration.core.beans.AssertData;
+import spring.integration.core.beans.JsonAssertData;
 import spring.integration.core.enums.BodyAssertion;
+import spring.integration.core.support.JsonSchemaCache;
 import spring.integration.core.support.TestException;
+import spring.integration.core.support.recording.PhaseRecorder;
 import spring.integration.core.utils.ObjectConverter;
 
 class JsonAssertionSupporter extends AssertionSupporter {
 
+	/**
+	 * Directory where expected and actual body are written when they don't match, which is typically under "target".
+	 */
+	static final String DIFF_DIRECTORY_PROPERTY = "integration.diff.directory";
+
 	JsonAssertionSupporter(ObjectMapper objectMapper) {
 		super(objectMapper);
 		this.responseType = Object.class;
@@ -44,7 +57,7 @@ class JsonAssertionSupporter extends AssertionSupporter {
 				break;
 			case EQUALS:
 				Object bodyExcludingIgnoreField = removeIgnoredFields(actualBody, ObjectConverter.toStringList(objectMapper, assertOptions.get("ignore")));
-				assertData = new AssertData(bodyExcludingIgnoreField, expectedBody, false, getJsonCompareMode(assertOptions));
+				assertData = new JsonAssertData(bodyExcludingIgnoreField, expectedBody, getJsonCompareMode(assertOptions), getMaxDifferences(assertOptions));
 				break;
 			default:
 		}
@@ -56,57 +69,103 @@ class JsonAssertionSupporter extends AssertionSupporter {
 		assertList.forEach(assertData -> {
 			if (assertData.isRegex()) {
 				assertWithRegex(assertData);
+			} else if (assertData.getActual() instanceof ProcessingReport) {
+				// Failed report of schema validation is stored as actual, and its messages show the violations.
+				fail("Response body doesn't match the schema." + System.lineSeparator() + assertData.getActual());
+			} else if (!(assertData instanceof JsonAssertData)) {
+				// Status and headers are not json bodies, so that they are shown as they are.
+				if (!Objects.deepEquals(assertData.getExpected(), assertData.getActual())) {
+					try {
+						assertEquals(objectMapper.writeValueAsString(assertData.getExpected()),
+								objectMapper.writeValueAsString(assertData.getActual()));
+					} catch (JsonProcessingException ex) {
+						throw new TestException(ex.getMessage(), ex);
+					}
+				}
 			} else {
 				if (JSONCompareMode.STRICT.equals(assertData.getJsonCompareMode())) {
+					// Differences are searched only when it doesn't match, because deepEquals is much cheaper.
 					if (!Objects.deepEquals(assertData.getExpected(), assertData.getActual())) {
-						try {
-							// The following assertion must be failure, but it is required to show actual differences.
-							assertEquals(objectMapper.writeValueAsString(assertData.getExpected()),
-									objectMapper.writeValueAsString(assertData.getActual()));
-						} catch (JsonProcessingException ex) {
-							throw new TestException(ex.getMessage(), ex);
-						}
+						assertWithJsonComparator(assertData, assertData.getExpected(), assertData.getActual());
 					}
 				} else {
-					assertWithJsonAssert(assertData);
+					assertWithJsonComparator(assertData, convert(assertData.getExpected()), convert(assertData.getActual()));
 				}
 			}
 		});
 	}
 
-	private void assertWithJsonAssert(AssertData assertData) {
+	private void assertWithJsonComparator(AssertData assertData, Object expected, Object actual) {
+		int maxDifferences = JsonAssertData.class.cast(assertData).getMaxDifferences();
+		List<String> differences = new JsonComparator(assertData.getJsonCompareMode(), maxDifferences).compare(expected, actual);
+		if (!differences.isEmpty()) {
+			writeBodies(expected, actual).ifPresent(differences::add);
+			fail(String.join(System.lineSeparator(), differences));
+		}
+	}
+
+	/**
+	 * Write expected and actual body into files, only when "integration.diff.directory" is specified.
+	 *
+	 * @return Message which shows the files
+	 */
+	private Optional<String> writeBodies(Object expected, Object actual) {
+		String directory = System.getProperty(DIFF_DIRECTORY_PROPERTY);
+		if (directory == null || directory.trim().isEmpty()) {
+			return Optional.empty();
+		}
+		Path specificationDirectory = Paths.get(directory, getSpecificationName().split("/"));
+		File expectedFile = specificationDirectory.resolve(PhaseRecorder.getStep() + "_expected.json").toFile();
+		File actualFile = specificationDirectory.resolve(PhaseRecorder.getStep() + "_actual.json").toFile();
 		try {
-			Object jsonObject = convert(assertData.getExpected());
-			if (jsonObject instanceof JSONObject) {
-				JSONAssert.assertEquals(
-						JSONObject.class.cast(jsonObject),
-						JSONObject.class.cast(convert(assertData.getActual())),
-						assertData.getJsonCompareMode());
-			} else if (jsonObject instanceof JSONArray) {
-				JSONAssert.assertEquals(
-						JSONArray.class.cast(jsonObject),
-						JSONArray.class.cast(convert(assertData.getActual())),
-						assertData.getJsonCompareMode());
-			}
-		} catch (JSONException ex) {
+			Files.createDirectories(specificationDirectory);
+			objectMapper.writerWithDefaultPrettyPrinter().writeValue(expectedFile, expected);
+			objectMapper.writerWithDefaultPrettyPrinter().writeValue(actualFile, actual);
+		} catch (IOException ex) {
 			throw new TestException(ex.getMessage(), ex);
 		}
+		return Optional.of(String.format("Expected and actual bodies are written into %s and %s.", expectedFile, actualFile));
 	}
 
-	private Object convert(Object target) throws JSONException {
-		if (target instanceof Map) {
-			return new JSONObject(Map.class.cast(target));
-		} else if (target instanceof List) {
-			return new JSONArray(List.class.cast(target));
-		} else {
-			return new JSONObject(String.valueOf(target));
+	/**
+	 * Get path of the specification relative to test data location without extension, so that it's unique in the test class.
+	 */
+	private String getSpecificationName() {
+		String specification = PhaseRecorder.getSpecification();
+		if (specification == null) {
+			return "body";
+		}
+		String path = specification.replace(File.separatorChar, '/');
+		if (testDataLocation != null) {
+			path = path.replaceAll(".*" + Pattern.quote(testDataLocation), "");
+		}
+		return Arrays.stream(path.replaceAll("\\.json$", "").split("/"))
+				.filter(segment -> !segment.isEmpty() && !segment.equals(".") && !segment.equals(".."))
+				.map(segment -> segment.replaceAll("[^A-Za-z0-9._-]", "_"))
+				.collect(Collectors.joining("/"));
+	}
+
+	/**
+	 * Convert body to json object or array, which is parsed when it's not parsed yet.
+	 */
+	private Object convert(Object target) {
+		if (target instanceof Map || target instanceof List) {
+			return target;
+		}
+		try {
+			Object json = objectMapper.readValue(String.valueOf(target), Object.class);
+			if (json instanceof Map || json instanceof List) {
+				return json;
+			}
+			throw new TestException(String.format("%s is not json object or array.", target));
+		} catch (JsonProcessingException ex) {
+			throw new TestException(ex.getMessage(), ex);
 		}
 	}
 
 	private ProcessingReport validationSchema(Object actual, Object schema) {
 		try {
-			return JsonSchemaFactory.byDefault()
-					.getJsonSchema(objectMapper.valueToTree(schema))
+			return JsonSchemaCache.getJsonSchema(objectMapper.valueToTree(schema))
 					.validate(objectMapper.valueToTree(actual), true);
 		} catch (ProcessingException ex) {
 			throw new TestException(ex.getMessage(), ex);
@@ -133,6 +192,11 @@ class JsonAssertionSupporter extends AssertionSupporter {
 		return jsonContext.json();
 	}
 
+	private int getMaxDifferences(Map<String, Object> assertOption) {
+		Object maxDifferences = Objects.isNull(assertOption) ? null : assertOption.get("maxDifferences");
+		return maxDifferences instanceof Number ? ((Number) maxDifferences).intValue() : JsonComparator.DEFAULT_MAX_DIFFERENCES;
+	}
+
 	/**
 	 * Determine JSONCompareMode based on assertOption.
 	 *
@@ -0,0 +1,284 @@
+package spring.integration.core.support.assertion;
+
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import org.skyscreamer.jsonassert.JSONCompareMode;
+import spring.integration.core.support.TestException;
+
+/**
+ * Comparator of json which works on structures parsed by Jackson, and reports differences with JSON Pointers.
+ * Arrays without strict order are matched as multisets by canonical hashes of their elements, which takes linear time unlike pairwise matching.
+ * Numbers are compared by their values, so that 1 and 1.0 match like JSONAssert, except in STRICT mode which requires the same types.
+ */
+class JsonComparator {
+
+	static final int DEFAULT_MAX_DIFFERENCES = 10;
+
+	private static final int MAX_LENGTH_OF_EXCERPT = 64;
+
+	/**
+	 * Maximum number of pairs of elements which are compared when elements which don't match by hashes are matched pairwise in extensible mode.
+	 */
+	static final long MAX_PAIRWISE_COMPARISONS = 1_000_000;
+
+	private static final HashFunction HASH_FUNCTION = Hashing.murmur3_128();
+
+	private final JSONCompareMode compareMode;
+
+	private final int maxDifferences;
+
+	private final List<String> differences = new ArrayList<>();
+
+	JsonComparator(JSONCompareMode compareMode, int maxDifferences) {
+		this.compareMode = compareMode;
+		this.maxDifferences = maxDifferences;
+	}
+
+	/**
+	 * Compare parsed json.
+	 *
+	 * @param expected Expected json which consists of Map, List and values
+	 * @param actual   Actual json which consists of Map, List and values
+	 *
+	 * @return Descriptions of differences up to the maximum number, which is empty when json matches
+	 */
+	List<String> compare(Object expected, Object actual) {
+		compare("", expected, actual);
+		if (isFull()) {
+			differences.add(String.format("Comparison stopped after %d differences.", maxDifferences));
+		}
+		return differences;
+	}
+
+	private void compare(String pointer, Object expected, Object actual) {
+		if (isFull()) {
+			return;
+		}
+		if (expected instanceof Map && actual instanceof Map) {
+			compareObjects(pointer, (Map<?, ?>) expected, (Map<?, ?>) actual);
+		} else if (expected instanceof List && actual instanceof List) {
+			compareArrays(pointer, (List<?>) expected, (List<?>) actual);
+		} else if (expected instanceof Number && actual instanceof Number && !isStrict()) {
+			if (!canonical((Number) expected).equals(canonical((Number) actual))) {
+				addDifference("%s: expected %s but was %s", pointer, excerpt(expected), excerpt(actual));
+			}
+		} else if (!Objects.equals(expected, actual)) {
+			requireJsonValue(pointer, expected);
+			requireJsonValue(pointer, actual);
+			if (expected != null && actual != null && expected.toString().equals(actual.toString())) {
+				// e.g. Integer and Long in STRICT mode
+				addDifference("%s: expected %s (%s) but was %s (%s)", pointer, excerpt(expected), expected.getClass().getSimpleName(),
+						excerpt(actual), actual.getClass().getSimpleName());
+			} else {
+				addDifference("%s: expected %s but was %s", pointer, excerpt(expected), excerpt(actual));
+			}
+		}
+	}
+
+	/**
+	 * Values other than parsed json cannot be compared meaningfully, so that it throws TestException.
+	 */
+	private void requireJsonValue(String pointer, Object value) {
+		if (!(value == null || value instanceof Map || value instanceof List
+				|| value instanceof String || value instanceof Number || value instanceof Boolean)) {
+			throw new TestException(String.format("%s: %s cannot be compared as json.", pointerOf(pointer), value.getClass().getName()));
+		}
+	}
+
+	private void compareObjects(String pointer, Map<?, ?> expected, Map<?, ?> actual) {
+		for (Map.Entry<?, ?> field : expected.entrySet()) {
+			if (isFull()) {
+				return;
+			}
+			String fieldPointer = pointer + "/" + escape(String.valueOf(field.getKey()));
+			if (!actual.containsKey(field.getKey())) {
+				addDifference("%s: expected %s but was missing", fieldPointer, excerpt(field.getValue()));
+			} else {
+				compare(fieldPointer, field.getValue(), actual.get(field.getKey()));
+			}
+		}
+		if (!compareMode.isExtensible()) {
+			for (Map.Entry<?, ?> field : actual.entrySet()) {
+				if (isFull()) {
+					return;
+				}
+				if (!expected.containsKey(field.getKey())) {
+					addDifference("%s: unexpected %s", pointer + "/" + escape(String.valueOf(field.getKey())), excerpt(field.getValue()));
+				}
+			}
+		}
+	}
+
+	private void compareArrays(String pointer, List<?> expected, List<?> actual) {
+		if (expected.size() != actual.size() && !(compareMode.isExtensible() && expected.size() < actual.size())) {
+			addDifference("%s: expected %d elements but was %d", pointer, expected.size(), actual.size());
+		}
+		if (compareMode.hasStrictOrder()) {
+			for (int i = 0; i < Math.min(expected.size(), actual.size()) && !isFull(); i++) {
+				compare(pointer + "/" + i, expected.get(i), actual.get(i));
+			}
+			return;
+		}
+		// Elements which are equal in canonical form are matched first by their hashes.
+		Map<Long, Deque<Integer>> actualIndexes = new HashMap<>();
+		for (int i = 0; i < actual.size(); i++) {
+			actualIndexes.computeIfAbsent(hash(actual.get(i)), hash -> new ArrayDeque<>()).add(i);
+		}
+		List<Integer> unmatchedExpected = new ArrayList<>();
+		for (int i = 0; i < expected.size(); i++) {
+			if (!removeMatched(actualIndexes.get(hash(expected.get(i))), expected.get(i), actual)) {
+				unmatchedExpected.add(i);
+			}
+		}
+		Deque<Integer> unmatchedActual = actualIndexes.values().stream()
+				.flatMap(Deque::stream)
+				.sorted()
+				.collect(Collectors.toCollection(ArrayDeque::new));
+		if (compareMode.isExtensible() && !unmatchedExpected.isEmpty()) {
+			// Actual elements can have extra fields, so that the rest is matched pairwise, which is quadratic.
+			if ((long) unmatchedExpected.size() * unmatchedActual.size() > MAX_PAIRWISE_COMPARISONS) {
+				addDifference("%s: %d elements cannot be matched with %d elements, because extensible comparison is limited to %d pairs",
+						pointer, unmatchedExpected.size(), unmatchedActual.size(), MAX_PAIRWISE_COMPARISONS);
+				return;
+			}
+			unmatchedExpected.removeIf(i -> removeMatched(unmatchedActual, expected.get(i), actual));
+		}
+		// The rest is paired by order to show differences inside elements.
+		for (Integer i : unmatchedExpected) {
+			if (isFull()) {
+				return;
+			}
+			if (unmatchedActual.isEmpty()) {
+				addDifference("%s: expected %s but was missing", pointer + "/" + i, excerpt(expected.get(i)));
+			} else {
+				compare(pointer + "/" + i, expected.get(i), actual.get(unmatchedActual.poll()));
+			}
+		}
+		if (!compareMode.isExtensible()) {
+			for (Integer i : unmatchedActual) {
+				if (isFull()) {
+					return;
+				}
+				addDifference("%s: unexpected %s", pointer + "/" + i, excerpt(actual.get(i)));
+			}
+		}
+	}
+
+	/**
+	 * Remove the index of the first actual element which matches the expected one.
+	 *
+	 * @return Whether matched element was found
+	 */
+	private boolean removeMatched(Deque<Integer> candidates, Object expected, List<?> actual) {
+		if (candidates == null) {
+			return false;
+		}
+		Iterator<Integer> iterator = candidates.iterator();
+		while (iterator.hasNext()) {
+			if (matches(expected, actual.get(iterator.next()))) {
+				iterator.remove();
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private boolean matches(Object expected, Object actual) {
+		JsonComparator comparator = new JsonComparator(compareMode, 1);
+		comparator.compare("", expected, actual);
+		return comparator.differences.isEmpty();
+	}
+
+	/**
+	 * Calculate hash of canonical form, which doesn't depend on order of fields, order of elements without strict order, and type of numbers.
+	 */
+	private long hash(Object value) {
+		Hasher hasher = HASH_FUNCTION.newHasher();
+		if (value instanceof Map) {
+			long fields = 0;
+			for (Map.Entry<?, ?> field : ((Map<?, ?>) value).entrySet()) {
+				fields += HASH_FUNCTION.newHasher()
+						.putString(String.valueOf(field.getKey()), StandardCharsets.UTF_8)
+						.putLong(hash(field.getValue()))
+						.hash().asLong();
+			}
+			hasher.putChar('{').putLong(fields);
+		} else if (value instanceof List) {
+			long elements = 0;
+			for (Object element : (List<?>) value) {
+				elements = compareMode.hasStrictOrder() ? elements * 31 + hash(element) : elements + hash(element);
+			}
+			hasher.putChar('[').putLong(elements).putInt(((List<?>) value).size());
+		} else if (value instanceof Number) {
+			hasher.putChar('n').putString(canonical((Number) value), StandardCharsets.UTF_8);
+		} else {
+			hasher.putChar('v').putString(String.valueOf(value), StandardCharsets.UTF_8);
+		}
+		return hasher.hash().asLong();
+	}
+
+	private static String canonical(Number number) {
+		try {
+			return new BigDecimal(number.toString()).stripTrailingZeros().toString();
+		} catch (NumberFormatException ex) {
+			// NaN and Infinity
+			return number.toString();
+		}
+	}
+
+	/**
+	 * In STRICT mode, numbers must have the same type as well as Objects.deepEquals.
+	 */
+	private boolean isStrict() {
+		return JSONCompareMode.STRICT.equals(compareMode);
+	}
+
+	private boolean isFull() {
+		return differences.size() >= maxDifferences;
+	}
+
+	private void addDifference(String format, String pointer, Object... args) {
+		Object[] formatArgs = new Object[args.length + 1];
+		formatArgs[0] = pointerOf(pointer);
+		System.arraycopy(args, 0, formatArgs, 1, args.length);
+		differences.add(String.format(format, formatArgs));
+	}
+
+	private static String pointerOf(String pointer) {
+		return pointer.isEmpty() ? "(root)" : pointer;
+	}
+
+	/**
+	 * Describe value briefly, so that large json doesn't make the message large.
+	 */
+	private static String excerpt(Object value) {
+		if (value instanceof Map) {
+			return String.format("object with %d fields", ((Map<?, ?>) value).size());
+		} else if (value instanceof List) {
+			return String.format("array with %d elements", ((List<?>) value).size());
+		} else if (value instanceof String) {
+			String string = (String) value;
+			return "\"" + (string.length() <= MAX_LENGTH_OF_EXCERPT ? string : string.substring(0, MAX_LENGTH_OF_EXCERPT) + "...") + "\"";
+		}
+		return String.valueOf(value);
+	}
+
+	/**
+	 * Escape field name as a reference token of JSON Pointer.
+	 */
+	private static String escape(String name) {
+		return name.replace("~", "~0").replace("/", "~1");
+	}
+}
@@ -0,0 +1,116 @@
+package spring.integration.core.support.assertion;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import spring.integration.core.support.load.LatencyHistogram;
+
+/**
+ * Latency budget of a step declared by "maxLatencyMs" and percentile options like "p95Ms".
+ * Options of "response" take precedence over the ones of "metadata.assert".
+ */
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public class LatencyBudget {
+
+	static final String MAX_LATENCY = "maxLatencyMs";
+
+	private static final Pattern PERCENTILE_PATTERN = Pattern.compile("^p([0-9]+(?:\\.[0-9]+)?)Ms$");
+
+	private static final String MESSAGE_FORMAT_OF_LATENCY =
+			"%s took %.2f ms, which exceeds the budget %s ms. (waiting for response %.2f ms, reading response %.2f ms)";
+
+	private static final String MESSAGE_FORMAT_OF_PERCENTILE = "%s took %.2f ms at p%s, which exceeds the budget %s ms. (%d executions, max %.2f ms)";
+
+	/**
+	 * Maximum latency of every execution in milliseconds, or null when it's not limited.
+	 */
+	@Getter
+	private final Double maxLatency;
+
+	/**
+	 * Maximum latency in milliseconds per percentile, which are verified over repeated executions.
+	 */
+	@Getter
+	private final NavigableMap<Double, Double> percentiles;
+
+	/**
+	 * Create budget from assert options and expected response.
+	 *
+	 * @param assertOptions Map object of "metadata.assert"
+	 * @param expected      Map object of "response"
+	 */
+	public static LatencyBudget of(Map<String, Object> assertOptions, Map<String, Object> expected) {
+		NavigableMap<Double, Double> percentiles = new TreeMap<>();
+		putPercentiles(assertOptions, percentiles);
+		putPercentiles(expected, percentiles);
+		Double maxLatency = Optional.ofNullable(expected.get(MAX_LATENCY))
+				.or(() -> Optional.ofNullable(assertOptions.get(MAX_LATENCY)))
+				.map(value -> ((Number) value).doubleValue())
+				.orElse(null);
+		return new LatencyBudget(maxLatency, percentiles);
+	}
+
+	public boolean isEmpty() {
+		return maxLatency == null && percentiles.isEmpty();
+	}
+
+	/**
+	 * Assert latency of a single execution.
+	 *
+	 * @param stepName     Name of the step
+	 * @param latency      Latency in nanoseconds
+	 * @param waitingTime  Time in nanoseconds until response headers are received
+	 */
+	public void assertLatency(String stepName, long latency, long waitingTime) {
+		double latencyMillis = toMillis(latency);
+		if (maxLatency != null && latencyMillis > maxLatency) {
+			fail(String.format(MESSAGE_FORMAT_OF_LATENCY, stepName, latencyMillis, format(maxLatency),
+					toMillis(waitingTime), toMillis(latency - waitingTime)));
+		}
+	}
+
+	/**
+	 * Verify percentiles of repeated executions, and return messages of violations.
+	 *
+	 * @param stepName  Name of the step
+	 * @param histogram Latencies of the step
+	 */
+	public List<String> verify(String stepName, LatencyHistogram histogram) {
+		List<String> violations = new ArrayList<>();
+		percentiles.forEach((percentile, budget) -> {
+			double actual = histogram.getMillisAtPercentile(percentile);
+			if (actual > budget) {
+				violations.add(String.format(MESSAGE_FORMAT_OF_PERCENTILE, stepName, actual, format(percentile), format(budget),
+						histogram.getCount(), toMillis(histogram.getMax())));
+			}
+		});
+		return violations;
+	}
+
+	private static void putPercentiles(Map<String, Object> options, Map<Double, Double> percentiles) {
+		options.forEach((key, value) -> {
+			Matcher matcher = PERCENTILE_PATTERN.matcher(key);
+			if (matcher.matches() && value instanceof Number) {
+				percentiles.put(Double.parseDouble(matcher.group(1)), ((Number) value).doubleValue());
+			}
+		});
+	}
+
+	private static double toMillis(long nanos) {
+		return nanos / 1_000_000.0;
+	}
+
+	static String format(double value) {
+		return value == Math.rint(value) ? String.valueOf((long) value) : String.valueOf(value);
+	}
+}
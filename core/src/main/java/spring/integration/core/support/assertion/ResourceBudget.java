@@ -0,0 +1,88 @@
+package spring.integration.core.support.assertion;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import spring.integration.core.support.TestException;
+import spring.integration.core.support.resource.ResourceUsage;
+
+/**
+ * Budget of resources which the application can consume to handle a request, declared by "maxAllocatedBytes" and "maxCpuMs".
+ * Options of "response" take precedence over the ones of "metadata.assert".
+ */
+@Getter
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public class ResourceBudget {
+
+	static final String MAX_ALLOCATED_BYTES = "maxAllocatedBytes";
+
+	static final String MAX_CPU = "maxCpuMs";
+
+	/**
+	 * Maximum bytes allocated in heap, or null when it's not limited.
+	 */
+	private final Long maxAllocatedBytes;
+
+	/**
+	 * Maximum CPU time in milliseconds, or null when it's not limited.
+	 */
+	private final Double maxCpu;
+
+	/**
+	 * Create budget from assert options and expected response.
+	 *
+	 * @param assertOptions Map object of "metadata.assert"
+	 * @param expected      Map object of "response"
+	 */
+	public static ResourceBudget of(Map<String, Object> assertOptions, Map<String, Object> expected) {
+		return new ResourceBudget(
+				getOption(assertOptions, expected, MAX_ALLOCATED_BYTES).map(Number::longValue).orElse(null),
+				getOption(assertOptions, expected, MAX_CPU).map(Number::doubleValue).orElse(null));
+	}
+
+	public boolean isEmpty() {
+		return maxAllocatedBytes == null && maxCpu == null;
+	}
+
+	/**
+	 * Assert resource usage of a request.
+	 *
+	 * @param stepName      Name of the step
+	 * @param resourceUsage Resources consumed by the application
+	 */
+	public void assertUsage(String stepName, ResourceUsage resourceUsage) {
+		List<String> violations = new ArrayList<>();
+		if (maxAllocatedBytes != null) {
+			if (resourceUsage.getAllocatedBytes() < 0) {
+				throw new TestException("Measurement of allocated bytes is not supported by this JVM.");
+			}
+			if (resourceUsage.getAllocatedBytes() > maxAllocatedBytes) {
+				violations.add(String.format("allocated %,d bytes, which exceeds the budget %,d bytes", resourceUsage.getAllocatedBytes(), maxAllocatedBytes));
+			}
+		}
+		if (maxCpu != null) {
+			if (resourceUsage.getCpuTime() < 0) {
+				throw new TestException("Measurement of CPU time is not supported by this JVM.");
+			}
+			double cpuMillis = resourceUsage.getCpuTime() / 1_000_000.0;
+			if (cpuMillis > maxCpu) {
+				violations.add(String.format("used CPU for %.2f ms, which exceeds the budget %s ms", cpuMillis, LatencyBudget.format(maxCpu)));
+			}
+		}
+		if (!violations.isEmpty()) {
+			fail(String.format("%s %s.", stepName, String.join(" and ", violations)));
+		}
+	}
+
+	private static Optional<Number> getOption(Map<String, Object> assertOptions, Map<String, Object> expected, String key) {
+		return Optional.ofNullable(expected.get(key))
+				.or(() -> Optional.ofNullable(assertOptions.get(key)))
+				.map(Number.class::cast);
+	}
+}
@@ -0,0 +1,355 @@
+package spring.integration.core.support.assertion;
+
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import spring.integration.core.enums.XmlCompareMode;
+import spring.integration.core.support.TestException;
+
+/**
+ * Comparator of xml which reads both documents event by event with StAX, so that memory is proportional to nesting depth rather than size of documents.
+ * Comments and whitespace around text are ignored like XMLUnit, and it stops after the maximum number of differences.
+ * In IDENTICAL mode, nodes must be in the same sequence with the same namespace prefixes.
+ * In SIMILAR mode, child nodes which have the same name at the same position are compared in sequence,
+ * and the others are compared regardless of order by hashes of their subtrees.
+ */
+class StreamingXmlComparator {
+
+	static final int DEFAULT_MAX_DIFFERENCES = 10;
+
+	private static final int MAX_LENGTH_OF_EXCERPT = 64;
+
+	private static final HashFunction HASH_FUNCTION = Hashing.murmur3_128();
+
+	private final XmlCompareMode xmlCompareMode;
+
+	private final int maxDifferences;
+
+	private final List<String> differences = new ArrayList<>();
+
+	StreamingXmlComparator(XmlCompareMode xmlCompareMode, int maxDifferences) {
+		this.xmlCompareMode = xmlCompareMode;
+		this.maxDifferences = maxDifferences;
+	}
+
+	/**
+	 * Compare xml documents. It throws TestException when either of them isn't well-formed.
+	 *
+	 * @param expected Reader of expected xml
+	 * @param actual   Reader of actual xml
+	 *
+	 * @return Descriptions of differences up to the maximum number, which is empty when documents match
+	 */
+	List<String> compare(Reader expected, Reader actual) {
+		XMLStreamReader control = null;
+		XMLStreamReader test = null;
+		try {
+			XMLInputFactory inputFactory = createInputFactory();
+			control = inputFactory.createXMLStreamReader(expected);
+			test = inputFactory.createXMLStreamReader(actual);
+			skipInsignificant(control);
+			skipInsignificant(test);
+			compareChildren("", control, test);
+			if (differences.size() >= maxDifferences) {
+				differences.add(String.format("Comparison stopped after %d differences.", maxDifferences));
+			}
+			return differences;
+		} catch (XMLStreamException ex) {
+			throw new TestException(ex.getMessage(), ex);
+		} finally {
+			close(control);
+			close(test);
+		}
+	}
+
+	/**
+	 * External entities and DTDs are disabled, because responses are untrusted input.
+	 */
+	private static XMLInputFactory createInputFactory() {
+		XMLInputFactory inputFactory = XMLInputFactory.newFactory();
+		inputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+		inputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+		inputFactory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+		inputFactory.setProperty(XMLInputFactory.IS_COALESCING, true);
+		return inputFactory;
+	}
+
+	/**
+	 * Compare child nodes of the current elements, and move both readers to the end of them.
+	 */
+	private void compareChildren(String path, XMLStreamReader control, XMLStreamReader test) throws XMLStreamException {
+		Map<String, Integer> indexes = new HashMap<>();
+		Unmatched controlUnmatched = new Unmatched();
+		Unmatched testUnmatched = new Unmatched();
+		while (!isFull()) {
+			boolean controlEnded = isEnd(control);
+			boolean testEnded = isEnd(test);
+			if (controlEnded && testEnded) {
+				break;
+			}
+			String childPath = controlEnded ? path : path + "/" + describe(control) + indexOf(indexes, control);
+			if (isSimilar()) {
+				if (!controlEnded && !testEnded && isAligned(control, test)) {
+					compareNode(childPath, control, test);
+				} else {
+					if (!controlEnded) {
+						controlUnmatched.add(hash(control));
+					}
+					if (!testEnded) {
+						testUnmatched.add(hash(test));
+					}
+				}
+			} else if (controlEnded) {
+				addDifference("Unexpected %s in %s", describe(test), pathOf(path));
+				skip(test);
+			} else if (testEnded) {
+				addDifference("Expected %s at %s but was missing", describe(control), childPath);
+				skip(control);
+			} else if (isAligned(control, test)) {
+				compareNode(childPath, control, test);
+			} else {
+				addDifference("Expected %s at %s but was %s", describe(control), childPath, describe(test));
+				skip(control);
+				skip(test);
+			}
+		}
+		if (!isFull() && !controlUnmatched.equals(testUnmatched)) {
+			addDifference("Expected child nodes of %s to be similar regardless of order, but %d expected nodes didn't match %d actual nodes",
+					pathOf(path), controlUnmatched.count, testUnmatched.count);
+		}
+	}
+
+	/**
+	 * Compare nodes of the same kind and name, and move both readers to the next nodes.
+	 */
+	private void compareNode(String path, XMLStreamReader control, XMLStreamReader test) throws XMLStreamException {
+		switch (control.getEventType()) {
+			case XMLStreamConstants.START_ELEMENT:
+				if (!isSimilar() && !Objects.equals(control.getPrefix(), test.getPrefix())) {
+					addDifference("Expected namespace prefix '%s' but was '%s' at %s", control.getPrefix(), test.getPrefix(), path);
+				}
+				compareAttributes(path, attributesOf(control), attributesOf(test));
+				next(control);
+				next(test);
+				compareChildren(path, control, test);
+				if (isFull()) {
+					return;
+				}
+				break;
+			case XMLStreamConstants.PROCESSING_INSTRUCTION:
+				if (!Objects.equals(control.getPIData(), test.getPIData())) {
+					addDifference("Expected processing instruction '%s' but was '%s' at %s",
+							excerpt(control.getPIData()), excerpt(test.getPIData()), path);
+				}
+				break;
+			default:
+				if (!control.getText().trim().equals(test.getText().trim())) {
+					addDifference("Expected text '%s' but was '%s' at %s", excerpt(control.getText().trim()), excerpt(test.getText().trim()), path);
+				}
+		}
+		next(control);
+		next(test);
+	}
+
+	private void compareAttributes(String path, Map<String, String> expected, Map<String, String> actual) {
+		TreeSet<String> names = new TreeSet<>(expected.keySet());
+		names.addAll(actual.keySet());
+		for (String name : names) {
+			if (!actual.containsKey(name)) {
+				addDifference("Expected attribute %s at %s but was missing", name, path);
+			} else if (!expected.containsKey(name)) {
+				addDifference("Unexpected attribute %s at %s", name, path);
+			} else if (!expected.get(name).equals(actual.get(name))) {
+				addDifference("Expected attribute %s='%s' but was '%s' at %s", name, excerpt(expected.get(name)), excerpt(actual.get(name)), path);
+			}
+		}
+	}
+
+	/**
+	 * Calculate hash of the current node regardless of namespace prefixes and order of child nodes, and move the reader to the next node.
+	 */
+	private long hash(XMLStreamReader reader) throws XMLStreamException {
+		Hasher hasher = HASH_FUNCTION.newHasher().putInt(reader.getEventType());
+		switch (reader.getEventType()) {
+			case XMLStreamConstants.START_ELEMENT:
+				hasher.putString(describe(reader), StandardCharsets.UTF_8);
+				long attributes = 0;
+				for (Map.Entry<String, String> attribute : attributesOf(reader).entrySet()) {
+					attributes += HASH_FUNCTION.hashString(attribute.getKey() + "=" + attribute.getValue(), StandardCharsets.UTF_8).asLong();
+				}
+				next(reader);
+				Unmatched children = new Unmatched();
+				while (!isEnd(reader)) {
+					children.add(hash(reader));
+				}
+				hasher.putLong(attributes).putLong(children.sum).putInt(children.count);
+				break;
+			case XMLStreamConstants.PROCESSING_INSTRUCTION:
+				hasher.putString(reader.getPITarget(), StandardCharsets.UTF_8).putString(Objects.toString(reader.getPIData(), ""), StandardCharsets.UTF_8);
+				break;
+			default:
+				hasher.putString(reader.getText().trim(), StandardCharsets.UTF_8);
+		}
+		next(reader);
+		return hasher.hash().asLong();
+	}
+
+	/**
+	 * Skip the current node including its descendants.
+	 */
+	private void skip(XMLStreamReader reader) throws XMLStreamException {
+		int depth = 0;
+		do {
+			if (reader.getEventType() == XMLStreamConstants.START_ELEMENT) {
+				depth++;
+			} else if (reader.getEventType() == XMLStreamConstants.END_ELEMENT) {
+				depth--;
+			}
+			next(reader);
+		} while (depth > 0);
+	}
+
+	/**
+	 * Move the reader to the next node which is significant for comparison.
+	 */
+	private void next(XMLStreamReader reader) throws XMLStreamException {
+		reader.next();
+		skipInsignificant(reader);
+	}
+
+	private void skipInsignificant(XMLStreamReader reader) throws XMLStreamException {
+		while (isInsignificant(reader)) {
+			reader.next();
+		}
+	}
+
+	private boolean isInsignificant(XMLStreamReader reader) {
+		switch (reader.getEventType()) {
+			case XMLStreamConstants.START_ELEMENT:
+			case XMLStreamConstants.END_ELEMENT:
+			case XMLStreamConstants.PROCESSING_INSTRUCTION:
+			case XMLStreamConstants.END_DOCUMENT:
+				return false;
+			case XMLStreamConstants.CHARACTERS:
+			case XMLStreamConstants.CDATA:
+				return reader.isWhiteSpace() || reader.getText().trim().isEmpty();
+			default:
+				// Comments, document declaration, DTD and ignorable whitespace.
+				return true;
+		}
+	}
+
+	private boolean isEnd(XMLStreamReader reader) {
+		return reader.getEventType() == XMLStreamConstants.END_ELEMENT || reader.getEventType() == XMLStreamConstants.END_DOCUMENT;
+	}
+
+	private boolean isAligned(XMLStreamReader control, XMLStreamReader test) {
+		int eventType = control.getEventType();
+		if (eventType == XMLStreamConstants.CDATA || eventType == XMLStreamConstants.CHARACTERS) {
+			return test.getEventType() == XMLStreamConstants.CDATA || test.getEventType() == XMLStreamConstants.CHARACTERS;
+		}
+		return eventType == test.getEventType() && describe(control).equals(describe(test));
+	}
+
+	private boolean isSimilar() {
+		return XmlCompareMode.SIMILAR.equals(xmlCompareMode);
+	}
+
+	private boolean isFull() {
+		return differences.size() >= maxDifferences;
+	}
+
+	private void addDifference(String format, Object... args) {
+		differences.add(String.format(format, args));
+	}
+
+	private static Map<String, String> attributesOf(XMLStreamReader reader) {
+		Map<String, String> attributes = new TreeMap<>();
+		for (int i = 0; i < reader.getAttributeCount(); i++) {
+			attributes.put(qualifiedName(reader.getAttributeNamespace(i), reader.getAttributeLocalName(i)), reader.getAttributeValue(i));
+		}
+		return attributes;
+	}
+
+	/**
+	 * Describe the current node by its name, which doesn't depend on namespace prefix.
+	 */
+	private static String describe(XMLStreamReader reader) {
+		switch (reader.getEventType()) {
+			case XMLStreamConstants.START_ELEMENT:
+			case XMLStreamConstants.END_ELEMENT:
+				return qualifiedName(reader.getNamespaceURI(), reader.getLocalName());
+			case XMLStreamConstants.PROCESSING_INSTRUCTION:
+				return "processing-instruction(" + reader.getPITarget() + ")";
+			default:
+				return "text()";
+		}
+	}
+
+	private static String qualifiedName(String namespaceUri, String localName) {
+		return namespaceUri == null || namespaceUri.isEmpty() ? localName : "{" + namespaceUri + "}" + localName;
+	}
+
+	private static String indexOf(Map<String, Integer> indexes, XMLStreamReader reader) {
+		return "[" + indexes.merge(describe(reader), 1, Integer::sum) + "]";
+	}
+
+	private static String pathOf(String path) {
+		return path.isEmpty() ? "/" : path;
+	}
+
+	private static String excerpt(String value) {
+		if (value == null || value.length() <= MAX_LENGTH_OF_EXCERPT) {
+			return value;
+		}
+		return value.substring(0, MAX_LENGTH_OF_EXCERPT) + "...";
+	}
+
+	private static void close(XMLStreamReader reader) {
+		if (reader != null) {
+			try {
+				reader.close();
+			} catch (XMLStreamException ignored) {
+				// Nothing to do because the result has already been determined.
+			}
+		}
+	}
+
+	/**
+	 * Hashes of child nodes which are compared regardless of order. Sum is commutative, so that it takes constant memory.
+	 */
+	private static class Unmatched {
+
+		private long sum;
+
+		private int count;
+
+		void add(long hash) {
+			sum += hash;
+			count++;
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			return other instanceof Unmatched && sum == ((Unmatched) other).sum && count == ((Unmatched) other).count;
+		}
+
+		@Override
+		public int hashCode() {
+			return Long.hashCode(sum) * 31 + count;
+		}
+	}
+}
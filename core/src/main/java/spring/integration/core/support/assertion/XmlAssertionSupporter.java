@@ -4,23 +4,28 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.fail;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
-import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Collectors;
-import org.custommonkey.xmlunit.DetailedDiff;
-import org.custommonkey.xmlunit.Difference;
-import org.custommonkey.xmlunit.XMLUnit;
+import java.util.stream.StreamSupport;
 import org.skyscreamer.jsonassert.JSONCompareMode;
-import org.xml.sax.SAXException;
+import org.xmlunit.XMLUnitException;
+import org.xmlunit.builder.DiffBuilder;
 import org.xmlunit.builder.Input;
+import org.xmlunit.diff.DefaultNodeMatcher;
+import org.xmlunit.diff.Diff;
+import org.xmlunit.diff.Difference;
+import org.xmlunit.diff.ElementSelectors;
+import org.xmlunit.validation.JAXPValidator;
 import org.xmlunit.validation.Languages;
-import org.xmlunit.validation.ValidationResult;
-import org.xmlunit.validation.Validator;
 import spring.integration.core.beans.AssertData;
 import spring.integration.core.beans.XmlAssertData;
 import spring.integration.core.enums.BodyAssertion;
 import spring.integration.core.enums.XmlCompareMode;
 import spring.integration.core.support.TestException;
+import spring.integration.core.support.XmlSchemaCache;
 
 class XmlAssertionSupporter extends AssertionSupporter {
 
@@ -42,7 +47,11 @@ class XmlAssertionSupporter extends AssertionSupporter {
 				}
 				break;
 			case EQUALS:
-				assertData = new XmlAssertData(actualBody, expectedBody, false, null, XmlCompareMode.fromAssert(assertOptions));
+				if (isStreaming(assertOptions)) {
+					assertData = new XmlAssertData(actualBody, expectedBody, XmlCompareMode.fromAssert(assertOptions), getMaxDifferences(assertOptions));
+				} else {
+					assertData = new XmlAssertData(actualBody, expectedBody, false, null, XmlCompareMode.fromAssert(assertOptions));
+				}
 				break;
 			default:
 		}
@@ -68,41 +77,61 @@ class XmlAssertionSupporter extends AssertionSupporter {
 						assertEquals(expected, actual);
 						return;
 					}
-					boolean orderIgnored = XmlCompareMode.SIMILAR.equals(XmlAssertData.class.cast(assertData).getXmlCompareMode());
-					DetailedDiff diff = compare(orderIgnored, actual, expected);
-					if (orderIgnored) {
-						if (!diff.similar()) {
-							fail(createMessageFromDiff(diff));
-						}
-					} else {
-						if (!diff.identical()) {
-							fail(createMessageFromDiff(diff));
+					XmlAssertData xmlAssertData = XmlAssertData.class.cast(assertData);
+					if (xmlAssertData.isStreaming()) {
+						List<String> differences = new StreamingXmlComparator(xmlAssertData.getXmlCompareMode(), xmlAssertData.getMaxDifferences())
+								.compare(new StringReader(expected), new StringReader(actual));
+						if (!differences.isEmpty()) {
+							fail(String.join(System.lineSeparator(), differences));
 						}
+						return;
+					}
+					Diff diff = compare(xmlAssertData.getXmlCompareMode(), actual, expected);
+					if (diff.hasDifferences()) {
+						fail(createMessageFromDiff(diff));
 					}
 				}
-			} catch (SAXException | IOException ex) {
+			} catch (XMLUnitException ex) {
 				throw new TestException(ex.getMessage(), ex);
 			}
 		});
 	}
 
-	private DetailedDiff compare(boolean orderIgnored, String actual, String expected) throws IOException, SAXException {
-		XMLUnit.setIgnoreWhitespace(true);
-		XMLUnit.setIgnoreComments(true);
-		XMLUnit.setIgnoreAttributeOrder(orderIgnored);
-		return new DetailedDiff(XMLUnit.compareXML(expected, actual));
+	/**
+	 * Compare xml with configuration of each call, so that assertions can be executed in parallel.
+	 * Elements are matched by their names, so that difference of order is regarded as similar.
+	 */
+	private Diff compare(XmlCompareMode xmlCompareMode, String actual, String expected) {
+		DiffBuilder diffBuilder = DiffBuilder.compare(Input.fromString(expected))
+				.withTest(Input.fromString(actual))
+				.ignoreWhitespace()
+				.ignoreComments()
+				.withNodeMatcher(new DefaultNodeMatcher(ElementSelectors.byName));
+		if (XmlCompareMode.SIMILAR.equals(xmlCompareMode)) {
+			diffBuilder.checkForSimilar();
+		} else {
+			diffBuilder.checkForIdentical();
+		}
+		return diffBuilder.build();
+	}
+
+	private boolean isStreaming(Map<String, Object> assertOptions) {
+		return Objects.nonNull(assertOptions) && Boolean.TRUE.equals(assertOptions.get("streaming"));
+	}
+
+	private int getMaxDifferences(Map<String, Object> assertOptions) {
+		Object maxDifferences = assertOptions.get("maxDifferences");
+		return maxDifferences instanceof Number ? ((Number) maxDifferences).intValue() : StreamingXmlComparator.DEFAULT_MAX_DIFFERENCES;
 	}
 
 	private boolean validationSchema(String xsdContent, String actualContent) {
-		Validator validator = Validator.forLanguage(Languages.W3C_XML_SCHEMA_NS_URI);
-		validator.setSchemaSource(Input.fromString(xsdContent).build());
-		ValidationResult result = validator.validateInstance(Input.fromString(actualContent).build());
-		return result.isValid();
+		JAXPValidator validator = new JAXPValidator(Languages.W3C_XML_SCHEMA_NS_URI);
+		validator.setSchema(XmlSchemaCache.getSchema(xsdContent));
+		return validator.validateInstance(Input.fromString(actualContent).build()).isValid();
 	}
 
-	private String createMessageFromDiff(DetailedDiff diff) {
-		return diff.getAllDifferences()
-				.stream()
+	private String createMessageFromDiff(Diff diff) {
+		return StreamSupport.stream(diff.getDifferences().spliterator(), false)
 				.map(Difference::toString)
 				.collect(Collectors.joining(System.lineSeparator()));
 	}
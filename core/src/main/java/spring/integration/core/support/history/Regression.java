@@ -0,0 +1,50 @@
+package spring.integration.core.support.history;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Slowdown of a specification or a step compared with the baseline of previous runs.
+ */
+@Getter
+@AllArgsConstructor
+public class Regression {
+
+	private final String key;
+
+	/**
+	 * Median of previous runs in nanoseconds.
+	 */
+	private final long baseline;
+
+	/**
+	 * Median of the current run in nanoseconds.
+	 */
+	private final long current;
+
+	/**
+	 * Number of previous runs which the baseline is calculated from.
+	 */
+	private final int baselineRuns;
+
+	/**
+	 * Distance from the baseline in robust standard deviations.
+	 */
+	private final double score;
+
+	/**
+	 * Ratio of increase from the baseline. e.g. 0.1 means 10% slower
+	 */
+	public double getIncrease() {
+		return (double) current / baseline - 1;
+	}
+
+	@Override
+	public String toString() {
+		return String.format(Locale.ROOT, "%s : %.2f ms -> %.2f ms (+%.1f%%, %.1f sigma over %d runs)", key,
+				(double) baseline / TimeUnit.MILLISECONDS.toNanos(1), (double) current / TimeUnit.MILLISECONDS.toNanos(1),
+				getIncrease() * 100, score, baselineRuns);
+	}
+}
@@ -0,0 +1,231 @@
+package spring.integration.core.support.history;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import spring.integration.core.support.recording.Phase;
+import spring.integration.core.support.recording.PhaseListener;
+import spring.integration.core.support.recording.PhaseRecorder;
+
+/**
+ * Timings of specifications and their requests which are appended to TimingStore for each run,
+ * and compared with the baseline of previous runs to detect regressions.
+ * Only successful specifications are recorded, because failures often take different paths.
+ * Iterations of load tests are not recorded either, because their timings under concurrency aren't comparable with functional runs.
+ */
+@Slf4j
+public class TimingHistory implements PhaseListener {
+
+	static final String PROPERTY_PREFIX = "integration.history.";
+
+	/**
+	 * Robust standard deviation is at least this ratio of the baseline, so that very stable timings don't flag noise.
+	 */
+	private static final double MIN_DEVIATION = 0.01;
+
+	/**
+	 * Ratio of median absolute deviation to standard deviation in normal distribution.
+	 */
+	private static final double MAD_SCALE = 1.4826;
+
+	private final TimingStore store;
+
+	/**
+	 * Convert path of specification file into the key which is stable across environments.
+	 */
+	private final UnaryOperator<String> keyMapper;
+
+	/**
+	 * Number of previous runs which the baseline is calculated from.
+	 */
+	@Getter
+	private final int window;
+
+	/**
+	 * Minimum number of previous runs to detect regressions.
+	 */
+	@Getter
+	private final int minRuns;
+
+	/**
+	 * Distance from the baseline in robust standard deviations which is regarded as significant.
+	 */
+	@Getter
+	private final double threshold;
+
+	/**
+	 * Minimum ratio of increase which is regarded as regression. e.g. 0.05 means 5% slower
+	 */
+	@Getter
+	private final double minIncrease;
+
+	/**
+	 * Whether the suite fails when regressions are detected, otherwise they are only reported.
+	 */
+	@Getter
+	private final boolean failOnRegression;
+
+	private final long runId = System.currentTimeMillis();
+
+	private final Queue<TimingRecord> records = new ConcurrentLinkedQueue<>();
+
+	/**
+	 * Timings of requests in the specification which is executed on the current thread.
+	 */
+	private final ThreadLocal<List<TimingRecord>> pendingRecords = ThreadLocal.withInitial(ArrayList::new);
+
+	public TimingHistory(TimingStore store, UnaryOperator<String> keyMapper, int window, int minRuns, double threshold,
+						 double minIncrease, boolean failOnRegression) {
+		this.store = store;
+		this.keyMapper = keyMapper;
+		this.window = window;
+		this.minRuns = minRuns;
+		this.threshold = threshold;
+		this.minIncrease = minIncrease;
+		this.failOnRegression = failOnRegression;
+	}
+
+	/**
+	 * Create history with "integration.history.*" system properties, or return null when "integration.history.file" isn't specified.
+	 *
+	 * @param keyMapper Function to convert path of specification file into the key, e.g. relative path from test data location
+	 */
+	public static TimingHistory fromSystemProperties(UnaryOperator<String> keyMapper) {
+		String file = System.getProperty(PROPERTY_PREFIX + "file");
+		if (file == null || file.isEmpty()) {
+			return null;
+		}
+		return create(new TimingStore(Paths.get(file)), keyMapper);
+	}
+
+	/**
+	 * Read baselines from the file which isn't appended during the run, e.g. a copy of timing history taken before shards start.
+	 * The window is "integration.history.window" system property.
+	 *
+	 * @param file File of timing history
+	 *
+	 * @return Baselines keyed by key of specification, which is empty when the file doesn't exist
+	 */
+	public static Map<String, Long> readBaselines(Path file) {
+		return create(new TimingStore(file), UnaryOperator.identity()).getBaselines();
+	}
+
+	private static TimingHistory create(TimingStore store, UnaryOperator<String> keyMapper) {
+		return new TimingHistory(store, keyMapper,
+				Integer.getInteger(PROPERTY_PREFIX + "window", 20),
+				Integer.getInteger(PROPERTY_PREFIX + "minRuns", 5),
+				Double.parseDouble(System.getProperty(PROPERTY_PREFIX + "threshold", "3")),
+				Double.parseDouble(System.getProperty(PROPERTY_PREFIX + "minIncrease", "0.05")),
+				Boolean.getBoolean(PROPERTY_PREFIX + "failOnRegression"));
+	}
+
+	@Override
+	public void phaseExecuted(String specification, int step, Phase phase, String name, long elapsedTime) {
+		if (phase == Phase.REQUEST && specification != null && !PhaseRecorder.isLoadTest()) {
+			pendingRecords.get().add(new TimingRecord(runId, keyMapper.apply(specification) + "#" + step + " " + name, elapsedTime));
+		}
+	}
+
+	@Override
+	public void specificationExecuted(String specification, long elapsedTime, boolean failed) {
+		if (!failed && !PhaseRecorder.isLoadTest()) {
+			records.addAll(pendingRecords.get());
+			records.add(new TimingRecord(runId, keyMapper.apply(specification), elapsedTime));
+		}
+		pendingRecords.remove();
+	}
+
+	/**
+	 * Compare timings of this run with previous runs, and append them to the store.
+	 *
+	 * @return Regressions sorted by score, or empty list when there are not enough previous runs
+	 */
+	public List<Regression> finish() {
+		List<TimingRecord> current = new ArrayList<>(records);
+		records.clear();
+		if (current.isEmpty()) {
+			return new ArrayList<>();
+		}
+		List<Regression> regressions = detectRegressions(store.readAll(), current);
+		store.append(current);
+		log.info("(Integration) Appended {} timings to {}", current.size(), store.getFile());
+		return regressions;
+	}
+
+	/**
+	 * Detect regressions of current records. Each key is compared by median of each run with the median of previous runs,
+	 * and regarded as regression when it's slower by both threshold in robust standard deviations and minimum increase.
+	 */
+	List<Regression> detectRegressions(List<TimingRecord> history, List<TimingRecord> current) {
+		Map<String, List<Long>> previousRuns = getLatestRuns(history);
+		Map<String, List<Long>> currentRun = current.stream()
+				.collect(Collectors.groupingBy(TimingRecord::getKey, LinkedHashMap::new,
+						Collectors.mapping(TimingRecord::getElapsedTime, Collectors.toList())));
+		List<Regression> regressions = new ArrayList<>();
+		currentRun.forEach((key, elapsedTimes) -> {
+			List<Long> baselines = previousRuns.getOrDefault(key, List.of());
+			if (baselines.size() < minRuns) {
+				return;
+			}
+			long baseline = median(baselines);
+			long currentTime = median(elapsedTimes);
+			long deviation = median(baselines.stream().map(value -> Math.abs(value - baseline)).collect(Collectors.toList()));
+			double standardDeviation = Math.max(deviation * MAD_SCALE, baseline * MIN_DEVIATION);
+			double score = standardDeviation > 0 ? (currentTime - baseline) / standardDeviation : 0;
+			if (baseline > 0 && score >= threshold && (double) currentTime / baseline - 1 >= minIncrease) {
+				regressions.add(new Regression(key, baseline, currentTime, baselines.size(), score));
+			}
+		});
+		regressions.sort(Comparator.comparingDouble(Regression::getScore).reversed());
+		return regressions;
+	}
+
+	/**
+	 * Get baselines of all keys in the store, which are medians of the latest runs in nanoseconds. e.g. to estimate durations
+	 */
+	public Map<String, Long> getBaselines() {
+		return getLatestRuns(store.readAll()).entrySet().stream()
+				.collect(Collectors.toMap(Map.Entry::getKey, entry -> median(entry.getValue())));
+	}
+
+	/**
+	 * Get the latest runs in the window for each key, each of which is represented by its median.
+	 */
+	private Map<String, List<Long>> getLatestRuns(List<TimingRecord> history) {
+		Map<String, Map<Long, List<Long>>> runs = history.stream()
+				.collect(Collectors.groupingBy(TimingRecord::getKey,
+						Collectors.groupingBy(TimingRecord::getRunId, Collectors.mapping(TimingRecord::getElapsedTime, Collectors.toList()))));
+		return runs.entrySet().stream()
+				.collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().entrySet().stream()
+						.sorted(Map.Entry.<Long, List<Long>>comparingByKey().reversed())
+						.limit(window)
+						.map(run -> median(run.getValue()))
+						.collect(Collectors.toList())));
+	}
+
+	/**
+	 * Get report of regressions, which contains one line for each.
+	 */
+	public static String toReport(List<Regression> regressions) {
+		return regressions.stream()
+				.map(Regression::toString)
+				.collect(Collectors.joining(System.lineSeparator(),
+						"Performance regressions compared with previous runs : " + regressions.size() + System.lineSeparator(), ""));
+	}
+
+	private static long median(List<Long> values) {
+		List<Long> sorted = values.stream().sorted().collect(Collectors.toList());
+		int middle = sorted.size() / 2;
+		return sorted.size() % 2 == 1 ? sorted.get(middle) : (sorted.get(middle - 1) + sorted.get(middle)) / 2;
+	}
+}
@@ -0,0 +1,31 @@
+package spring.integration.core.support.history;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Elapsed time of a specification or a step in a run.
+ */
+@Getter
+@AllArgsConstructor
+@EqualsAndHashCode
+@ToString
+public class TimingRecord {
+
+	/**
+	 * Start time of the run in epoch milliseconds, which identifies the run.
+	 */
+	private final long runId;
+
+	/**
+	 * Specification path relative to test data location, followed by "#" and step for each request. e.g. "book/create.json#1 POST /books"
+	 */
+	private final String key;
+
+	/**
+	 * Elapsed time in nanoseconds.
+	 */
+	private final long elapsedTime;
+}
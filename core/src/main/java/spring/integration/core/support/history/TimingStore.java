@@ -0,0 +1,123 @@
+package spring.integration.core.support.history;
+
+import com.google.common.io.CountingInputStream;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Getter;
+import spring.integration.core.support.TestException;
+
+/**
+ * Append-only binary file of timing records. Each record is written as run id, key in modified UTF-8 and elapsed time,
+ * and all records of a run are appended at once under file lock, so that concurrent builds never interleave them.
+ * A record which was partially written by an interrupted build is ignored, and it's truncated before the next records are appended,
+ * so that the following records are never read from a wrong offset.
+ */
+public class TimingStore {
+
+	private static final int MAGIC = 0x49544831;
+
+	@Getter
+	private final Path file;
+
+	public TimingStore(Path file) {
+		this.file = file;
+	}
+
+	/**
+	 * Read all records in the order they were appended. It returns empty list when the file doesn't exist.
+	 */
+	public List<TimingRecord> readAll() {
+		List<TimingRecord> records = new ArrayList<>();
+		if (!Files.exists(file)) {
+			return records;
+		}
+		try (InputStream inputStream = Files.newInputStream(file)) {
+			readRecords(inputStream, records);
+			return records;
+		} catch (IOException ex) {
+			throw new TestException("Exception while reading timing history " + file, ex);
+		}
+	}
+
+	/**
+	 * Read records until the end of the file or a partially written record.
+	 *
+	 * @return Length of the file up to the end of the last complete record
+	 */
+	private long readRecords(InputStream inputStream, List<TimingRecord> records) throws IOException {
+		CountingInputStream counting = new CountingInputStream(new BufferedInputStream(inputStream));
+		DataInputStream input = new DataInputStream(counting);
+		long validLength = 0;
+		try {
+			if (input.readInt() != MAGIC) {
+				throw new TestException(file + " is not a file of timing history.");
+			}
+			validLength = counting.getCount();
+			while (true) {
+				records.add(new TimingRecord(input.readLong(), input.readUTF(), input.readLong()));
+				validLength = counting.getCount();
+			}
+		} catch (EOFException ex) {
+			return validLength;
+		}
+	}
+
+	/**
+	 * Append records at the end of the file.
+	 */
+	public void append(List<TimingRecord> records) {
+		try {
+			if (file.getParent() != null) {
+				Files.createDirectories(file.getParent());
+			}
+			try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+				FileLock lock = channel.lock();
+				try {
+					append(channel, records);
+				} finally {
+					lock.release();
+				}
+			}
+		} catch (IOException ex) {
+			throw new TestException("Exception while writing timing history " + file, ex);
+		}
+	}
+
+	/**
+	 * Append records to the channel which is locked.
+	 */
+	private void append(FileChannel channel, List<TimingRecord> records) throws IOException {
+		// Partially written record is truncated, otherwise the appended records would be read from the middle of it.
+		long validLength = readRecords(Channels.newInputStream(channel), new ArrayList<>());
+		channel.truncate(validLength);
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream output = new DataOutputStream(bytes);
+		if (validLength == 0) {
+			output.writeInt(MAGIC);
+		}
+		for (TimingRecord record : records) {
+			output.writeLong(record.getRunId());
+			output.writeUTF(record.getKey());
+			output.writeLong(record.getElapsedTime());
+		}
+		ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+		channel.position(validLength);
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+	}
+}
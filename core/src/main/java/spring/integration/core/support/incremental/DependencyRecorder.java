@@ -0,0 +1,84 @@
+package spring.integration.core.support.incremental;
+
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+/**
+ * Record resources which are read by the specification executed on the current thread.
+ * Resources are recorded only between start and finish, so that reads outside of specifications are ignored.
+ * Recordings can be nested, and resources of an inner recording are recorded by the outer one as well.
+ * Resources read outside of specifications, e.g. while the application context starts, are recorded as inputs of the context,
+ * which every specification depends on.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class DependencyRecorder {
+
+	private static final ThreadLocal<Deque<Set<String>>> RECORDINGS = ThreadLocal.withInitial(ArrayDeque::new);
+
+	private static final Set<String> CONTEXT_RESOURCES = new ConcurrentSkipListSet<>();
+
+	private static final Set<Path> CONTEXT_FILES = new ConcurrentSkipListSet<>();
+
+	/**
+	 * Start recording on the current thread.
+	 */
+	public static void start() {
+		RECORDINGS.get().push(new TreeSet<>());
+	}
+
+	/**
+	 * Record resource path which is read from class path. It's recorded as input of the context when recording isn't started.
+	 */
+	public static void record(String resourcePath) {
+		Set<String> resources = RECORDINGS.get().peek();
+		if (resources != null) {
+			resources.add(resourcePath);
+		} else {
+			CONTEXT_RESOURCES.add(resourcePath);
+		}
+	}
+
+	/**
+	 * Record file or directory outside of class path which is read while the application context starts, e.g. mapping files of wiremock.
+	 */
+	public static void recordContextFile(Path path) {
+		CONTEXT_FILES.add(path.toAbsolutePath().normalize());
+	}
+
+	/**
+	 * Get resource paths which are read outside of specifications.
+	 */
+	public static Set<String> getContextResources() {
+		return Collections.unmodifiableSet(CONTEXT_RESOURCES);
+	}
+
+	/**
+	 * Get files and directories which are read while the application context starts.
+	 */
+	public static Set<Path> getContextFiles() {
+		return Collections.unmodifiableSet(CONTEXT_FILES);
+	}
+
+	/**
+	 * Finish the innermost recording on the current thread.
+	 *
+	 * @return Resource paths sorted by name, or empty set when recording isn't started
+	 */
+	public static Set<String> finish() {
+		Deque<Set<String>> recordings = RECORDINGS.get();
+		Set<String> resources = recordings.poll();
+		if (recordings.isEmpty()) {
+			RECORDINGS.remove();
+		} else if (resources != null) {
+			recordings.peek().addAll(resources);
+		}
+		return resources != null ? resources : new TreeSet<>();
+	}
+}
@@ -0,0 +1,290 @@
+package spring.integration.core.support.incremental;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import spring.integration.core.support.TestException;
+
+/**
+ * Fingerprints of specifications and files which they read, which are stored after successful executions.
+ * In incremental mode, only specifications whose specification file, read files or application classes have been changed are executed.
+ * Classes of tests and files which are read while the application context starts are inputs of every specification as well as application classes.
+ */
+@Slf4j
+public class IncrementalSelection {
+
+	static final String PROPERTY_PREFIX = "integration.incremental.";
+
+	private static final String MISSING = "missing";
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	@Getter
+	private final Path file;
+
+	/**
+	 * Directories of compiled classes of the application. Any change of them makes all specifications executed.
+	 */
+	private final List<Path> classDirectories;
+
+	/**
+	 * Directories of compiled classes of tests. Only class files are hashed, because resources in them are recorded when they are read.
+	 */
+	private final List<Path> testClassDirectories;
+
+	/**
+	 * Whether only changed specifications are selected.
+	 */
+	@Getter
+	private final boolean enabled;
+
+	/**
+	 * Fingerprints which are stored in the file, and updated by executions.
+	 */
+	private final Map<String, Fingerprint> fingerprints;
+
+	/**
+	 * Keys which are recorded by this selection, so that only they are written over fingerprints saved by other JVMs.
+	 */
+	private final Set<String> recordedKeys = ConcurrentHashMap.newKeySet();
+
+	private String classesHash;
+
+	public IncrementalSelection(Path file, List<Path> classDirectories, boolean enabled) {
+		this(file, classDirectories, List.of(), enabled);
+	}
+
+	public IncrementalSelection(Path file, List<Path> classDirectories, List<Path> testClassDirectories, boolean enabled) {
+		this.file = file;
+		this.classDirectories = classDirectories;
+		this.testClassDirectories = testClassDirectories;
+		this.enabled = enabled;
+		this.fingerprints = new ConcurrentHashMap<>(load());
+	}
+
+	/**
+	 * Create selection with "integration.incremental.*" system properties, or return null when "integration.incremental.file" isn't specified.
+	 */
+	public static IncrementalSelection fromSystemProperties() {
+		String file = System.getProperty(PROPERTY_PREFIX + "file");
+		if (file == null || file.trim().isEmpty()) {
+			return null;
+		}
+		return new IncrementalSelection(Paths.get(file), getDirectories("classes", "target/classes"),
+				getDirectories("testClasses", "target/test-classes"), Boolean.getBoolean(PROPERTY_PREFIX + "enabled"));
+	}
+
+	private static List<Path> getDirectories(String property, String defaultValue) {
+		return Arrays.stream(System.getProperty(PROPERTY_PREFIX + property, defaultValue).split(","))
+				.map(String::trim)
+				.filter(directory -> !directory.isEmpty())
+				.map(Paths::get)
+				.collect(Collectors.toList());
+	}
+
+	/**
+	 * Select specification files which need to be executed. All files are selected unless incremental mode is enabled.
+	 *
+	 * @param files     Specification files
+	 * @param keyMapper Function to get the key of file which is stable across environments
+	 */
+	public List<File> select(List<File> files, Function<File, String> keyMapper) {
+		if (!enabled) {
+			return files;
+		}
+		List<File> selected = files.stream()
+				.filter(file -> isChanged(keyMapper.apply(file), file))
+				.collect(Collectors.toList());
+		log.info("(Integration) Selected {} of {} specification files which have been changed since the last successful execution.",
+				selected.size(), files.size());
+		return selected;
+	}
+
+	/**
+	 * Record execution of specification. Fingerprint is stored only when it succeeded, so that failed one is executed next time.
+	 *
+	 * @param key       Key of specification
+	 * @param file      Specification file
+	 * @param resources Resource paths which the specification read
+	 * @param failed    Whether the execution failed
+	 */
+	public void record(String key, File file, Set<String> resources, boolean failed) {
+		recordedKeys.add(key);
+		if (failed) {
+			fingerprints.remove(key);
+			return;
+		}
+		Map<String, String> resourceHashes = new TreeMap<>();
+		resources.forEach(resource -> resourceHashes.put(resource, hashResource(resource)));
+		fingerprints.put(key, new Fingerprint(getClassesHash(), hashFile(file.toPath()), resourceHashes));
+	}
+
+	/**
+	 * Write fingerprints into the file. Fingerprints recorded by this selection are merged into the file under file lock,
+	 * so that JVMs which execute specifications from the same queue don't lose fingerprints of each other.
+	 */
+	public void save() {
+		try {
+			if (file.getParent() != null) {
+				Files.createDirectories(file.getParent());
+			}
+			Path lockFile = file.resolveSibling(file.getFileName() + ".lock");
+			try (FileChannel channel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+				FileLock lock = channel.lock();
+				try {
+					Map<String, Fingerprint> merged = new TreeMap<>(load());
+					for (String key : recordedKeys) {
+						Fingerprint fingerprint = fingerprints.get(key);
+						if (fingerprint == null) {
+							merged.remove(key);
+						} else {
+							merged.put(key, fingerprint);
+						}
+					}
+					objectMapper.writerWithDefaultPrettyPrinter().writeValue(file.toFile(), merged);
+				} finally {
+					lock.release();
+				}
+			}
+		} catch (IOException ex) {
+			throw new TestException("Exception while writing fingerprints into " + file, ex);
+		}
+	}
+
+	/**
+	 * Check whether the specification or anything it depends on has been changed since the last successful execution.
+	 */
+	boolean isChanged(String key, File file) {
+		Fingerprint fingerprint = fingerprints.get(key);
+		return fingerprint == null
+				|| !fingerprint.getClasses().equals(getClassesHash())
+				|| !fingerprint.getSpecification().equals(hashFile(file.toPath()))
+				|| fingerprint.getResources().entrySet().stream().anyMatch(resource -> !resource.getValue().equals(hashResource(resource.getKey())));
+	}
+
+	private Map<String, Fingerprint> load() {
+		if (!Files.exists(file)) {
+			return Map.of();
+		}
+		try {
+			return objectMapper.readValue(file.toFile(), new TypeReference<Map<String, Fingerprint>>() {});
+		} catch (IOException ex) {
+			// Broken fingerprints only make all specifications executed.
+			log.warn("(Integration) Ignored fingerprints which cannot be read : {}", file, ex);
+			return Map.of();
+		}
+	}
+
+	/**
+	 * Get hash of class directories and inputs of the application context, which is calculated once because they are never changed during the suite.
+	 * It's calculated after the application context has started, so that files read by the context have been recorded.
+	 */
+	private synchronized String getClassesHash() {
+		if (classesHash == null) {
+			MessageDigest digest = newDigest();
+			classDirectories.forEach(directory -> updateDigest(digest, directory, false));
+			testClassDirectories.forEach(directory -> updateDigest(digest, directory, true));
+			for (String resource : DependencyRecorder.getContextResources()) {
+				digest.update(resource.getBytes(StandardCharsets.UTF_8));
+				digest.update(hashResource(resource).getBytes(StandardCharsets.UTF_8));
+			}
+			DependencyRecorder.getContextFiles().forEach(path -> updateDigest(digest, path, false));
+			classesHash = toHex(digest.digest());
+		}
+		return classesHash;
+	}
+
+	/**
+	 * Update digest with names and contents of files in the directory, or the file itself.
+	 */
+	private static void updateDigest(MessageDigest digest, Path directory, boolean classFilesOnly) {
+		if (!Files.exists(directory)) {
+			digest.update(MISSING.getBytes(StandardCharsets.UTF_8));
+			return;
+		}
+		try (Stream<Path> paths = Files.walk(directory)) {
+			for (Path path : paths.filter(Files::isRegularFile)
+					.filter(path -> !classFilesOnly || path.getFileName().toString().endsWith(".class"))
+					.sorted()
+					.collect(Collectors.toList())) {
+				digest.update(directory.relativize(path).toString().replace(File.separatorChar, '/').getBytes(StandardCharsets.UTF_8));
+				digest.update(Files.readAllBytes(path));
+			}
+		} catch (IOException ex) {
+			throw new TestException("Exception while reading files in " + directory, ex);
+		}
+	}
+
+	private static String hashFile(Path path) {
+		try {
+			return Files.exists(path) ? toHex(newDigest().digest(Files.readAllBytes(path))) : MISSING;
+		} catch (IOException ex) {
+			throw new TestException("Exception while reading " + path, ex);
+		}
+	}
+
+	private static String hashResource(String resourcePath) {
+		try (InputStream inputStream = ClassLoader.getSystemResourceAsStream(resourcePath)) {
+			return inputStream != null ? toHex(newDigest().digest(inputStream.readAllBytes())) : MISSING;
+		} catch (IOException ex) {
+			throw new TestException("Exception while reading " + resourcePath, ex);
+		}
+	}
+
+	private static MessageDigest newDigest() {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException ex) {
+			throw new TestException(ex.getMessage(), ex);
+		}
+	}
+
+	private static String toHex(byte[] bytes) {
+		StringBuilder builder = new StringBuilder(bytes.length * 2);
+		for (byte b : bytes) {
+			builder.append(String.format("%02x", b));
+		}
+		return builder.toString();
+	}
+
+	/**
+	 * Hashes of a specification and everything it depends on at its last successful execution.
+	 */
+	@Getter
+	@Setter
+	@NoArgsConstructor
+	@AllArgsConstructor
+	static class Fingerprint {
+
+		private String classes;
+
+		private String specification;
+
+		private Map<String, String> resources;
+	}
+}
@@ -1,15 +1,29 @@
 package spring.integration.core.support.injector;
 
-import groovy.util.GroovyScriptEngine;
-import org.springframework.scripting.groovy.GroovyScriptFactory;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.ExecutionError;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import groovy.lang.Binding;
+import groovy.lang.GroovyClassLoader;
+import groovy.lang.Script;
+import org.codehaus.groovy.runtime.InvokerHelper;
+import org.codehaus.groovy.runtime.MethodClosure;
 import spring.integration.core.support.TestException;
 
-import javax.script.ScriptEngine;
-import javax.script.ScriptEngineManager;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Function;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
 /**
@@ -23,25 +37,40 @@ class DynamicValueInjector extends ValueInjector {
      */
     private static final String SCRIPT_SURROUNDING_PATTERN = "```(.+)?```";
 
-    private final ScriptEngine scriptEngine;
+    static final long MAXIMUM_SCRIPT_PARTS = 1024;
+
+    /**
+     * Compiled and loaded Groovy scripts which define functions for dynamic value, keyed by script string.
+     */
+    private static final Map<String, FunctionScript> FUNCTION_SCRIPTS = new ConcurrentHashMap<>();
+
+    /**
+     * Compiled script parts, keyed by script string. Each of them is loaded by its own class loader,
+     * so that evicted classes can be unloaded.
+     */
+    private static final Cache<String, Class<?>> SCRIPT_PARTS = CacheBuilder.newBuilder()
+            .maximumSize(MAXIMUM_SCRIPT_PARTS)
+            .build();
 
     /**
      * Matching pattern for detecting script part.
      */
     private final Pattern pattern = Pattern.compile(SCRIPT_SURROUNDING_PATTERN);
 
+    /**
+     * Binding for script parts, which provides functions and variables defined in Groovy script.
+     * It's owned by this instance, so script parts of different instances can be evaluated concurrently.
+     */
+    private final Binding binding;
+
     /**
      * Create new instance of DynamicValueInjector.
      *
      * @param scriptString Groovy script string which is used in JSON test case file.
      */
     protected DynamicValueInjector(String scriptString) {
-
         try {
-
-            ScriptEngineManager factory = new ScriptEngineManager();
-            scriptEngine = factory.getEngineByName("groovy");
-            scriptEngine.eval(scriptString);
+            binding = FUNCTION_SCRIPTS.computeIfAbsent(scriptString, FunctionScript::new).createBinding();
         } catch (Throwable ex) {
             throw new TestException("Failed to load Groovy script.", ex);
         }
@@ -84,12 +113,61 @@ class DynamicValueInjector extends ValueInjector {
         Object ret = value;
         Matcher matcher = pattern.matcher(value);
         if (matcher.find()) {
+            String scriptPart = matcher.group(1);
             try {
-                ret = scriptEngine.eval(matcher.group(1));
+                Class<?> scriptClass = SCRIPT_PARTS.get(scriptPart, () -> compile(scriptPart));
+                // Script instance holds its binding, so it's created for each evaluation.
+                ret = InvokerHelper.createScript(scriptClass, binding).run();
+            } catch (ExecutionException | UncheckedExecutionException | ExecutionError ex) {
+                throw new TestException(String.format("Failed to create dynamic value with %s : %s", key, value), ex.getCause());
             } catch (Throwable ex) {
                 throw new TestException(String.format("Failed to create dynamic value with %s : %s", key, value), ex);
             }
         }
         return ret;
     }
+
+    private static Class<?> compile(String scriptString) {
+        return new GroovyClassLoader(DynamicValueInjector.class.getClassLoader()).parseClass(scriptString);
+    }
+
+    static long scriptPartsSize() {
+        return SCRIPT_PARTS.size();
+    }
+
+    /**
+     * Groovy script which has been compiled and executed once.
+     * Its methods are provided to script parts as closures, like functions defined in a script engine.
+     */
+    private static final class FunctionScript {
+
+        private final Map<String, Object> variables;
+
+        private final Map<String, MethodClosure> functions;
+
+        private FunctionScript(String scriptString) {
+            Class<?> scriptClass = compile(scriptString);
+            Binding scriptBinding = new Binding();
+            Script script = InvokerHelper.createScript(scriptClass, scriptBinding);
+            script.run();
+            Map<String, Object> scriptVariables = new LinkedHashMap<>();
+            for (Object variable : scriptBinding.getVariables().entrySet()) {
+                Map.Entry<?, ?> entry = (Map.Entry<?, ?>) variable;
+                scriptVariables.put(String.valueOf(entry.getKey()), entry.getValue());
+            }
+            variables = Collections.unmodifiableMap(scriptVariables);
+            functions = Arrays.stream(scriptClass.getDeclaredMethods())
+                    .filter(method -> Modifier.isPublic(method.getModifiers()) && !method.isSynthetic())
+                    .map(Method::getName)
+                    .filter(name -> !"run".equals(name) && !"main".equals(name) && !name.startsWith("$"))
+                    .distinct()
+                    .collect(Collectors.toMap(Function.identity(), name -> new MethodClosure(script, name)));
+        }
+
+        private Binding createBinding() {
+            Map<String, Object> bindingVariables = new LinkedHashMap<>(variables);
+            bindingVariables.putAll(functions);
+            return new Binding(bindingVariables);
+        }
+    }
 }
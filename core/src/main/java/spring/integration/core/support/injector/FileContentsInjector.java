@@ -40,8 +40,7 @@ class FileContentsInjector extends ReferenceValueInjector {
 			Object object = findValueWithTargetPath(String.valueOf(map.get(REFERENCE_TARGET_KEY)));
 			if (object instanceof Map) {
 				map.remove(REFERENCE_TARGET_KEY);
-				// noinspection unchecked
-				map.putAll(Map.class.cast(object));
+				((Map<?, ?>) object).forEach((key, value) -> map.put(String.valueOf(key), value));
 			}
 		}
 	}
@@ -8,6 +8,8 @@ import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.util.StringUtils;
+import spring.integration.core.support.recording.Phase;
+import spring.integration.core.support.recording.PhaseRecorder;
 import spring.integration.core.utils.ObjectConverter;
 import spring.integration.core.utils.ResourceUtility;
 
@@ -18,46 +20,67 @@ import spring.integration.core.utils.ResourceUtility;
 @Slf4j
 public class ValueInjectionManager {
 
+	/**
+	 * Groovy script of pre-defined functions for dynamic values, which is read once because it's a part of this library.
+	 */
+	private static final String PRE_DEFINED_DYNAMIC_VALUES = ResourceUtility.getResourceAsString("script/DynamicValue.groovy");
+
 	/**
 	 * Setup value injectors and execute injection with specificationData.
 	 */
 	public static Map<String, Object> inject(ObjectMapper objectMapper, Map<String, Object> specificationData) {
-		Map<String, Object> injectTargetMap = ObjectConverter.toMap(objectMapper, specificationData);
-		// noinspection unchecked
-		Map<String, Object> metadata = (Map<String, Object>) injectTargetMap.get("metadata");
-		Map<String, Object> userDefinedDynamicValues = ObjectConverter.toMap(objectMapper, metadata.get("properties"));
+		Map<String, Object> injectTargetMap = ObjectConverter.deepCopy(specificationData);
+		injectStaticValues(objectMapper, injectTargetMap);
+		injectDynamicValues(objectMapper, injectTargetMap);
+		// Output injection result to log
+		logInjectResult(objectMapper, specificationData, injectTargetMap);
+		return injectTargetMap;
+	}
 
+	/**
+	 * Inject values which don't change between executions, that is contents of other files.
+	 * injectTargetMap is updated directly.
+	 */
+	public static Map<String, Object> injectStaticValues(ObjectMapper objectMapper, Map<String, Object> injectTargetMap) {
+		Map<String, Object> metadata = ObjectConverter.asMap(objectMapper, injectTargetMap.get("metadata"));
 		FileContentsInjector fileContentsInjector = new FileContentsInjector(objectMapper);
-		fileContentsInjector.inject(userDefinedDynamicValues)
+		PhaseRecorder.record(Phase.INJECTION, "file", () -> fileContentsInjector.inject(metadata.get("properties"))
 				.inject(metadata.get("assert"))
 				.inject(injectTargetMap.get("setup"))
 				.inject(injectTargetMap.get("request"))
 				.inject(injectTargetMap.get("response"))
 				.inject(injectTargetMap.get("scenario"))
-				.inject(injectTargetMap.get("cleanup"));
+				.inject(injectTargetMap.get("cleanup")));
+		return injectTargetMap;
+	}
 
-		String preDefinedDynamicValues = ResourceUtility.getResourceAsString("script/DynamicValue.groovy");
-		DynamicValueInjector dynamicValueInjector = new DynamicValueInjector(preDefinedDynamicValues);
-		dynamicValueInjector.inject(userDefinedDynamicValues)
+	/**
+	 * Inject values which have to be evaluated for each execution, that is dynamic values and values referring to them.
+	 * injectTargetMap is updated directly, except its properties.
+	 */
+	public static Map<String, Object> injectDynamicValues(ObjectMapper objectMapper, Map<String, Object> injectTargetMap) {
+		Map<String, Object> metadata = ObjectConverter.asMap(objectMapper, injectTargetMap.get("metadata"));
+		Map<String, Object> userDefinedDynamicValues = ObjectConverter.toMap(objectMapper, metadata.get("properties"));
+
+		DynamicValueInjector dynamicValueInjector = new DynamicValueInjector(PRE_DEFINED_DYNAMIC_VALUES);
+		PhaseRecorder.record(Phase.INJECTION, "dynamic", () -> dynamicValueInjector.inject(userDefinedDynamicValues)
 				.inject(injectTargetMap.get("request"))
-				.inject(injectTargetMap.get("scenario"));
+				.inject(injectTargetMap.get("scenario")));
 
 		ReferenceValueInjector referencedValueInjector = new ReferenceValueInjector(objectMapper, userDefinedDynamicValues);
-		referencedValueInjector.inject(metadata.get("assert"))
+		PhaseRecorder.record(Phase.INJECTION, "reference", () -> referencedValueInjector.inject(metadata.get("assert"))
 				.inject(injectTargetMap.get("setup"))
 				.inject(injectTargetMap.get("request"))
 				.inject(injectTargetMap.get("response"))
 				.inject(injectTargetMap.get("scenario"))
-				.inject(injectTargetMap.get("cleanup"));
-		// Output injection result to log
-		logInjectResult(objectMapper, specificationData, injectTargetMap);
+				.inject(injectTargetMap.get("cleanup")));
 		return injectTargetMap;
 	}
 
 	/**
 	 * Log result of value injection by differences.
 	 */
-	private static void logInjectResult(ObjectMapper objectMapper, Map<String, Object> before, Map<String, Object> after) {
+	public static void logInjectResult(ObjectMapper objectMapper, Map<String, Object> before, Map<String, Object> after) {
 		if (log.isDebugEnabled()) {
 			JsonNode beforeNode = objectMapper.valueToTree(before);
 			JsonNode afterNode = objectMapper.valueToTree(after);
@@ -0,0 +1,116 @@
+package spring.integration.core.support.load;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histogram of latencies in nanoseconds with log-linear buckets like HdrHistogram.
+ * Values are recorded with relative error less than 1/64 and no allocation, so that it can be shared by threads.
+ */
+public class LatencyHistogram {
+
+	/**
+	 * Values less than this are recorded exactly.
+	 */
+	private static final int LINEAR_BUCKETS = 128;
+
+	private static final int SUB_BUCKETS = LINEAR_BUCKETS / 2;
+
+	private static final int SUB_BUCKET_BITS = Integer.numberOfTrailingZeros(SUB_BUCKETS);
+
+	private static final int BUCKETS = LINEAR_BUCKETS + (Long.SIZE - SUB_BUCKET_BITS - 1) * SUB_BUCKETS;
+
+	private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+	private final AtomicLong totalCount = new AtomicLong();
+
+	private final AtomicLong max = new AtomicLong();
+
+	/**
+	 * Record a latency.
+	 *
+	 * @param nanos Latency in nanoseconds
+	 */
+	public void record(long nanos) {
+		long value = Math.max(0, nanos);
+		counts.incrementAndGet(indexOf(value));
+		totalCount.incrementAndGet();
+		max.accumulateAndGet(value, Math::max);
+	}
+
+	/**
+	 * Add all recorded values of the other histogram.
+	 */
+	public void add(LatencyHistogram other) {
+		for (int i = 0; i < BUCKETS; i++) {
+			long count = other.counts.get(i);
+			if (count > 0) {
+				counts.addAndGet(i, count);
+			}
+		}
+		totalCount.addAndGet(other.getCount());
+		max.accumulateAndGet(other.getMax(), Math::max);
+	}
+
+	public long getCount() {
+		return totalCount.get();
+	}
+
+	/**
+	 * Get maximum recorded value in nanoseconds.
+	 */
+	public long getMax() {
+		return max.get();
+	}
+
+	/**
+	 * Get the highest value in nanoseconds which the given percentage of recorded values are equal to or less than.
+	 *
+	 * @param percentile Percentile between 0 and 100
+	 */
+	public long getValueAtPercentile(double percentile) {
+		long count = getCount();
+		if (count == 0) {
+			return 0;
+		}
+		long threshold = Math.max(1, (long) Math.ceil(Math.min(percentile, 100) / 100 * count));
+		long accumulated = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			accumulated += counts.get(i);
+			if (accumulated >= threshold) {
+				return Math.min(highestValueOf(i), getMax());
+			}
+		}
+		return getMax();
+	}
+
+	/**
+	 * Get value at percentile in milliseconds.
+	 */
+	public double getMillisAtPercentile(double percentile) {
+		return toMillis(getValueAtPercentile(percentile));
+	}
+
+	static double toMillis(long nanos) {
+		return (double) nanos / TimeUnit.MILLISECONDS.toNanos(1);
+	}
+
+	private static int indexOf(long value) {
+		if (value < LINEAR_BUCKETS) {
+			return (int) value;
+		}
+		// Shift the value so that it's in [SUB_BUCKETS, LINEAR_BUCKETS), and the shift determines the bucket.
+		int shift = Long.SIZE - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS - 1;
+		return LINEAR_BUCKETS + (shift - 1) * SUB_BUCKETS + (int) (value >>> shift) - SUB_BUCKETS;
+	}
+
+	private static long highestValueOf(int index) {
+		if (index < LINEAR_BUCKETS) {
+			return index;
+		}
+		int shift = (index - LINEAR_BUCKETS) / SUB_BUCKETS + 1;
+		long subBucket = (index - LINEAR_BUCKETS) % SUB_BUCKETS + SUB_BUCKETS;
+		return ((subBucket + 1) << shift) - 1;
+	}
+}
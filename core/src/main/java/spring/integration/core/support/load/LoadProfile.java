@@ -0,0 +1,72 @@
+package spring.integration.core.support.load;
+
+import java.time.Duration;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * How a specification is replayed in load test mode.
+ */
+@Getter
+@AllArgsConstructor
+public class LoadProfile {
+
+	static final String PROPERTY_PREFIX = "integration.load.";
+
+	/**
+	 * Total number of scenario executions. 0 means load test mode is disabled.
+	 */
+	private final int iterations;
+
+	/**
+	 * Number of virtual users who execute scenario concurrently.
+	 */
+	private final int users;
+
+	/**
+	 * Time until all virtual users start. Virtual users start at even intervals.
+	 */
+	private final Duration rampUp;
+
+	/**
+	 * Ratio of failed executions which is acceptable, between 0 and 1.
+	 */
+	private final double maxErrorRate;
+
+	/**
+	 * Number of scenario executions started per second regardless of responses (open-loop).
+	 * 0 means virtual users execute scenario one after another (closed-loop).
+	 */
+	private final double rate;
+
+	public LoadProfile(int iterations, int users, Duration rampUp, double maxErrorRate) {
+		this(iterations, users, rampUp, maxErrorRate, 0);
+	}
+
+	/**
+	 * Create profile from "integration.load.*" system properties.
+	 */
+	public static LoadProfile fromSystemProperties() {
+		return new LoadProfile(
+				Integer.getInteger(PROPERTY_PREFIX + "iterations", 0),
+				Integer.getInteger(PROPERTY_PREFIX + "users", 1),
+				Duration.ofMillis(Long.getLong(PROPERTY_PREFIX + "rampUp", 0)),
+				Double.parseDouble(System.getProperty(PROPERTY_PREFIX + "maxErrorRate", "0")),
+				Double.parseDouble(System.getProperty(PROPERTY_PREFIX + "rate", "0")));
+	}
+
+	public boolean isEnabled() {
+		return iterations > 0;
+	}
+
+	public boolean isOpenLoop() {
+		return rate > 0;
+	}
+
+	/**
+	 * Get number of executions which run concurrently, or 0 when it's unknown in open-loop because it depends on latencies.
+	 */
+	public int getConcurrency() {
+		return isOpenLoop() ? 0 : Math.max(1, Math.min(users, iterations));
+	}
+}
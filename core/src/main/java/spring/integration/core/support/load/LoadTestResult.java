@@ -0,0 +1,175 @@
+package spring.integration.core.support.load;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Latencies, throughput and errors of a load test.
+ */
+@RequiredArgsConstructor
+public class LoadTestResult {
+
+	private static final String ROW_FORMAT = "%-40s %8s %12s %10s %10s %10s %10s%n";
+
+	private static final String SCENARIO = "(scenario)";
+
+	private static final int MAX_REPORTED_ERRORS = 10;
+
+	@Getter
+	private final String name;
+
+	@Getter
+	private final LoadProfile profile;
+
+	/**
+	 * Histograms per step in order of the scenario.
+	 */
+	private final Map<String, LatencyHistogram> steps = Collections.synchronizedMap(new LinkedHashMap<>());
+
+	@Getter
+	private final LatencyHistogram scenario = new LatencyHistogram();
+
+	/**
+	 * Time which steps waited for pooled connections, which is reported apart from latencies of steps.
+	 * It's included in latencies of steps as well in open-loop.
+	 */
+	@Getter
+	private final LatencyHistogram connectionWait = new LatencyHistogram();
+
+	/**
+	 * Number of failed executions per error message.
+	 */
+	private final Map<String, AtomicLong> errors = new ConcurrentHashMap<>();
+
+	private final AtomicLong failures = new AtomicLong();
+
+	private long startTime;
+
+	private long endTime;
+
+	void start() {
+		startTime = System.nanoTime();
+	}
+
+	void finish() {
+		endTime = System.nanoTime();
+	}
+
+	StepRecorder newStepRecorder() {
+		return newStepRecorder(0);
+	}
+
+	/**
+	 * Create recorder for an execution which started later than intended.
+	 * The delay is added to latency of the first step, so that stalls of the application are not hidden (coordinated omission).
+	 * In open-loop, time waiting for connections is added to latency of the step for the same reason, because requests queue up
+	 * for the connections while the application stalls. It's reported separately as well.
+	 *
+	 * @param startDelay Delay in nanoseconds from the intended start time
+	 */
+	StepRecorder newStepRecorder(long startDelay) {
+		AtomicInteger index = new AtomicInteger();
+		return (stepName, latency, connectionWaitTime) -> {
+			int position = index.incrementAndGet();
+			long stepLatency = profile.isOpenLoop() ? latency + connectionWaitTime : latency;
+			getStep(position + ". " + stepName).record(position == 1 ? stepLatency + startDelay : stepLatency);
+			connectionWait.record(connectionWaitTime);
+		};
+	}
+
+	void recordSuccess(long latency) {
+		scenario.record(latency);
+	}
+
+	void recordFailure(long latency, Throwable cause) {
+		scenario.record(latency);
+		failures.incrementAndGet();
+		String message = cause.getClass().getSimpleName() + ": " + String.valueOf(cause.getMessage()).split("\\R", 2)[0];
+		errors.computeIfAbsent(message, key -> new AtomicLong()).incrementAndGet();
+	}
+
+	/**
+	 * Get histogram of the step, the name of which is prefixed with its position in the scenario. e.g. "1. GET /foo"
+	 */
+	public LatencyHistogram getStep(String stepName) {
+		return steps.computeIfAbsent(stepName, key -> new LatencyHistogram());
+	}
+
+	public Map<String, LatencyHistogram> getSteps() {
+		synchronized (steps) {
+			return new LinkedHashMap<>(steps);
+		}
+	}
+
+	public long getIterations() {
+		return scenario.getCount();
+	}
+
+	public long getFailures() {
+		return failures.get();
+	}
+
+	public double getErrorRate() {
+		return getIterations() == 0 ? 0 : (double) getFailures() / getIterations();
+	}
+
+	/**
+	 * Get elapsed time of the load test in seconds.
+	 */
+	public double getElapsedSeconds() {
+		return (double) (endTime - startTime) / TimeUnit.SECONDS.toNanos(1);
+	}
+
+	/**
+	 * Get executions per second of the histogram.
+	 */
+	public double getThroughput(LatencyHistogram histogram) {
+		double elapsedSeconds = getElapsedSeconds();
+		return elapsedSeconds > 0 ? histogram.getCount() / elapsedSeconds : 0;
+	}
+
+	public boolean isErrorRateExceeded() {
+		return getErrorRate() > profile.getMaxErrorRate();
+	}
+
+	/**
+	 * Create human readable report.
+	 */
+	public String toReport() {
+		StringBuilder report = new StringBuilder(profile.isOpenLoop()
+				? String.format("Load test of %s : %d iterations at %.1f/s in %.3f s%n", name, getIterations(), profile.getRate(), getElapsedSeconds())
+				: String.format("Load test of %s : %d iterations by %d users in %.3f s%n", name, getIterations(), profile.getUsers(), getElapsedSeconds()));
+		report.append(String.format(ROW_FORMAT, "Step", "Count", "Throughput/s", "p50(ms)", "p95(ms)", "p99(ms)", "Max(ms)"));
+		getSteps().forEach((stepName, histogram) -> appendRow(report, stepName, histogram));
+		appendRow(report, SCENARIO, scenario);
+		if (connectionWait.getMax() > 0) {
+			report.append(String.format("Connection wait (ms) : p50 %s, p99 %s, max %s. Raise integration.connect.maxConnections if it's large.%n",
+					format(connectionWait.getMillisAtPercentile(50)), format(connectionWait.getMillisAtPercentile(99)),
+					format(LatencyHistogram.toMillis(connectionWait.getMax()))));
+		}
+		report.append(String.format("Errors : %d (%.2f%%, acceptable %.2f%%)%n",
+				getFailures(), getErrorRate() * 100, profile.getMaxErrorRate() * 100));
+		errors.entrySet().stream()
+				.sorted(Map.Entry.<String, AtomicLong>comparingByValue((a, b) -> Long.compare(b.get(), a.get())))
+				.limit(MAX_REPORTED_ERRORS)
+				.forEach(error -> report.append(String.format("  %6d x %s%n", error.getValue().get(), error.getKey())));
+		return report.toString();
+	}
+
+	private void appendRow(StringBuilder report, String stepName, LatencyHistogram histogram) {
+		report.append(String.format(ROW_FORMAT, stepName, histogram.getCount(), String.format("%.1f", getThroughput(histogram)),
+				format(histogram.getMillisAtPercentile(50)), format(histogram.getMillisAtPercentile(95)),
+				format(histogram.getMillisAtPercentile(99)), format(LatencyHistogram.toMillis(histogram.getMax()))));
+	}
+
+	private static String format(double millis) {
+		return String.format("%.2f", millis);
+	}
+}
@@ -0,0 +1,121 @@
+package spring.integration.core.support.load;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import spring.integration.core.support.TestException;
+
+/**
+ * Execute a scenario repeatedly.
+ * In closed-loop, each virtual user executes the next iteration as soon as the previous one finishes.
+ * In open-loop, iterations start at fixed rate regardless of responses, and latency is measured from the intended start time.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class LoadTestRunner {
+
+	private final LoadProfile profile;
+
+	/**
+	 * Single execution of scenario which records latency of each step.
+	 * It fails by throwing exception or error, e.g. AssertionFailedError.
+	 */
+	@FunctionalInterface
+	public interface Scenario {
+
+		void execute(StepRecorder stepRecorder) throws Exception;
+	}
+
+	/**
+	 * Run the scenario in accordance with the profile, and return its result.
+	 * Failures of the scenario are counted in the result instead of being thrown.
+	 */
+	public LoadTestResult run(String name, Scenario scenario) throws InterruptedException {
+		LoadTestResult result = profile.isOpenLoop() ? runOpenLoop(name, scenario) : runClosedLoop(name, scenario);
+		log.info("(Integration) {}", result.toReport());
+		return result;
+	}
+
+	private LoadTestResult runClosedLoop(String name, Scenario scenario) throws InterruptedException {
+		LoadTestResult result = new LoadTestResult(name, profile);
+		AtomicInteger remainingIterations = new AtomicInteger(profile.getIterations());
+		int users = profile.getConcurrency();
+		long rampUpInterval = profile.getRampUp().toNanos() / users;
+		log.info("(Integration) Starting load test of {} : {} iterations by {} users", name, profile.getIterations(), users);
+		ExecutorService executorService = Executors.newFixedThreadPool(users, new CustomizableThreadFactory("integration-load-"));
+		try {
+			List<Callable<Void>> virtualUsers = IntStream.range(0, users)
+					.mapToObj(user -> (Callable<Void>) () -> {
+						TimeUnit.NANOSECONDS.sleep(rampUpInterval * user);
+						while (remainingIterations.getAndDecrement() > 0) {
+							execute(scenario, result);
+						}
+						return null;
+					})
+					.collect(Collectors.toList());
+			result.start();
+			for (Future<Void> future : executorService.invokeAll(virtualUsers)) {
+				future.get();
+			}
+		} catch (ExecutionException ex) {
+			throw new TestException("Exception while executing load test of " + name, ex.getCause());
+		} finally {
+			result.finish();
+			executorService.shutdownNow();
+		}
+		return result;
+	}
+
+	private LoadTestResult runOpenLoop(String name, Scenario scenario) throws InterruptedException {
+		LoadTestResult result = new LoadTestResult(name, profile);
+		long interval = (long) (TimeUnit.SECONDS.toNanos(1) / profile.getRate());
+		log.info("(Integration) Starting load test of {} : {} iterations at {}/s", name, profile.getIterations(), profile.getRate());
+		// Threads are never reused while they are busy, so that slow responses never delay the following iterations.
+		ExecutorService executorService = Executors.newCachedThreadPool(new CustomizableThreadFactory("integration-load-"));
+		result.start();
+		long startTime = System.nanoTime();
+		try {
+			for (int i = 0; i < profile.getIterations(); i++) {
+				long intendedStartTime = startTime + interval * i;
+				long waitTime = intendedStartTime - System.nanoTime();
+				if (waitTime > 0) {
+					TimeUnit.NANOSECONDS.sleep(waitTime);
+				}
+				executorService.execute(() -> execute(scenario, result, intendedStartTime));
+			}
+			executorService.shutdown();
+			while (!executorService.awaitTermination(1, TimeUnit.SECONDS)) {
+				log.debug("(Integration) Waiting for in-flight iterations of {}", name);
+			}
+		} finally {
+			result.finish();
+			executorService.shutdownNow();
+		}
+		return result;
+	}
+
+	private void execute(Scenario scenario, LoadTestResult result) {
+		execute(scenario, result, System.nanoTime());
+	}
+
+	private void execute(Scenario scenario, LoadTestResult result, long intendedStartTime) {
+		long startDelay = Math.max(0, System.nanoTime() - intendedStartTime);
+		try {
+			scenario.execute(result.newStepRecorder(startDelay));
+			result.recordSuccess(System.nanoTime() - intendedStartTime);
+		} catch (Exception | AssertionError ex) {
+			result.recordFailure(System.nanoTime() - intendedStartTime, ex);
+			log.debug("(Integration) Scenario failed in load test.", ex);
+		}
+	}
+}
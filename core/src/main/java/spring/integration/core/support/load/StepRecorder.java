@@ -0,0 +1,27 @@
+package spring.integration.core.support.load;
+
+/**
+ * Recorder of latencies of steps in a single scenario execution.
+ */
+@FunctionalInterface
+public interface StepRecorder {
+
+	/**
+	 * Record latency of the next step.
+	 *
+	 * @param stepName           Name of the step. e.g. "GET /foo"
+	 * @param latency            Latency in nanoseconds, excluding connectionWaitTime
+	 * @param connectionWaitTime Time in nanoseconds which the step waited for pooled connections, which is added to latency in open-loop
+	 */
+	void record(String stepName, long latency, long connectionWaitTime);
+
+	/**
+	 * Record latency of the next step which didn't wait for connections.
+	 *
+	 * @param stepName Name of the step. e.g. "GET /foo"
+	 * @param latency  Latency in nanoseconds
+	 */
+	default void record(String stepName, long latency) {
+		record(stepName, latency, 0);
+	}
+}
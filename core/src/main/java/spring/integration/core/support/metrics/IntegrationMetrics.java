@@ -0,0 +1,207 @@
+package spring.integration.core.support.metrics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import io.micrometer.prometheus.PrometheusConfig;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import spring.integration.core.support.TestException;
+import spring.integration.core.support.recording.Phase;
+import spring.integration.core.support.recording.PhaseListener;
+
+/**
+ * Micrometer timers and counters of specification execution, which are exported in Prometheus text format or json at the end of suite.
+ * Metrics are accumulated while the suite is running, so that the exported file of each test class contains the previous ones too.
+ */
+@Slf4j
+public class IntegrationMetrics implements PhaseListener {
+
+	static final String SPECIFICATION_TIMER = "integration.specification";
+
+	static final String SPECIFICATION_FAILURES = "integration.specification.failures";
+
+	static final String REQUEST_TIMER = "integration.request";
+
+	static final String MOCKABLE_TIMER = "integration.mockable";
+
+	static final String ASSERTION_TIMER = "integration.assertion";
+
+	static final String PHASE_TIMER = "integration.phase";
+
+	private static final double[] QUANTILES = {0.5, 0.95, 0.99};
+
+	/**
+	 * Percentiles and maximum are kept for the whole suite, instead of the latest few minutes as Micrometer does by default.
+	 */
+	private static final Duration STATISTIC_EXPIRY = Duration.ofDays(1);
+
+	private final ObjectMapper objectMapper;
+
+	/**
+	 * File to export metrics into, or null when metrics are disabled.
+	 */
+	@Getter
+	private final Path file;
+
+	@Getter
+	private final PrometheusMeterRegistry registry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+
+	/**
+	 * @param objectMapper ObjectMapper to write json
+	 * @param file         File to export metrics into, which is written as json when it ends with ".json", or null to disable metrics
+	 */
+	public IntegrationMetrics(ObjectMapper objectMapper, Path file) {
+		this.objectMapper = objectMapper;
+		this.file = file;
+	}
+
+	public boolean isEnabled() {
+		return file != null;
+	}
+
+	@Override
+	public void phaseExecuted(String specification, int step, Phase phase, String name, long elapsedTime) {
+		switch (phase) {
+			case REQUEST:
+				// Name of request phase is method and url before path parameters are applied, e.g. "GET /books/{id}".
+				int separator = name.indexOf(' ');
+				timer(REQUEST_TIMER, "method", name.substring(0, Math.max(separator, 0)), "uri", name.substring(separator + 1))
+						.record(elapsedTime, TimeUnit.NANOSECONDS);
+				break;
+			case MOCK_SETUP:
+				timer(MOCKABLE_TIMER, "mockable", name, "operation", "setup").record(elapsedTime, TimeUnit.NANOSECONDS);
+				break;
+			case CLEANUP:
+				timer(MOCKABLE_TIMER, "mockable", name, "operation", "cleanup").record(elapsedTime, TimeUnit.NANOSECONDS);
+				break;
+			case ASSERTION:
+				timer(ASSERTION_TIMER, "assertion", name).record(elapsedTime, TimeUnit.NANOSECONDS);
+				break;
+			default:
+				timer(PHASE_TIMER, "phase", phase.name(), "name", name).record(elapsedTime, TimeUnit.NANOSECONDS);
+		}
+	}
+
+	@Override
+	public void specificationExecuted(String specification, long elapsedTime, boolean failed) {
+		timer(SPECIFICATION_TIMER, "specification", specification).record(elapsedTime, TimeUnit.NANOSECONDS);
+		Counter failures = registry.counter(SPECIFICATION_FAILURES, tags("specification", specification));
+		if (failed) {
+			failures.increment();
+		}
+	}
+
+	/**
+	 * Get timer which has the name and tags, or null when nothing has been recorded.
+	 *
+	 * @param tags Pairs of tag key and value
+	 */
+	Timer getTimer(String name, String... tags) {
+		return registry.find(name).tags(tags(tags)).timer();
+	}
+
+	/**
+	 * Get count of the counter which has the name and tags.
+	 *
+	 * @param tags Pairs of tag key and value
+	 */
+	long getCount(String name, String... tags) {
+		Counter counter = registry.find(name).tags(tags(tags)).counter();
+		return counter == null ? 0 : (long) counter.count();
+	}
+
+	/**
+	 * Write all metrics into the file.
+	 */
+	public void export() {
+		if (!isEnabled()) {
+			return;
+		}
+		try {
+			if (file.getParent() != null) {
+				Files.createDirectories(file.getParent());
+			}
+			try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+				if (file.getFileName().toString().endsWith(".json")) {
+					objectMapper.writerWithDefaultPrettyPrinter().writeValue(writer, toJson());
+				} else {
+					registry.scrape(writer);
+				}
+			}
+			log.info("(Integration) Exported metrics : {}", file);
+		} catch (IOException ex) {
+			throw new TestException("Exception while exporting metrics into " + file, ex);
+		}
+	}
+
+	/**
+	 * Get metrics as a list of meters which have name, tags and their values. Names are same as Prometheus, and times are in seconds.
+	 */
+	List<Map<String, Object>> toJson() {
+		return registry.getMeters().stream()
+				.sorted(Comparator.comparing((Meter meter) -> meter.getId().getConventionName(registry.config().namingConvention()))
+						.thenComparing(meter -> meter.getId().getTags().toString()))
+				.map(this::toJson)
+				.collect(Collectors.toList());
+	}
+
+	private Map<String, Object> toJson(Meter meter) {
+		Map<String, Object> json = new LinkedHashMap<>();
+		json.put("name", meter.getId().getConventionName(registry.config().namingConvention()));
+		json.put("tags", meter.getId().getTags().stream().collect(Collectors.toMap(Tag::getKey, Tag::getValue, (a, b) -> a, LinkedHashMap::new)));
+		if (meter instanceof Timer) {
+			HistogramSnapshot snapshot = ((Timer) meter).takeSnapshot();
+			json.put("type", "timer");
+			json.put("count", snapshot.count());
+			json.put("sum", snapshot.total(TimeUnit.SECONDS));
+			json.put("max", snapshot.max(TimeUnit.SECONDS));
+			for (ValueAtPercentile percentile : snapshot.percentileValues()) {
+				json.put("p" + Math.round(percentile.percentile() * 100), percentile.value(TimeUnit.SECONDS));
+			}
+		} else {
+			json.put("type", "counter");
+			json.put("count", (long) ((Counter) meter).count());
+		}
+		return json;
+	}
+
+	private Timer timer(String name, String... tags) {
+		return Timer.builder(name)
+				.tags(tags(tags))
+				.publishPercentiles(QUANTILES)
+				// 2 significant digits, so that percentiles have relative error about 1%.
+				.percentilePrecision(2)
+				.distributionStatisticExpiry(STATISTIC_EXPIRY)
+				.distributionStatisticBufferLength(1)
+				.register(registry);
+	}
+
+	/**
+	 * Convert pairs of tag key and value into Micrometer tags, which cannot have null values.
+	 */
+	private static String[] tags(String... tags) {
+		String[] keyValues = new String[tags.length - tags.length % 2];
+		for (int i = 0; i < keyValues.length; i++) {
+			keyValues[i] = tags[i] == null ? "" : tags[i];
+		}
+		return keyValues;
+	}
+}
@@ -5,6 +5,8 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 import spring.integration.core.support.TestException;
+import spring.integration.core.support.recording.Phase;
+import spring.integration.core.support.recording.PhaseRecorder;
 
 import java.util.List;
 import java.util.Map;
@@ -39,25 +41,65 @@ public class MockSupporter {
     @SuppressWarnings("unchecked")
     public void setup(Map<String, Object> setupData) {
         if (Objects.nonNull(setupData)) {
-            setupData.forEach((key, value) -> getMockable(key).setup((List) value));
+            setupData.forEach((key, value) -> PhaseRecorder.record(Phase.MOCK_SETUP, key, () -> getMockable(key).setup((List) value)));
         }
     }
 
     @SuppressWarnings("unchecked")
     public void cleanUp(Map<String, Object> setupData, Map<String, Object> cleanUpData) {
         if (Objects.nonNull(setupData)) {
-            setupData.forEach((key, value) -> getMockable(key).defaultCleanUp((List) value));
+            setupData.forEach((key, value) -> PhaseRecorder.record(Phase.CLEANUP, key, () -> getMockable(key).defaultCleanUp((List) value)));
         }
 
         if (Objects.nonNull(cleanUpData)) {
-            cleanUpData.forEach((key, value) -> getMockable(key).cleanup((List) value));
+            cleanUpData.forEach((key, value) -> PhaseRecorder.record(Phase.CLEANUP, key, () -> getMockable(key).cleanup((List) value)));
         }
     }
 
+    /**
+     * Check whether the specification which has setupData can be executed concurrently with other specifications.
+     */
+    public boolean isConcurrentExecutable(Map<String, Object> setupData) {
+        return Objects.isNull(setupData) || setupData.keySet().stream().map(this::getMockable).allMatch(Mockable::isIsolated);
+    }
+
     public void destroy() {
         getAllMockable().forEach(Mockable::destroy);
     }
 
+    /**
+     * Start recording of all mockables which verify each request.
+     */
+    public void startStep() {
+        getAllMockable().stream()
+                .filter(MockableStepAssertion.class::isInstance)
+                .map(mockable -> (MockableStepAssertion<?>) mockable)
+                .forEach(MockableStepAssertion::startStep);
+    }
+
+    /**
+     * Verify a request with verifyData which is "verify" of "response".
+     */
+    public void verifyStep(Map<String, Object> verifyData) {
+        if (Objects.nonNull(verifyData)) {
+            verifyData.forEach((key, value) -> {
+                Mockable mockable = getMockable(key);
+                if (!(mockable instanceof MockableStepAssertion)) {
+                    throw new TestException("Mockable doesn't support verification of request : " + key);
+                }
+                verifyStep((MockableStepAssertion<?>) mockable, value);
+            });
+        }
+    }
+
+    /**
+     * Verify with input which is parsed from json. Type of input is declared by the mockable, e.g. Map for json object.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> void verifyStep(MockableStepAssertion<T> mockable, Object input) {
+        mockable.verifyStep((T) input);
+    }
+
     public void executeMockableAssertion(Map<String, Object> setupData) {
         if (Objects.nonNull(setupData)) {
             setupData.forEach((key, value) -> {
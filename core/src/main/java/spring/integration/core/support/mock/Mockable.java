@@ -11,4 +11,12 @@ public interface Mockable<S, C> {
     void cleanup(List<C> elements);
 
     void destroy();
+
+    /**
+     * Whether setup and cleanup of this mockable are isolated per specification.
+     * Specifications which use only isolated mockables can be executed concurrently with others.
+     */
+    default boolean isIsolated() {
+        return false;
+    }
 }
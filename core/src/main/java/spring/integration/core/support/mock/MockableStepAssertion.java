@@ -0,0 +1,19 @@
+package spring.integration.core.support.mock;
+
+/**
+ * Mockable which verifies what the application did while handling each request of specification.
+ * Expectation is declared in "verify" of "response" with the name of mockable. e.g. { "verify": { "database": { ... } } }
+ */
+public interface MockableStepAssertion<T> {
+
+    /**
+     * Start recording for the next request.
+     */
+    void startStep();
+
+    /**
+     * Verify what has been recorded since the request was started.
+     * TestException will be thrown when the expectation isn't satisfied.
+     */
+    void verifyStep(T input);
+}
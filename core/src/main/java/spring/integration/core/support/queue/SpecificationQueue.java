@@ -0,0 +1,206 @@
+package spring.integration.core.support.queue;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Supplier;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import spring.integration.core.support.TestException;
+
+/**
+ * Queue of specification files shared by JVMs on the same machine through a directory.
+ * The first JVM publishes the files, and every JVM takes the next one until the queue is empty, so that faster JVMs execute more files.
+ * The directory is accessed under file lock. A queue published by an earlier run is discarded when the run id differs,
+ * and it causes failure without run id once it has been consumed, so that a leftover queue never makes a run execute nothing.
+ */
+@Slf4j
+public class SpecificationQueue {
+
+	static final String PROPERTY = "integration.queue.dir";
+
+	static final String RUN_ID_PROPERTY = "integration.queue.runId";
+
+	private static final String LOCK_FILE = "queue.lock";
+
+	private static final String QUEUE_FILE = "queue";
+
+	private static final String CURSOR_FILE = "cursor";
+
+	private static final String RESULTS_FILE = "results";
+
+	private static final String RUN_FILE = "run";
+
+	/**
+	 * File lock is held by JVM, so that threads in the same JVM are serialized by this.
+	 */
+	private static final Object JVM_LOCK = new Object();
+
+	@Getter
+	private final Path directory;
+
+	/**
+	 * Name of this JVM which is written in results.
+	 */
+	@Getter
+	private final String worker;
+
+	/**
+	 * Id which is shared by JVMs of the same run, or null when it isn't known.
+	 */
+	@Getter
+	private final String runId;
+
+	/**
+	 * Published specifications, which are never changed once they are published.
+	 */
+	private List<String> specifications;
+
+	public SpecificationQueue(Path directory, String worker) {
+		this(directory, worker, null);
+	}
+
+	public SpecificationQueue(Path directory, String worker, String runId) {
+		this.directory = directory;
+		this.worker = worker;
+		this.runId = runId;
+	}
+
+	/**
+	 * Get queue in the directory of "integration.queue.dir" system property, or null when it isn't specified.
+	 * Each namespace has its own sub directory, so that test classes never take specifications of each other.
+	 *
+	 * @param namespace Name which identifies specifications, e.g. name of test class
+	 */
+	public static SpecificationQueue fromSystemProperties(String namespace) {
+		String directory = System.getProperty(PROPERTY);
+		if (directory == null || directory.trim().isEmpty()) {
+			return null;
+		}
+		String runId = System.getProperty(RUN_ID_PROPERTY);
+		return new SpecificationQueue(Paths.get(directory).resolve(namespace.replaceAll("[^A-Za-z0-9._-]", "_")),
+				ManagementFactory.getRuntimeMXBean().getName(), runId == null || runId.trim().isEmpty() ? null : runId.trim());
+	}
+
+	/**
+	 * Publish specifications unless another JVM has published them already.
+	 *
+	 * @param discovery Supplier of specifications to publish, which is called only when they are not published yet
+	 * @return true when this JVM published them
+	 */
+	public boolean publish(Supplier<List<String>> discovery) {
+		return withLock(() -> {
+			Path queueFile = directory.resolve(QUEUE_FILE);
+			if (Files.exists(queueFile)) {
+				if (runId == null) {
+					if (readCursor() >= Files.readAllLines(queueFile, StandardCharsets.UTF_8).size()) {
+						throw new TestException(String.format("Specification queue in %s has already been consumed. "
+								+ "Remove the directory before the run, or specify \"%s\" system property.", directory, RUN_ID_PROPERTY));
+					}
+					return false;
+				}
+				Path runFile = directory.resolve(RUN_FILE);
+				String publishedRunId = Files.exists(runFile) ? new String(Files.readAllBytes(runFile), StandardCharsets.UTF_8).trim() : "";
+				if (runId.equals(publishedRunId)) {
+					return false;
+				}
+				log.info("(Integration) Discarded specification queue of run '{}' in {}", publishedRunId, directory);
+				Files.deleteIfExists(directory.resolve(RESULTS_FILE));
+			}
+			List<String> published = discovery.get();
+			// Cursor is written first, so that the queue is never seen without cursor.
+			Files.write(directory.resolve(CURSOR_FILE), "0".getBytes(StandardCharsets.UTF_8));
+			Files.write(directory.resolve(RUN_FILE), (runId == null ? "" : runId).getBytes(StandardCharsets.UTF_8));
+			Files.write(queueFile, published, StandardCharsets.UTF_8);
+			log.info("(Integration) Published {} specification files into {}", published.size(), directory);
+			return true;
+		});
+	}
+
+	/**
+	 * Take the next specification.
+	 *
+	 * @return Specification, or null when the queue is empty
+	 */
+	public String poll() {
+		return withLock(() -> {
+			if (specifications == null) {
+				Path queueFile = directory.resolve(QUEUE_FILE);
+				if (!Files.exists(queueFile)) {
+					throw new TestException("Specification files are not published into " + directory);
+				}
+				specifications = Files.readAllLines(queueFile, StandardCharsets.UTF_8);
+			}
+			int cursor = readCursor();
+			if (cursor >= specifications.size()) {
+				return null;
+			}
+			Files.write(directory.resolve(CURSOR_FILE), String.valueOf(cursor + 1).getBytes(StandardCharsets.UTF_8));
+			return specifications.get(cursor);
+		});
+	}
+
+	/**
+	 * Report result of the specification taken from the queue.
+	 */
+	public void complete(String specification, boolean failed, Duration elapsedTime) {
+		String result = String.join("\t", specification, failed ? "FAILED" : "SUCCESSFUL", String.valueOf(elapsedTime.toMillis()), worker);
+		withLock(() -> Files.write(directory.resolve(RESULTS_FILE), List.of(result), StandardCharsets.UTF_8,
+				StandardOpenOption.CREATE, StandardOpenOption.APPEND));
+	}
+
+	/**
+	 * Read results reported by all JVMs, each of which is specification, status, elapsed time in milliseconds and worker separated by tab.
+	 */
+	public List<String> readResults() {
+		return withLock(() -> {
+			Path resultsFile = directory.resolve(RESULTS_FILE);
+			return Files.exists(resultsFile) ? Files.readAllLines(resultsFile, StandardCharsets.UTF_8) : List.of();
+		});
+	}
+
+	/**
+	 * Get number of published specifications, or 0 when they are not published yet.
+	 */
+	public int size() {
+		synchronized (JVM_LOCK) {
+			return specifications != null ? specifications.size() : 0;
+		}
+	}
+
+	private int readCursor() throws IOException {
+		return Integer.parseInt(new String(Files.readAllBytes(directory.resolve(CURSOR_FILE)), StandardCharsets.UTF_8).trim());
+	}
+
+	private <T> T withLock(IOAction<T> action) {
+		synchronized (JVM_LOCK) {
+			try {
+				Files.createDirectories(directory);
+				try (FileChannel channel = FileChannel.open(directory.resolve(LOCK_FILE), StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+					FileLock lock = channel.lock();
+					try {
+						return action.execute();
+					} finally {
+						lock.release();
+					}
+				}
+			} catch (IOException ex) {
+				throw new TestException("Exception while accessing specification queue " + directory, ex);
+			}
+		}
+	}
+
+	@FunctionalInterface
+	private interface IOAction<T> {
+
+		T execute() throws IOException;
+	}
+}
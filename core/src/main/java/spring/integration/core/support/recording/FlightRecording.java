@@ -0,0 +1,135 @@
+package spring.integration.core.support.recording;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import lombok.extern.slf4j.Slf4j;
+import spring.integration.core.support.TestException;
+
+/**
+ * JFR recording of a test suite, which contains events of the framework and the application in the same JVM.
+ * It's dumped when a specification fails or is slow, and when the suite finishes.
+ * The recording keeps only the latest events within the maximum age and size, so that each dump is bounded however long the suite runs.
+ */
+@Slf4j
+public class FlightRecording implements AutoCloseable {
+
+	static final String PROPERTY_PREFIX = "integration.jfr.";
+
+	static final Duration DEFAULT_MAX_AGE = Duration.ofMinutes(5);
+
+	static final long DEFAULT_MAX_SIZE = 100L * 1024 * 1024;
+
+	private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+
+	private final Recording recording;
+
+	private final Path directory;
+
+	/**
+	 * Specifications taking longer than this are dumped, or null not to dump slow ones.
+	 */
+	private final Duration slowThreshold;
+
+	/**
+	 * Start recording which keeps events within the default maximum age and size.
+	 *
+	 * @param settings      Name of JFR settings, e.g. "default", "profile"
+	 * @param directory     Directory to dump recordings
+	 * @param slowThreshold Specifications taking longer than this are dumped, or null not to dump slow ones
+	 */
+	public FlightRecording(String settings, Path directory, Duration slowThreshold) {
+		this(settings, directory, slowThreshold, DEFAULT_MAX_AGE, DEFAULT_MAX_SIZE);
+	}
+
+	/**
+	 * Start recording.
+	 *
+	 * @param settings      Name of JFR settings, e.g. "default", "profile"
+	 * @param directory     Directory to dump recordings
+	 * @param slowThreshold Specifications taking longer than this are dumped, or null not to dump slow ones
+	 * @param maxAge        Maximum age of events which are kept
+	 * @param maxSize       Maximum size of events which are kept in bytes
+	 */
+	public FlightRecording(String settings, Path directory, Duration slowThreshold, Duration maxAge, long maxSize) {
+		try {
+			this.recording = new Recording(Configuration.getConfiguration(settings));
+		} catch (IOException | ParseException ex) {
+			throw new TestException("Exception while loading JFR settings " + settings, ex);
+		}
+		this.directory = directory;
+		this.slowThreshold = slowThreshold;
+		recording.setName("integration");
+		recording.setToDisk(true);
+		recording.setMaxAge(maxAge);
+		recording.setMaxSize(maxSize);
+		recording.enable(PhaseEvent.class).withoutThreshold();
+		recording.enable(SpecificationEvent.class).withoutThreshold();
+		recording.start();
+		log.info("(Integration) Started flight recording, which is dumped into {}", directory);
+	}
+
+	/**
+	 * Start recording with "integration.jfr.*" system properties, or return null when "integration.jfr.enabled" isn't true.
+	 */
+	public static FlightRecording startFromSystemProperties() {
+		if (!Boolean.getBoolean(PROPERTY_PREFIX + "enabled")) {
+			return null;
+		}
+		long slowThreshold = Long.getLong(PROPERTY_PREFIX + "slowThreshold", 0);
+		return new FlightRecording(
+				System.getProperty(PROPERTY_PREFIX + "settings", "default"),
+				Paths.get(System.getProperty(PROPERTY_PREFIX + "directory", "target" + File.separator + "jfr")),
+				slowThreshold > 0 ? Duration.ofMillis(slowThreshold) : null,
+				Duration.ofSeconds(Long.getLong(PROPERTY_PREFIX + "maxAge", DEFAULT_MAX_AGE.getSeconds())),
+				Long.getLong(PROPERTY_PREFIX + "maxSize", DEFAULT_MAX_SIZE / 1024 / 1024) * 1024 * 1024);
+	}
+
+	/**
+	 * Dump recording if the specification failed or was slow.
+	 *
+	 * @param specification Specification file
+	 * @param elapsedTime   Elapsed time of the specification
+	 * @param failed        Whether the specification failed
+	 */
+	public void dumpIfNeeded(File specification, Duration elapsedTime, boolean failed) {
+		if (failed) {
+			dump(specification.getName() + "-failed");
+		} else if (slowThreshold != null && elapsedTime.compareTo(slowThreshold) > 0) {
+			dump(specification.getName() + "-slow");
+		}
+	}
+
+	/**
+	 * Dump events kept in the recording into a file, the name of which starts with prefix.
+	 */
+	public synchronized Path dump(String prefix) {
+		try {
+			Files.createDirectories(directory);
+			Path path = directory.resolve(prefix + "-" + LocalDateTime.now().format(TIMESTAMP_FORMAT) + ".jfr");
+			recording.dump(path);
+			log.info("(Integration) Dumped flight recording : {}", path);
+			return path;
+		} catch (IOException ex) {
+			log.warn("(Integration) Failed to dump flight recording.", ex);
+			return null;
+		}
+	}
+
+	/**
+	 * Dump the latest events of the suite and stop the recording.
+	 */
+	@Override
+	public void close() {
+		dump("suite");
+		recording.close();
+	}
+}
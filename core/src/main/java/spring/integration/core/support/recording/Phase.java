@@ -0,0 +1,36 @@
+package spring.integration.core.support.recording;
+
+/**
+ * Phase of specification execution which is recorded as PhaseEvent.
+ */
+public enum Phase {
+
+	/**
+	 * Validation of specification with json schema.
+	 */
+	SCHEMA_VALIDATION,
+	/**
+	 * Value injection, named by injector. e.g. "file", "dynamic", "reference"
+	 */
+	INJECTION,
+	/**
+	 * Setup of a mockable, named by mockable.
+	 */
+	MOCK_SETUP,
+	/**
+	 * Sending a request and receiving its response, named by method and URL.
+	 */
+	REQUEST,
+	/**
+	 * Conversion of response, named by its purpose. e.g. "history" for following requests, "assertion"
+	 */
+	RESPONSE_CONVERSION,
+	/**
+	 * Assertion of a request, named by kind of assertion. e.g. "response", "latency"
+	 */
+	ASSERTION,
+	/**
+	 * Cleanup of a mockable, named by mockable.
+	 */
+	CLEANUP
+}
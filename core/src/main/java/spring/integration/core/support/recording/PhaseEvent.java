@@ -0,0 +1,32 @@
+package spring.integration.core.support.recording;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event of a phase in specification execution.
+ */
+@Name("spring.integration.Phase")
+@Label("Integration Phase")
+@Category("Spring Integration")
+@Description("Phase of test specification execution")
+@StackTrace(false)
+class PhaseEvent extends Event {
+
+	@Label("Specification")
+	String specification;
+
+	@Label("Step")
+	@Description("Position of request in scenario starting from 1, or 0 before the first request")
+	int step;
+
+	@Label("Phase")
+	String phase;
+
+	@Label("Name")
+	String name;
+}
@@ -0,0 +1,28 @@
+package spring.integration.core.support.recording;
+
+/**
+ * Listener of elapsed time of specification execution, which is registered by PhaseRecorder.addListener.
+ * It's called on the thread which executes the specification.
+ */
+public interface PhaseListener {
+
+	/**
+	 * Called when a phase finishes regardless of its result.
+	 *
+	 * @param specification Path of specification file, or null when the phase is executed outside of specification
+	 * @param step          Position of request in scenario starting from 1, or 0 before the first request
+	 * @param phase         Phase
+	 * @param name          Name of the phase
+	 * @param elapsedTime   Elapsed time in nanoseconds
+	 */
+	void phaseExecuted(String specification, int step, Phase phase, String name, long elapsedTime);
+
+	/**
+	 * Called when a specification finishes.
+	 *
+	 * @param specification Path of specification file
+	 * @param elapsedTime   Elapsed time in nanoseconds
+	 * @param failed        Whether the execution failed
+	 */
+	void specificationExecuted(String specification, long elapsedTime, boolean failed);
+}
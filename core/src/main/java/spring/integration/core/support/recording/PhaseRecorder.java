@@ -0,0 +1,150 @@
+package spring.integration.core.support.recording;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Supplier;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+/**
+ * Emit JFR events of specification execution, and notify listeners of elapsed time. Phases are measured only while they are recorded
+ * or listened. The specification and the step are kept per thread, because each specification is executed on a single thread.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class PhaseRecorder {
+
+	private static final ThreadLocal<Context> CONTEXT = ThreadLocal.withInitial(Context::new);
+
+	private static final List<PhaseListener> LISTENERS = new CopyOnWriteArrayList<>();
+
+	public static void addListener(PhaseListener listener) {
+		LISTENERS.add(listener);
+	}
+
+	public static void removeListener(PhaseListener listener) {
+		LISTENERS.remove(listener);
+	}
+
+	/**
+	 * Start execution of specification on the current thread.
+	 *
+	 * @param specification Path of specification file
+	 */
+	public static void startSpecification(String specification) {
+		startSpecification(specification, false);
+	}
+
+	/**
+	 * Start execution of specification on the current thread.
+	 *
+	 * @param specification Path of specification file
+	 * @param loadTest      Whether the execution is an iteration of load test, whose timings differ from functional executions
+	 */
+	public static void startSpecification(String specification, boolean loadTest) {
+		Context context = CONTEXT.get();
+		context.specification = specification;
+		context.loadTest = loadTest;
+		context.step = 0;
+		context.startTime = System.nanoTime();
+		context.event = new SpecificationEvent();
+		context.event.begin();
+	}
+
+	/**
+	 * Set position of the request which is executed next, starting from 1.
+	 */
+	public static void setStep(int step) {
+		CONTEXT.get().step = step;
+	}
+
+	/**
+	 * Get path of specification which is executed on the current thread, or null outside of execution.
+	 */
+	public static String getSpecification() {
+		return CONTEXT.get().specification;
+	}
+
+	/**
+	 * Whether the specification which is executed on the current thread is an iteration of load test.
+	 */
+	public static boolean isLoadTest() {
+		return CONTEXT.get().loadTest;
+	}
+
+	/**
+	 * Get position of the request which is executed on the current thread, starting from 1.
+	 */
+	public static int getStep() {
+		return CONTEXT.get().step;
+	}
+
+	/**
+	 * Finish execution of specification on the current thread, and emit its event.
+	 *
+	 * @param failed Whether the execution failed
+	 */
+	public static void endSpecification(boolean failed) {
+		Context context = CONTEXT.get();
+		if (context.event != null) {
+			long elapsedTime = System.nanoTime() - context.startTime;
+			LISTENERS.forEach(listener -> listener.specificationExecuted(context.specification, elapsedTime, failed));
+			context.event.end();
+			if (context.event.shouldCommit()) {
+				context.event.specification = context.specification;
+				context.event.failed = failed;
+				context.event.commit();
+			}
+		}
+		CONTEXT.remove();
+	}
+
+	/**
+	 * Execute action as the phase.
+	 */
+	public static void record(Phase phase, String name, Runnable action) {
+		record(phase, name, () -> {
+			action.run();
+			return null;
+		});
+	}
+
+	/**
+	 * Execute action as the phase, and return its result.
+	 */
+	public static <T> T record(Phase phase, String name, Supplier<T> action) {
+		PhaseEvent event = new PhaseEvent();
+		if (!event.isEnabled() && LISTENERS.isEmpty()) {
+			return action.get();
+		}
+		event.begin();
+		long startTime = System.nanoTime();
+		try {
+			return action.get();
+		} finally {
+			long elapsedTime = System.nanoTime() - startTime;
+			event.end();
+			Context context = CONTEXT.get();
+			LISTENERS.forEach(listener -> listener.phaseExecuted(context.specification, context.step, phase, name, elapsedTime));
+			if (event.shouldCommit()) {
+				event.specification = context.specification;
+				event.step = context.step;
+				event.phase = phase.name();
+				event.name = name;
+				event.commit();
+			}
+		}
+	}
+
+	private static class Context {
+
+		private String specification;
+
+		private boolean loadTest;
+
+		private int step;
+
+		private long startTime;
+
+		private SpecificationEvent event;
+	}
+}
@@ -0,0 +1,25 @@
+package spring.integration.core.support.recording;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event of a whole specification execution.
+ */
+@Name("spring.integration.Specification")
+@Label("Integration Specification")
+@Category("Spring Integration")
+@Description("Execution of test specification")
+@StackTrace(false)
+class SpecificationEvent extends Event {
+
+	@Label("Specification")
+	String specification;
+
+	@Label("Failed")
+	boolean failed;
+}
@@ -0,0 +1,24 @@
+package spring.integration.core.support.resource;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Resources which the thread handling a request consumed.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class ResourceUsage {
+
+	/**
+	 * Bytes allocated in heap, or -1 when it's not supported by JVM.
+	 */
+	private final long allocatedBytes;
+
+	/**
+	 * CPU time in nanoseconds, or -1 when it's not supported by JVM.
+	 */
+	private final long cpuTime;
+}
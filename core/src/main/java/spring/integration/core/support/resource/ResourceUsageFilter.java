@@ -0,0 +1,73 @@
+package spring.integration.core.support.resource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.Ordered;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Measure heap allocation and CPU time of the servlet thread handling requests sent by specifications.
+ * Work done by other threads, e.g. asynchronous handlers, isn't included.
+ */
+@RequiredArgsConstructor
+public class ResourceUsageFilter extends OncePerRequestFilter implements Ordered {
+
+	private static final com.sun.management.ThreadMXBean THREAD_MX_BEAN = getThreadMXBean();
+
+	private final ResourceUsageRegistry resourceUsageRegistry;
+
+	@Override
+	public int getOrder() {
+		// Outermost filter to include work of the other filters.
+		return Ordered.HIGHEST_PRECEDENCE;
+	}
+
+	@Override
+	protected boolean shouldNotFilter(HttpServletRequest request) {
+		return request.getHeader(ResourceUsageRegistry.REQUEST_ID_HEADER) == null;
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+			throws ServletException, IOException {
+		long allocatedBytes = getAllocatedBytes();
+		long cpuTime = getCpuTime();
+		try {
+			filterChain.doFilter(request, response);
+		} finally {
+			resourceUsageRegistry.register(request.getHeader(ResourceUsageRegistry.REQUEST_ID_HEADER),
+					new ResourceUsage(difference(allocatedBytes, getAllocatedBytes()), difference(cpuTime, getCpuTime())));
+		}
+	}
+
+	private static long getAllocatedBytes() {
+		return THREAD_MX_BEAN != null && THREAD_MX_BEAN.isThreadAllocatedMemoryEnabled() ? THREAD_MX_BEAN.getCurrentThreadAllocatedBytes() : -1;
+	}
+
+	private static long getCpuTime() {
+		return THREAD_MX_BEAN != null && THREAD_MX_BEAN.isThreadCpuTimeEnabled() ? THREAD_MX_BEAN.getCurrentThreadCpuTime() : -1;
+	}
+
+	private static long difference(long before, long after) {
+		return before < 0 || after < 0 ? -1 : after - before;
+	}
+
+	private static com.sun.management.ThreadMXBean getThreadMXBean() {
+		if (!(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean)) {
+			return null;
+		}
+		com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		if (threadMXBean.isThreadAllocatedMemorySupported()) {
+			threadMXBean.setThreadAllocatedMemoryEnabled(true);
+		}
+		if (threadMXBean.isCurrentThreadCpuTimeSupported()) {
+			threadMXBean.setThreadCpuTimeEnabled(true);
+		}
+		return threadMXBean;
+	}
+}
@@ -0,0 +1,90 @@
+package spring.integration.core.support.resource;
+
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import spring.integration.core.support.TestException;
+
+/**
+ * Hands resource usage measured by ResourceUsageFilter over to the sender of the request, correlated by request id.
+ * Usages which are never taken, e.g. when the sender failed or gave up before they were registered, expire after the time to live.
+ */
+public class ResourceUsageRegistry {
+
+	/**
+	 * Header which contains request id. Resource usage is measured only for requests which have it.
+	 */
+	public static final String REQUEST_ID_HEADER = "X-Integration-Request-Id";
+
+	static final long DEFAULT_TIME_TO_LIVE = 60_000;
+
+	private final Cache<String, CompletableFuture<ResourceUsage>> usages;
+
+	private final long timeout;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param timeout Time in milliseconds to wait for measurement after response is received
+	 */
+	public ResourceUsageRegistry(long timeout) {
+		this(timeout, DEFAULT_TIME_TO_LIVE);
+	}
+
+	/**
+	 * Constructor.
+	 *
+	 * @param timeout    Time in milliseconds to wait for measurement after response is received
+	 * @param timeToLive Time in milliseconds to keep measurement which isn't taken, which must be longer than timeout
+	 */
+	public ResourceUsageRegistry(long timeout, long timeToLive) {
+		this(timeout, timeToLive, Ticker.systemTicker());
+	}
+
+	ResourceUsageRegistry(long timeout, long timeToLive, Ticker ticker) {
+		if (timeToLive < timeout) {
+			throw new TestException("Time to live of resource usage " + timeToLive + " ms must be longer than timeout " + timeout + " ms.");
+		}
+		this.timeout = timeout;
+		this.usages = CacheBuilder.newBuilder()
+				.expireAfterWrite(timeToLive, TimeUnit.MILLISECONDS)
+				.ticker(ticker)
+				.build();
+	}
+
+	void register(String requestId, ResourceUsage resourceUsage) {
+		usages.asMap().computeIfAbsent(requestId, key -> new CompletableFuture<>()).complete(resourceUsage);
+	}
+
+	/**
+	 * Get number of usages which are not taken yet, after removing expired ones.
+	 */
+	long size() {
+		usages.cleanUp();
+		return usages.size();
+	}
+
+	/**
+	 * Take resource usage of the request.
+	 * The response might be received before the filter finishes measurement, so that it waits for a while.
+	 */
+	public ResourceUsage take(String requestId) {
+		try {
+			return usages.asMap().computeIfAbsent(requestId, key -> new CompletableFuture<>()).get(timeout, TimeUnit.MILLISECONDS);
+		} catch (TimeoutException ex) {
+			throw new TestException("Resource usage of request " + requestId + " is not measured. "
+					+ "Please make sure that the request is handled by the application in the same JVM with filters.", ex);
+		} catch (ExecutionException ex) {
+			throw new TestException(ex.getMessage(), ex);
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new TestException(ex.getMessage(), ex);
+		} finally {
+			usages.invalidate(requestId);
+		}
+	}
+}
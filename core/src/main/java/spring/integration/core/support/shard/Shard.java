@@ -0,0 +1,71 @@
+package spring.integration.core.support.shard;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import spring.integration.core.support.TestException;
+
+/**
+ * Part of specification files which is executed by a JVM, e.g. "3/8" for the third of eight shards.
+ */
+@Getter
+@AllArgsConstructor
+public class Shard {
+
+	static final String PROPERTY = "integration.shard";
+
+	static final String BASELINE_PROPERTY = "integration.shard.baseline";
+
+	private static final Pattern SHARD_PATTERN = Pattern.compile("^\\s*(\\d+)\\s*/\\s*(\\d+)\\s*$");
+
+	/**
+	 * Position of the shard starting from 1.
+	 */
+	private final int index;
+
+	/**
+	 * Total number of shards.
+	 */
+	private final int count;
+
+	/**
+	 * Parse shard in "index/count" format.
+	 */
+	public static Shard parse(String value) {
+		Matcher matcher = SHARD_PATTERN.matcher(value);
+		if (!matcher.matches()) {
+			throw new TestException(String.format("%s : is not valid shard. It must be \"index/count\", e.g. \"3/8\".", value));
+		}
+		int index = Integer.parseInt(matcher.group(1));
+		int count = Integer.parseInt(matcher.group(2));
+		if (index < 1 || index > count) {
+			throw new TestException(String.format("%s : is not valid shard. Index must be between 1 and count.", value));
+		}
+		return new Shard(index, count);
+	}
+
+	/**
+	 * Get shard from "integration.shard" system property, or null when it isn't specified.
+	 */
+	public static Shard fromSystemProperties() {
+		String value = System.getProperty(PROPERTY);
+		return value == null || value.trim().isEmpty() ? null : parse(value);
+	}
+
+	/**
+	 * Get timing history file which shards estimate durations from, which is "integration.shard.baseline" system property, or null when it isn't specified.
+	 * It must not be appended during the run, so that every shard reads the same durations regardless of when it starts.
+	 */
+	public static Path getBaselineFile() {
+		String value = System.getProperty(BASELINE_PROPERTY);
+		return value == null || value.trim().isEmpty() ? null : Paths.get(value.trim());
+	}
+
+	@Override
+	public String toString() {
+		return index + "/" + count;
+	}
+}
@@ -0,0 +1,67 @@
+package spring.integration.core.support.shard;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Assign specification files to shards so that their estimated durations are balanced.
+ * Files are assigned in longest-processing-time-first order to the shard which has the least total duration so far.
+ * The assignment depends only on the files and the durations, so that every JVM computes the same one.
+ */
+@Slf4j
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class ShardPlanner {
+
+	/**
+	 * Duration of a file which has no history when no files have it either, so that files are distributed evenly by count.
+	 */
+	private static final long DEFAULT_DURATION = 1;
+
+	/**
+	 * Get files of the shard in longest-processing-time-first order.
+	 *
+	 * @param files     All specification files
+	 * @param shard     Shard to get
+	 * @param durations Estimated durations of files in nanoseconds keyed by the keyMapper, e.g. baselines of timing history
+	 * @param keyMapper Function to get the key of file in durations
+	 */
+	public static List<File> plan(List<File> files, Shard shard, Map<String, Long> durations, Function<File, String> keyMapper) {
+		// Files without history are estimated by median of known durations.
+		List<Long> knownDurations = files.stream()
+				.map(file -> durations.get(keyMapper.apply(file)))
+				.filter(Objects::nonNull)
+				.sorted()
+				.collect(Collectors.toList());
+		long defaultDuration = knownDurations.isEmpty() ? DEFAULT_DURATION : knownDurations.get(knownDurations.size() / 2);
+		List<File> sortedFiles = files.stream()
+				.sorted(Comparator.<File>comparingLong(file -> durations.getOrDefault(keyMapper.apply(file), defaultDuration)).reversed()
+						.thenComparing(File::getPath))
+				.collect(Collectors.toList());
+		long[] totals = new long[shard.getCount()];
+		List<List<File>> shards = IntStream.range(0, shard.getCount()).mapToObj(i -> new ArrayList<File>()).collect(Collectors.toList());
+		for (File file : sortedFiles) {
+			int target = 0;
+			for (int i = 1; i < totals.length; i++) {
+				if (totals[i] < totals[target]) {
+					target = i;
+				}
+			}
+			shards.get(target).add(file);
+			totals[target] += durations.getOrDefault(keyMapper.apply(file), defaultDuration);
+		}
+		log.info("(Integration) Executing shard {} : {} of {} specification files, estimated {} of {} ms in total.", shard,
+				shards.get(shard.getIndex() - 1).size(), files.size(),
+				totals[shard.getIndex() - 1] / 1_000_000, IntStream.range(0, totals.length).mapToLong(i -> totals[i]).sum() / 1_000_000);
+		return shards.get(shard.getIndex() - 1);
+	}
+}
@@ -4,6 +4,7 @@ import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -59,4 +60,46 @@ public class ObjectConverter {
 		}
 		return mapper.readValue(file, new TypeReference<LinkedHashMap<String, T>>() {});
 	}
+
+	/**
+	 * Returns obj itself when it's already a Map, otherwise tries to convert it to a Map like toMap.
+	 * Use this only for read-only access, because the returned Map might be shared.
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> Map<String, T> asMap(ObjectMapper mapper, Object obj) {
+		if (obj instanceof Map) {
+			return (Map<String, T>) obj;
+		}
+		return toMap(mapper, obj);
+	}
+
+	/**
+	 * Returns obj itself when it's already a List, otherwise tries to convert it to a List like toList.
+	 * Use this only for read-only access, because the returned List might be shared.
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> List<T> asList(ObjectMapper mapper, Object obj) {
+		if (obj instanceof List) {
+			return (List<T>) obj;
+		}
+		return toList(mapper, obj);
+	}
+
+	/**
+	 * Copy nested Maps and Lists recursively without serialization. Other values are shared with the original.
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> T deepCopy(T obj) {
+		if (obj instanceof Map) {
+			Map<Object, Object> copy = new LinkedHashMap<>();
+			((Map<Object, Object>) obj).forEach((key, value) -> copy.put(key, deepCopy(value)));
+			return (T) copy;
+		}
+		if (obj instanceof List) {
+			List<Object> copy = new ArrayList<>(((List<Object>) obj).size());
+			((List<Object>) obj).forEach(value -> copy.add(deepCopy(value)));
+			return (T) copy;
+		}
+		return obj;
+	}
 }
@@ -5,9 +5,11 @@ import static org.junit.jupiter.api.Assertions.fail;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.net.URL;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Comparator;
 import java.util.Hashtable;
 import java.util.List;
 import java.util.Map;
@@ -16,6 +18,7 @@ import lombok.NoArgsConstructor;
 import org.apache.commons.io.IOUtils;
 import org.springframework.util.StringUtils;
 import spring.integration.core.support.TestException;
+import spring.integration.core.support.incremental.DependencyRecorder;
 
 /**
  * Utility class for resource access.
@@ -36,6 +39,7 @@ public class ResourceUtility {
 	 * @return returns resource contents.
 	 */
 	public static String getResourceAsString(String resourcePath) {
+		DependencyRecorder.record(resourcePath);
 		if (CACHE.containsKey(resourcePath)) {
 			return CACHE.get(resourcePath);
 		}
@@ -56,7 +60,31 @@ public class ResourceUtility {
 	}
 
 	/**
-	 * List files from directory recursively.
+	 * Open resource as stream. The resource is recorded as dependency of the specification which is executed on the current thread.
+	 *
+	 * @param resourcePath Resource Path.
+	 *
+	 * @return returns stream, or null when the resource is not found.
+	 */
+	public static InputStream getResourceAsStream(String resourcePath) {
+		DependencyRecorder.record(resourcePath);
+		return ClassLoader.getSystemResourceAsStream(resourcePath);
+	}
+
+	/**
+	 * Find resource. The resource is recorded as dependency of the specification which is executed on the current thread.
+	 *
+	 * @param resourcePath Resource Path.
+	 *
+	 * @return returns URL, or null when the resource is not found.
+	 */
+	public static URL getResource(String resourcePath) {
+		DependencyRecorder.record(resourcePath);
+		return ClassLoader.getSystemResource(resourcePath);
+	}
+
+	/**
+	 * List files from directory recursively. Files are sorted by name in each directory, so that the order is same in any environment.
 	 *
 	 * @param filePath Base path.
 	 * @param filter   filter for files.
@@ -66,7 +94,7 @@ public class ResourceUtility {
 	public static List<File> getFilesRecursively(String filePath, String filter) {
 		List<File> files = new ArrayList<>();
 		if (!StringUtils.isEmpty(filePath)) {
-			Arrays.asList(new File(filePath).listFiles()).forEach(file -> {
+			Arrays.stream(new File(filePath).listFiles()).sorted(Comparator.comparing(File::getName)).forEach(file -> {
 				if (file.isDirectory()) {
 					files.addAll(getFilesRecursively(file.getPath(), filter));
 				} else if (file.getName().matches(filter)) {
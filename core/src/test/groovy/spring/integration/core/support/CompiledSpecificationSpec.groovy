@@ -0,0 +1,147 @@
+package spring.integration.core.support
+
+import com.fasterxml.jackson.core.JsonParser
+import com.fasterxml.jackson.databind.ObjectMapper
+import spock.lang.Specification
+import spock.lang.TempDir
+import spring.integration.core.support.incremental.DependencyRecorder
+
+class CompiledSpecificationSpec extends Specification {
+
+    def objectMapper = new ObjectMapper().enable(JsonParser.Feature.ALLOW_COMMENTS)
+
+    @TempDir
+    File tempDir
+
+    def STATIC_SPECIFICATION = '''
+        {
+          "metadata": { "name": "test", "description": "test" },
+          "request": { "url": "/foo", "method": "GET" },
+          "response": { "status": 200, "body": { "foo": ["bar"] } }
+        }
+    '''
+
+    def DYNAMIC_SPECIFICATION = '''
+        {
+          "metadata": { "name": "test", "description": "test", "properties": { "id": "```uuid()```" } },
+          "request": { "url": "/foo", "method": "GET", "headers": { "id": { "$ref": "#/id" } } },
+          "response": { "status": 200 }
+        }
+    '''
+
+    def cleanup() {
+        CompiledSpecification.clearCache()
+    }
+
+    def "Compiled specification is reused until the file is modified"() {
+        given:
+        def file = new File(tempDir, "spec.json")
+        file.text = STATIC_SPECIFICATION
+
+        when:
+        def first = CompiledSpecification.compile(objectMapper, file)
+        def second = CompiledSpecification.compile(objectMapper, file)
+
+        then:
+        first.is(second)
+        !first.isDynamic()
+
+        when:
+        file.text = STATIC_SPECIFICATION.replace("/foo", "/foobar")
+        def third = CompiledSpecification.compile(objectMapper, file)
+
+        then:
+        !third.is(first)
+        third.instantiate(objectMapper).request.url == "/foobar"
+    }
+
+    def "Each instance can be modified without affecting the others"() {
+        given:
+        def file = new File(tempDir, "spec.json")
+        file.text = STATIC_SPECIFICATION
+        def compiled = CompiledSpecification.compile(objectMapper, file)
+
+        when:
+        def first = compiled.instantiate(objectMapper)
+        first.response.body.foo.add("baz")
+        def second = compiled.instantiate(objectMapper)
+
+        then:
+        first.response.body.foo == ["bar", "baz"]
+        second.response.body.foo == ["bar"]
+    }
+
+    def "Dynamic values are evaluated for each instance"() {
+        given:
+        def file = new File(tempDir, "spec.json")
+        file.text = DYNAMIC_SPECIFICATION
+        def compiled = CompiledSpecification.compile(objectMapper, file)
+
+        when:
+        def first = compiled.instantiate(objectMapper)
+        def second = compiled.instantiate(objectMapper)
+
+        then:
+        compiled.isDynamic()
+        first.request.headers.id ==~ /[0-9a-f-]{36}/
+        second.request.headers.id ==~ /[0-9a-f-]{36}/
+        first.request.headers.id != second.request.headers.id
+    }
+
+    def "Files read to compile are recorded as dependencies even when it's cached"() {
+        given:
+        def file = new File(tempDir, "spec.json")
+        file.text = STATIC_SPECIFICATION.replace('{ "foo": ["bar"] }', '{ "$ref": "referenced_value_test/values_001.json/#/obj1" }')
+
+        when:
+        def recorded = (1..2).collect {
+            DependencyRecorder.start()
+            CompiledSpecification.compile(objectMapper, file)
+            DependencyRecorder.finish()
+        }
+
+        then:
+        recorded == [["referenced_value_test/values_001.json"] as Set, ["referenced_value_test/values_001.json"] as Set]
+    }
+
+    def "Compiled specification is compiled again when its dependency is modified"() {
+        given:
+        def dependency = new File(new File(ClassLoader.getSystemResource("referenced_value_test/values_001.json").toURI()).parentFile,
+                "compiled_specification_dependency.json")
+        dependency.text = '{ "obj1": { "foo": "bar" } }'
+        def file = new File(tempDir, "spec.json")
+        file.text = STATIC_SPECIFICATION.replace('{ "foo": ["bar"] }', '{ "$ref": "referenced_value_test/compiled_specification_dependency.json/#/obj1" }')
+        def first = CompiledSpecification.compile(objectMapper, file)
+
+        when:
+        def second = CompiledSpecification.compile(objectMapper, file)
+
+        then:
+        second.is(first)
+
+        when:
+        dependency.text = '{ "obj1": { "foo": "baz" } }'
+        dependency.setLastModified(dependency.lastModified() + 2000)
+        def third = CompiledSpecification.compile(objectMapper, file)
+
+        then:
+        !third.is(first)
+        third.dependencies == ["referenced_value_test/compiled_specification_dependency.json"] as Set
+
+        cleanup:
+        dependency.delete()
+    }
+
+    def "Invalid specification is not compiled"() {
+        given:
+        def file = new File(tempDir, "spec.json")
+        file.text = '{ "metadata": { "name": "test" } }'
+
+        when:
+        CompiledSpecification.compile(objectMapper, file)
+
+        then:
+        def ex = thrown(TestException)
+        ex.getMessage() =~ "spec.json contains violation of json schema. .*"
+    }
+}
@@ -0,0 +1,135 @@
+package spring.integration.core.support
+
+import com.fasterxml.jackson.databind.ObjectMapper
+import com.sun.net.httpserver.HttpServer
+import org.springframework.http.HttpMethod
+import org.springframework.http.RequestEntity
+import org.springframework.http.client.SimpleClientHttpRequestFactory
+import spock.lang.Specification
+import spring.integration.core.enums.HttpClientType
+
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+
+class IntegrationRestTemplateSpec extends Specification {
+
+    def server = HttpServer.create(new InetSocketAddress("localhost", 0), 0)
+
+    def remotePorts = ConcurrentHashMap.newKeySet()
+
+    def setup() {
+        server.createContext("/foo", { exchange ->
+            remotePorts << exchange.remoteAddress.port
+            def body = "bar".bytes
+            exchange.sendResponseHeaders(200, body.length)
+            exchange.responseBody.write(body)
+            exchange.close()
+        })
+        server.createContext("/slow", { exchange ->
+            Thread.sleep(200)
+            exchange.sendResponseHeaders(200, -1)
+            exchange.close()
+        })
+        server.createContext("/redirect", { exchange ->
+            exchange.responseHeaders.add("Location", "/foo")
+            exchange.sendResponseHeaders(302, -1)
+            exchange.close()
+        })
+        server.start()
+    }
+
+    def cleanup() {
+        server.stop(0)
+    }
+
+    def "Connections are reused with pooled client"() {
+        given:
+        def target = new IntegrationRestTemplate()
+        target.initRequestFactory()
+        def uri = URI.create("http://localhost:${server.address.port}/foo")
+
+        when:
+        def responses = (1..3).collect { target.exchange(new ObjectMapper(), new RequestEntity(HttpMethod.GET, uri), String) }
+
+        then:
+        responses*.statusCode.every { it.value() == 200 }
+        responses*.body == ["bar", "bar", "bar"]
+        remotePorts.size() == 1
+
+        cleanup:
+        target.destroy()
+    }
+
+    def "Redirect is followed only for GET"() {
+        given:
+        def target = new IntegrationRestTemplate()
+        target.initRequestFactory()
+        def uri = URI.create("http://localhost:${server.address.port}/redirect")
+
+        when:
+        def getResponse = target.exchange(new ObjectMapper(), new RequestEntity(HttpMethod.GET, uri), String)
+        def postResponse = target.exchange(new ObjectMapper(), new RequestEntity("foo", HttpMethod.POST, uri), String)
+
+        then:
+        getResponse.statusCode.value() == 200
+        postResponse.statusCode.value() == 302
+
+        cleanup:
+        target.destroy()
+    }
+
+    def "Time waiting for pooled connections is recorded apart from the exchange"() {
+        given:
+        def target = new IntegrationRestTemplate()
+        target.maxConnections = 1
+        target.initRequestFactory()
+        def uri = URI.create("http://localhost:${server.address.port}/slow")
+        def executor = Executors.newFixedThreadPool(2)
+
+        when:
+        def waitTimes = executor.invokeAll((1..2).collect {
+            return {
+                target.exchange(new ObjectMapper(), new RequestEntity(HttpMethod.GET, uri), String)
+                target.connectionWaitTime
+            }
+        })*.get()
+
+        then:
+        waitTimes.min() < TimeUnit.MILLISECONDS.toNanos(100)
+        waitTimes.max() >= TimeUnit.MILLISECONDS.toNanos(150)
+
+        cleanup:
+        executor.shutdown()
+        target.destroy()
+    }
+
+    def "Maximum connections are raised but never lowered"() {
+        given:
+        def target = new IntegrationRestTemplate()
+        target.initRequestFactory()
+
+        when:
+        target.ensureMaxConnections(50)
+        target.ensureMaxConnections(10)
+
+        then:
+        target.connectionManager.maxTotal == 50
+        target.connectionManager.defaultMaxPerRoute == 50
+
+        cleanup:
+        target.destroy()
+    }
+
+    def "Simple client can be selected"() {
+        given:
+        def target = new IntegrationRestTemplate()
+        target.clientType = HttpClientType.SIMPLE
+
+        when:
+        target.initRequestFactory()
+
+        then:
+        target.requestFactory instanceof SimpleClientHttpRequestFactory
+    }
+}
@@ -0,0 +1,54 @@
+package spring.integration.core.support
+
+import com.fasterxml.jackson.databind.ObjectMapper
+import spock.lang.Specification
+
+import java.util.concurrent.Callable
+import java.util.concurrent.Executors
+
+class JsonSchemaCacheSpec extends Specification {
+
+    def objectMapper = new ObjectMapper()
+
+    def setup() {
+        JsonSchemaCache.clear()
+    }
+
+    def "Schema with the same content is compiled only once"() {
+        given:
+        def first = objectMapper.readTree('{ "type": "object", "required": ["id"] }')
+        def second = objectMapper.readTree('{ "type": "object", "required": ["id"] }')
+        def other = objectMapper.readTree('{ "type": "array" }')
+
+        expect:
+        JsonSchemaCache.getJsonSchema(first).is(JsonSchemaCache.getJsonSchema(second))
+        !JsonSchemaCache.getJsonSchema(first).is(JsonSchemaCache.getJsonSchema(other))
+        JsonSchemaCache.size() == 2
+    }
+
+    def "Cached schema validates concurrently"() {
+        given:
+        def schema = objectMapper.readTree('{ "type": "object", "properties": { "id": { "type": "integer" } } }')
+        def executor = Executors.newFixedThreadPool(4)
+
+        when:
+        def reports = executor.invokeAll((1..40).collect { i ->
+            { -> JsonSchemaCache.getJsonSchema(schema).validate(objectMapper.readTree(i % 2 == 0 ? '{ "id": 1 }' : '{ "id": "a" }')).isSuccess() } as Callable
+        })*.get()
+        executor.shutdown()
+
+        then:
+        reports.count { it } == 20
+        JsonSchemaCache.size() == 1
+    }
+
+    def "Cache is bounded"() {
+        when:
+        (0..JsonSchemaCache.MAXIMUM_SIZE).each {
+            JsonSchemaCache.getJsonSchema(objectMapper.readTree("{ \"maxLength\": ${it} }"))
+        }
+
+        then:
+        JsonSchemaCache.size() <= JsonSchemaCache.MAXIMUM_SIZE
+    }
+}
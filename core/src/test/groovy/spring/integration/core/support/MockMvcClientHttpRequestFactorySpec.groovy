@@ -0,0 +1,57 @@
+package spring.integration.core.support
+
+import com.fasterxml.jackson.databind.ObjectMapper
+import org.springframework.http.HttpMethod
+import org.springframework.http.RequestEntity
+import org.springframework.http.ResponseEntity
+import org.springframework.web.bind.annotation.PostMapping
+import org.springframework.web.bind.annotation.RequestBody
+import org.springframework.web.bind.annotation.RequestHeader
+import org.springframework.web.bind.annotation.RestController
+import spock.lang.Specification
+
+import static org.springframework.test.web.servlet.setup.MockMvcBuilders.standaloneSetup
+
+class MockMvcClientHttpRequestFactorySpec extends Specification {
+
+    def mockMvc = standaloneSetup(new EchoController()).build()
+
+    def "Request is dispatched in-process without context path"() {
+        given:
+        def target = new IntegrationRestTemplate()
+        target.requestFactory = new MockMvcClientHttpRequestFactory(mockMvc, "/api")
+        def request = RequestEntity.post(URI.create("http://localhost:0/api/echo"))
+                .header("X-Foo", "foo")
+                .header("Content-Type", "application/json")
+                .body('{"bar":"bar"}')
+
+        when:
+        def response = target.exchange(new ObjectMapper(), request, Object)
+
+        then:
+        response.statusCode.value() == 201
+        response.headers.getFirst("X-Foo") == "foo"
+        response.body == [bar: "bar"]
+    }
+
+    def "Error status is returned as response"() {
+        given:
+        def target = new IntegrationRestTemplate()
+        target.requestFactory = new MockMvcClientHttpRequestFactory(mockMvc, "")
+
+        when:
+        def response = target.exchange(new ObjectMapper(), new RequestEntity(HttpMethod.GET, URI.create("http://localhost:0/echo")), Object)
+
+        then:
+        response.statusCode.value() == 405
+    }
+
+    @RestController
+    static class EchoController {
+
+        @PostMapping("/echo")
+        ResponseEntity<Map<String, Object>> echo(@RequestHeader("X-Foo") String foo, @RequestBody Map<String, Object> body) {
+            ResponseEntity.status(201).header("X-Foo", foo).body(body)
+        }
+    }
+}
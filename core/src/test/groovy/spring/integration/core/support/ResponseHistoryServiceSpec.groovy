@@ -192,4 +192,22 @@ class ResponseHistoryServiceSpec extends Specification {
         ]
     }
 
+    def "Response history is not shared between threads"() {
+        given:
+        target.addToResponseHistory(new ResponseEntity(HttpStatus.OK))
+
+        when:
+        def sizeOnAnotherThread = 0
+        def thread = Thread.start {
+            target.addToResponseHistory(new ResponseEntity(HttpStatus.CREATED))
+                    .addToResponseHistory(new ResponseEntity(HttpStatus.CREATED))
+            sizeOnAnotherThread = target.responseHistory.size()
+        }
+        thread.join()
+
+        then:
+        sizeOnAnotherThread == 2
+        target.responseHistory.size() == 1
+    }
+
 }
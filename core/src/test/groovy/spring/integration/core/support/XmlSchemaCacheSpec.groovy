@@ -0,0 +1,31 @@
+package spring.integration.core.support
+
+import spock.lang.Specification
+
+class XmlSchemaCacheSpec extends Specification {
+
+    static final String XSD = '''<?xml version="1.0"?>
+<xs:schema xmlns:xs="http://www.w3.org/2001/XMLSchema">
+  <xs:element name="note" type="xs:string"/>
+</xs:schema>'''
+
+    def setup() {
+        XmlSchemaCache.clear()
+    }
+
+    def "Schema with the same content is compiled only once"() {
+        expect:
+        XmlSchemaCache.getSchema(XSD).is(XmlSchemaCache.getSchema(new String(XSD)))
+        !XmlSchemaCache.getSchema(XSD).is(XmlSchemaCache.getSchema(XSD.replace("note", "memo")))
+        XmlSchemaCache.size() == 2
+    }
+
+    def "Broken schema is not cached"() {
+        when:
+        XmlSchemaCache.getSchema("<xs:schema")
+
+        then:
+        thrown(TestException)
+        XmlSchemaCache.size() == 0
+    }
+}
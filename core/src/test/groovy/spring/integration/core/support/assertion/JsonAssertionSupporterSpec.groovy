@@ -9,13 +9,20 @@ import org.springframework.http.ResponseEntity
 import org.springframework.util.LinkedMultiValueMap
 import org.springframework.util.MultiValueMap
 import spock.lang.Specification
+import spock.lang.TempDir
 import spock.lang.Unroll
 import spring.integration.core.support.TestException
+import spring.integration.core.support.recording.PhaseRecorder
+
+import java.nio.file.Path
 
 class JsonAssertionSupporterSpec extends Specification {
 
     private JsonAssertionSupporter assertionSupporter = new JsonAssertionSupporter(new ObjectMapper())
 
+    @TempDir
+    Path tempDir
+
     def "test NormalSuccess"() {
         given:
         def metadata = [assert: [header: null]]
@@ -124,6 +131,23 @@ class JsonAssertionSupporterSpec extends Specification {
         !assertList.get(1).isRegex
     }
 
+    def "test executeAssert FailWithBodySchema"() {
+        given:
+        def metadata = [assert: [body: "SCHEMA"]]
+        def actualResponse = new ResponseEntity([active: true], HttpStatus.CREATED)
+        def expectedResponse = [status: 201, body: [properties: [active: [type: "string"]]]]
+        assertionSupporter.setUpAssertList(metadata, actualResponse, expectedResponse)
+
+        when:
+        assertionSupporter.executeAssert()
+
+        then:
+        def ex = thrown(AssertionFailedError)
+        ex.message.startsWith("Response body doesn't match the schema.")
+        ex.message.contains("instance type (boolean) does not match any allowed primitive type")
+        ex.message.contains("/properties/active")
+    }
+
     @Unroll
     def "test #test"() {
         when:
@@ -402,6 +426,22 @@ class JsonAssertionSupporterSpec extends Specification {
 
     }
 
+    def "test executeAssert with ignoring order and differences"() {
+        given:
+        def metadata = [assert: [order: false, maxDifferences: 1]]
+        def actualResponse = new ResponseEntity([[id: 2], [id: 3], [id: 4]], HttpStatus.OK)
+        def expectedResponse = [status: 200, body: [[id: 1], [id: 2], [id: 5]]]
+
+        when:
+        assertionSupporter.setUpAssertList(metadata, actualResponse, expectedResponse)
+        assertionSupporter.executeAssert()
+
+        then:
+        def ex = thrown(AssertionFailedError)
+        ex.message == "/0/id: expected 1 but was 3${System.lineSeparator()}Comparison stopped after 1 differences."
+
+    }
+
     def "test executeAssert with exception"() {
         given:
         def metadata = [assert: [order: false]]
@@ -432,6 +472,77 @@ class JsonAssertionSupporterSpec extends Specification {
 
     }
 
+    def "test executeAssert with large difference"() {
+        given:
+        def metadata = [:]
+        def actualResponse = new ResponseEntity([items: (1..10000).collect { [id: it, name: "actual"] }], HttpStatus.OK)
+        def expectedResponse = [status: 200, body: [items: (1..10000).collect { [id: it, name: "expected"] }]]
+
+        when:
+        assertionSupporter.setUpAssertList(metadata, actualResponse, expectedResponse)
+        assertionSupporter.executeAssert()
+
+        then:
+        def ex = thrown(AssertionFailedError)
+        def lines = ex.message.readLines()
+        lines.size() == JsonComparator.DEFAULT_MAX_DIFFERENCES + 1
+        lines[0] == '/items/0/name: expected "expected" but was "actual"'
+        lines[JsonComparator.DEFAULT_MAX_DIFFERENCES] == "Comparison stopped after 10 differences."
+
+    }
+
+    def "test executeAssert with writing bodies"() {
+        given:
+        def directory = tempDir.resolve("diff")
+        System.setProperty(JsonAssertionSupporter.DIFF_DIRECTORY_PROPERTY, directory.toString())
+        def metadata = [:]
+        def actualResponse = new ResponseEntity([name: "actual"], HttpStatus.OK)
+        def expectedResponse = [status: 200, body: [name: "expected"]]
+
+        when:
+        assertionSupporter.setUpAssertList(metadata, actualResponse, expectedResponse)
+        assertionSupporter.executeAssert()
+
+        then:
+        def ex = thrown(AssertionFailedError)
+        ex.message.readLines()[1] == "Expected and actual bodies are written into ${directory.resolve("body/0_expected.json")} and ${directory.resolve("body/0_actual.json")}."
+        new ObjectMapper().readValue(directory.resolve("body/0_actual.json").toFile(), Map) == [name: "actual"]
+
+        cleanup:
+        System.clearProperty(JsonAssertionSupporter.DIFF_DIRECTORY_PROPERTY)
+
+    }
+
+    def "test executeAssert with writing bodies of specifications which have the same name"() {
+        given:
+        def directory = tempDir.resolve("diff")
+        System.setProperty(JsonAssertionSupporter.DIFF_DIRECTORY_PROPERTY, directory.toString())
+        def expectedResponse = [status: 200, body: [name: "expected"]]
+
+        when:
+        ["a", "b"].each { parent ->
+            PhaseRecorder.startSpecification("/project/target/test-classes/integration_test/${parent}/create.json")
+            PhaseRecorder.setStep(1)
+            def supporter = new JsonAssertionSupporter(new ObjectMapper())
+            supporter.testDataLocation = "/integration_test/"
+            supporter.setUpAssertList([:], new ResponseEntity([name: parent], HttpStatus.OK), expectedResponse)
+            try {
+                supporter.executeAssert()
+            } catch (AssertionFailedError ignored) {
+            } finally {
+                PhaseRecorder.endSpecification(true)
+            }
+        }
+
+        then:
+        new ObjectMapper().readValue(directory.resolve("a/create/1_actual.json").toFile(), Map) == [name: "a"]
+        new ObjectMapper().readValue(directory.resolve("b/create/1_actual.json").toFile(), Map) == [name: "b"]
+
+        cleanup:
+        System.clearProperty(JsonAssertionSupporter.DIFF_DIRECTORY_PROPERTY)
+
+    }
+
     def "test executeAssert with Object"() {
         given:
         def metadata = [:]
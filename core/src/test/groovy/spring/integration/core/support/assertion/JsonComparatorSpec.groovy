@@ -0,0 +1,124 @@
+package spring.integration.core.support.assertion
+
+import com.fasterxml.jackson.databind.ObjectMapper
+import org.skyscreamer.jsonassert.JSONCompareMode
+import spock.lang.Specification
+import spock.lang.Unroll
+import spring.integration.core.support.TestException
+
+class JsonComparatorSpec extends Specification {
+
+    def objectMapper = new ObjectMapper()
+
+    @Unroll
+    def "#expected matches #actual regardless of order"() {
+        expect:
+        compare(JSONCompareMode.NON_EXTENSIBLE, expected, actual).isEmpty()
+
+        where:
+        expected                                              | actual
+        '{"a": 1, "b": [1, 2, 2, 3]}'                         | '{"b": [2, 3, 1, 2], "a": 1}'
+        '[{"id": 1, "tags": ["x", "y"]}, {"id": 2}]'          | '[{"id": 2}, {"tags": ["y", "x"], "id": 1}]'
+        '{"price": 1.0, "count": 10000000000}'                | '{"price": 1, "count": 10000000000}'
+        '[null, "null", true, "true"]'                        | '["true", true, "null", null]'
+    }
+
+    def "Differences are reported with JSON Pointers"() {
+        given:
+        def expected = '{"name": "foo", "a/b": {"c~d": 1}, "items": [{"id": 1, "name": "x"}, {"id": 2, "name": "y"}], "gone": []}'
+        def actual = '{"name": "bar", "a/b": {"c~d": 2}, "items": [{"id": 2, "name": "y"}, {"id": 1, "name": "z"}], "extra": {}}'
+
+        expect:
+        compare(JSONCompareMode.NON_EXTENSIBLE, expected, actual) == [
+                '/name: expected "foo" but was "bar"',
+                '/a~1b/c~0d: expected 1 but was 2',
+                '/items/0/name: expected "x" but was "z"',
+                '/gone: expected array with 0 elements but was missing',
+                '/extra: unexpected object with 0 fields'
+        ]
+    }
+
+    def "Duplicated elements are matched as multiset"() {
+        expect:
+        compare(JSONCompareMode.NON_EXTENSIBLE, '[1, 1, 2]', '[1, 2, 2]') == ['/1: expected 1 but was 2']
+        compare(JSONCompareMode.NON_EXTENSIBLE, '[1, 2]', '[2, 1, 3]') == ['(root): expected 2 elements but was 3', '/2: unexpected 3']
+    }
+
+    def "Extra fields and elements are allowed in extensible mode"() {
+        expect:
+        compare(JSONCompareMode.LENIENT, '[{"id": 1}, {"id": 2}]', '[{"id": 2, "name": "b"}, {"id": 1, "name": "a"}, {"id": 3}]').isEmpty()
+    }
+
+    def "Order of arrays and types of numbers matter in STRICT mode"() {
+        expect:
+        compare(JSONCompareMode.STRICT, '{"a": [1, 2], "b": {"c": 1}}', '{"a": [2, 1], "b": {"c": 1, "d": 2}}') ==
+                ['/a/0: expected 1 but was 2', '/a/1: expected 2 but was 1', '/b/d: unexpected 2']
+        new JsonComparator(JSONCompareMode.STRICT, 10).compare([id: 1], [id: 1L]) == ['/id: expected 1 (Integer) but was 1 (Long)']
+    }
+
+    def "Values other than json cannot be compared"() {
+        when:
+        new JsonComparator(JSONCompareMode.STRICT, 10).compare([id: new Object()], [id: 1])
+
+        then:
+        def ex = thrown(TestException)
+        ex.message == "/id: java.lang.Object cannot be compared as json."
+    }
+
+    def "Comparison stops after the maximum number of differences"() {
+        given:
+        def expected = (1..100).collect { [id: it] }
+        def actual = (1..100).collect { [id: -it] }
+
+        when:
+        def differences = new JsonComparator(JSONCompareMode.NON_EXTENSIBLE, 3).compare(expected, actual)
+
+        then:
+        differences == ['/0/id: expected 1 but was -1', '/1/id: expected 2 but was -2', '/2/id: expected 3 but was -3',
+                        'Comparison stopped after 3 differences.']
+    }
+
+    @Unroll
+    def "Message is bounded for large missing and unexpected content in #mode mode"() {
+        given:
+        def large = (1..5000).collectEntries { ["field${it}".toString(), [id: it]] }
+
+        expect:
+        new JsonComparator(mode, 10).compare(large, [:]).size() == 11
+        new JsonComparator(mode, 10).compare([:], large).size() == 11
+        new JsonComparator(mode, 10).compare([items: large.values().toList()], [items: []]).size() <= 11
+        new JsonComparator(mode, 10).compare([items: large.values().toList()], [items: large.values().collect { [id: -it.id] }]).size() == 11
+
+        where:
+        mode << [JSONCompareMode.STRICT, JSONCompareMode.NON_EXTENSIBLE]
+    }
+
+    def "Pairwise matching in extensible mode is limited"() {
+        given:
+        def expected = (1..1001).collect { [id: it] }
+        def actual = (1..1001).collect { [id: -it] }
+
+        expect:
+        new JsonComparator(JSONCompareMode.LENIENT, 10).compare(expected, actual) ==
+                ["(root): 1001 elements cannot be matched with 1001 elements, because extensible comparison is limited to 1000000 pairs"]
+    }
+
+    def "Large unordered arrays are matched in linear time"() {
+        given:
+        def expected = (1..20_000).collect { [id: it, name: "name ${it}".toString(), tags: ["a", "b"]] }
+        def actual = expected.reverse().collect { [tags: ["b", "a"], name: it.name, id: it.id] }
+
+        when:
+        def start = System.nanoTime()
+        def differences = new JsonComparator(JSONCompareMode.NON_EXTENSIBLE, 10).compare(expected, actual)
+
+        then:
+        differences.isEmpty()
+        System.nanoTime() - start < 10_000_000_000L
+    }
+
+    private List<String> compare(JSONCompareMode mode, String expected, String actual) {
+        new JsonComparator(mode, JsonComparator.DEFAULT_MAX_DIFFERENCES)
+                .compare(objectMapper.readValue(expected, Object), objectMapper.readValue(actual, Object))
+    }
+}
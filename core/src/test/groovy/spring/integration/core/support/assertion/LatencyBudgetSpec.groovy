@@ -0,0 +1,52 @@
+package spring.integration.core.support.assertion
+
+import org.opentest4j.AssertionFailedError
+import spock.lang.Specification
+import spring.integration.core.support.load.LatencyHistogram
+
+class LatencyBudgetSpec extends Specification {
+
+    def "Options of response take precedence over assert options"() {
+        when:
+        def target = LatencyBudget.of([maxLatencyMs: 100, p95Ms: 50, p99Ms: 80, order: true], [status: 200, maxLatencyMs: 150, "p99.9Ms": 120, p99Ms: 90])
+
+        then:
+        target.maxLatency == 150d
+        target.percentiles == [95d: 50d, 99d: 90d, 99.9d: 120d]
+    }
+
+    def "Budget is empty without options"() {
+        expect:
+        LatencyBudget.of([:], [status: 200]).empty
+    }
+
+    def "Latency within budget passes"() {
+        when:
+        LatencyBudget.of([maxLatencyMs: 150], [:]).assertLatency("GET /foo", 150_000_000L, 100_000_000L)
+
+        then:
+        noExceptionThrown()
+    }
+
+    def "Latency over budget fails with breakdown"() {
+        when:
+        LatencyBudget.of([maxLatencyMs: 150], [:]).assertLatency("GET /foo", 180_500_000L, 170_000_000L)
+
+        then:
+        def ex = thrown(AssertionFailedError)
+        ex.message == "GET /foo took 180.50 ms, which exceeds the budget 150 ms. (waiting for response 170.00 ms, reading response 10.50 ms)"
+    }
+
+    def "Percentiles are verified with histogram"() {
+        given:
+        def histogram = new LatencyHistogram()
+        (1..100).each { histogram.record(it * 1_000_000L) }
+
+        when:
+        def violations = LatencyBudget.of([p50Ms: 60, p95Ms: 90], [:]).verify("1. GET /foo", histogram)
+
+        then:
+        violations.size() == 1
+        violations[0] =~ /^1\. GET \/foo took 9[0-9]\.[0-9]{2} ms at p95, which exceeds the budget 90 ms\. \(100 executions, max 100\.00 ms\)$/
+    }
+}
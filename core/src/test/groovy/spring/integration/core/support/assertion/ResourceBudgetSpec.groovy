@@ -0,0 +1,44 @@
+package spring.integration.core.support.assertion
+
+import org.opentest4j.AssertionFailedError
+import spock.lang.Specification
+import spring.integration.core.support.TestException
+import spring.integration.core.support.resource.ResourceUsage
+
+class ResourceBudgetSpec extends Specification {
+
+    def "Options of response take precedence over assert options"() {
+        when:
+        def target = ResourceBudget.of([maxAllocatedBytes: 1000, maxCpuMs: 5], [status: 200, maxCpuMs: 10])
+
+        then:
+        target.maxAllocatedBytes == 1000L
+        target.maxCpu == 10d
+        ResourceBudget.of([:], [status: 200]).empty
+    }
+
+    def "Usage within budget passes"() {
+        when:
+        ResourceBudget.of([maxAllocatedBytes: 1000, maxCpuMs: 5], [:]).assertUsage("GET /foo", new ResourceUsage(1000, 5_000_000))
+
+        then:
+        noExceptionThrown()
+    }
+
+    def "Usage over budget fails"() {
+        when:
+        ResourceBudget.of([maxAllocatedBytes: 1000, maxCpuMs: 5], [:]).assertUsage("GET /foo", new ResourceUsage(2048, 5_500_000))
+
+        then:
+        def ex = thrown(AssertionFailedError)
+        ex.message == "GET /foo allocated 2,048 bytes, which exceeds the budget 1,000 bytes and used CPU for 5.50 ms, which exceeds the budget 5 ms."
+    }
+
+    def "Unsupported measurement fails"() {
+        when:
+        ResourceBudget.of([maxAllocatedBytes: 1000], [:]).assertUsage("GET /foo", new ResourceUsage(-1, -1))
+
+        then:
+        thrown(TestException)
+    }
+}
@@ -0,0 +1,156 @@
+package spring.integration.core.support.assertion
+
+import spock.lang.Specification
+import spock.lang.Unroll
+import spring.integration.core.enums.XmlCompareMode
+import spring.integration.core.support.TestException
+
+class StreamingXmlComparatorSpec extends Specification {
+
+    static final String NOTE = '''<?xml version="1.0"?>
+<note id="1" lang="en">
+  <!-- comment is ignored -->
+  <to>Tove</to>
+  <from>Jani</from>
+  <body>Don't forget me</body>
+</note>'''
+
+    def "Documents which differ only in comments, whitespace and order of attributes match"() {
+        given:
+        def actual = '<note lang="en" id="1"><to> Tove </to><from>Jani</from><body>Don\'t forget me</body></note>'
+
+        expect:
+        compare(XmlCompareMode.IDENTICAL, NOTE, actual).isEmpty()
+    }
+
+    @Unroll
+    def "Reordered child nodes match only in SIMILAR mode (#mode)"() {
+        given:
+        def actual = '<note lang="en" id="1"><body>Don\'t forget me</body><from>Jani</from><to>Tove</to></note>'
+
+        expect:
+        compare(mode, NOTE, actual).isEmpty() == matched
+
+        where:
+        mode                     || matched
+        XmlCompareMode.IDENTICAL || false
+        XmlCompareMode.SIMILAR   || true
+    }
+
+    def "Differences are reported with their paths"() {
+        given:
+        def actual = '<note id="2"><to>Tove</to><from>Jan</from><cc>Ann</cc><body>Don\'t forget me</body></note>'
+
+        expect:
+        compare(XmlCompareMode.IDENTICAL, NOTE, actual) == [
+                "Expected attribute id='1' but was '2' at /note[1]",
+                "Expected attribute lang at /note[1] but was missing",
+                "Expected text 'Jani' but was 'Jan' at /note[1]/from[1]/text()[1]",
+                "Expected body at /note[1]/body[1] but was cc",
+                "Unexpected body in /note[1]"
+        ]
+    }
+
+    def "Reordered child nodes whose contents differ are reported by their parent in SIMILAR mode"() {
+        given:
+        def actual = '<note lang="en" id="1"><body>Forget me</body><from>Jani</from><to>Tove</to></note>'
+
+        expect:
+        compare(XmlCompareMode.SIMILAR, NOTE, actual) ==
+                ["Expected child nodes of /note[1] to be similar regardless of order, but 2 expected nodes didn't match 2 actual nodes"]
+    }
+
+    @Unroll
+    def "Namespace prefix matters only in IDENTICAL mode (#mode)"() {
+        given:
+        def expected = '<a:note xmlns:a="urn:note"><a:to>Tove</a:to></a:note>'
+        def actual = '<b:note xmlns:b="urn:note"><b:to>Tove</b:to></b:note>'
+
+        expect:
+        compare(mode, expected, actual).size() == size
+
+        where:
+        mode                     || size
+        XmlCompareMode.IDENTICAL || 2
+        XmlCompareMode.SIMILAR   || 0
+    }
+
+    def "Comparison stops after the maximum number of differences"() {
+        given:
+        def expected = "<list>${(1..100).collect { "<item>${it}</item>" }.join()}</list>"
+        def actual = "<list>${(1..100).collect { "<item>x${it}</item>" }.join()}</list>"
+
+        when:
+        def differences = new StreamingXmlComparator(XmlCompareMode.IDENTICAL, 3).compare(new StringReader(expected), new StringReader(actual))
+
+        then:
+        differences.size() == 4
+        differences[2] == "Expected text '3' but was 'x3' at /list[1]/item[3]/text()[1]"
+        differences[3] == "Comparison stopped after 3 differences."
+    }
+
+    def "Large documents are compared without keeping them in memory"() {
+        given:
+        def count = 200_000
+
+        expect:
+        new StreamingXmlComparator(XmlCompareMode.SIMILAR, 10).compare(items(count, 0), items(count, 0)).isEmpty()
+        new StreamingXmlComparator(XmlCompareMode.IDENTICAL, 10).compare(items(count, 0), items(count, 150_000)) ==
+                ["Expected text 'name 150000' but was 'changed' at /feed[1]/item[150000]/name[1]/text()[1]"]
+    }
+
+    def "External entities are not resolved"() {
+        given:
+        def secret = File.createTempFile("secret", ".txt")
+        secret.text = "secret"
+        def expected = """<?xml version="1.0"?>
+<!DOCTYPE note [<!ENTITY secret SYSTEM "${secret.toURI()}">]>
+<note>&secret;</note>"""
+
+        when:
+        compare(XmlCompareMode.IDENTICAL, expected, "<note>secret</note>")
+
+        then:
+        thrown(TestException)
+
+        cleanup:
+        secret.delete()
+    }
+
+    def "Broken xml causes TestException"() {
+        when:
+        compare(XmlCompareMode.SIMILAR, NOTE, "<note>")
+
+        then:
+        thrown(TestException)
+    }
+
+    private static List<String> compare(XmlCompareMode mode, String expected, String actual) {
+        new StreamingXmlComparator(mode, StreamingXmlComparator.DEFAULT_MAX_DIFFERENCES).compare(new StringReader(expected), new StringReader(actual))
+    }
+
+    /**
+     * Reader which generates items on demand, so that the document is never materialized.
+     */
+    private static Reader items(int count, int changed) {
+        def index = 0
+        def buffer = new StringReader("<feed>")
+        new Reader() {
+            @Override
+            int read(char[] chars, int offset, int length) {
+                def read = buffer.read(chars, offset, length)
+                while (read < 0 && index <= count) {
+                    def item = ++index
+                    def name = item == changed ? "changed" : "name ${item}"
+                    buffer = new StringReader(item <= count ? "<item id=\"${item}\"><name>${name}</name></item>" : "</feed>")
+                    read = buffer.read(chars, offset, length)
+                }
+                return read
+            }
+
+            @Override
+            void close() {
+            }
+        }
+    }
+}
@@ -1,13 +1,15 @@
 package spring.integration.core.support.assertion
 
 import com.fasterxml.jackson.databind.ObjectMapper
-import org.custommonkey.xmlunit.DetailedDiff
-import org.custommonkey.xmlunit.XMLUnit
 import org.opentest4j.AssertionFailedError
 import org.springframework.http.HttpStatus
 import org.springframework.http.ResponseEntity
 import org.springframework.util.LinkedMultiValueMap
 import org.springframework.util.MultiValueMap
+import org.xmlunit.builder.DiffBuilder
+import org.xmlunit.builder.Input
+import org.xmlunit.diff.DefaultNodeMatcher
+import org.xmlunit.diff.ElementSelectors
 import spock.lang.Specification
 import spock.lang.Unroll
 import spring.integration.core.enums.XmlCompareMode
@@ -163,13 +165,59 @@ class XmlAssertionSupporterSpec extends Specification {
         when:
         assertionSupporter.setUpAssertList(metadata, actualResponse, expectedResponse)
         def assertList = assertionSupporter.assertList
-        DetailedDiff myDiff = new DetailedDiff(XMLUnit.compareXML(assertList.get(1).actual, assertList.get(1).expected))
+        def myDiff = DiffBuilder.compare(Input.fromString(assertList.get(1).expected))
+                .withTest(Input.fromString(assertList.get(1).actual))
+                .ignoreWhitespace()
+                .ignoreComments()
+                .withNodeMatcher(new DefaultNodeMatcher(ElementSelectors.byName))
+                .checkForIdentical()
+                .build()
+        assertionSupporter.executeAssert()
 
         then:
-        assert myDiff.getAllDifferences().size() == 5
+        assert myDiff.getDifferences().size() == 5
+        def ex = thrown(AssertionFailedError)
+        ex.message.readLines().size() == 5
 
     }
 
+    @Unroll
+    def "test reordered child nodes with #xmlCompareMode"() {
+        given:
+        def actualResponse = new ResponseEntity("<note><!-- reordered --><from>Jani</from>\n  <to>Tove</to></note>", HttpStatus.OK)
+        def expectedResponse = [status: 200, body: "<note><to>Tove</to><from>Jani</from></note>"]
+
+        when:
+        assertionSupporter.setUpAssertList(metadata, actualResponse, expectedResponse)
+        def failure = null
+        try {
+            assertionSupporter.executeAssert()
+        } catch (AssertionFailedError ex) {
+            failure = ex
+        }
+
+        then:
+        (failure != null) == failed
+
+        where:
+        metadata                 || xmlCompareMode           || failed
+        [assert: [order: true]]  || XmlCompareMode.IDENTICAL || true
+        [assert: [order: false]] || XmlCompareMode.SIMILAR   || false
+    }
+
+    def "test reordered child nodes with different content with SIMILAR"() {
+        given:
+        def actualResponse = new ResponseEntity("<note><from>Jan</from><to>Tove</to></note>", HttpStatus.OK)
+        def expectedResponse = [status: 200, body: "<note><to>Tove</to><from>Jani</from></note>"]
+
+        when:
+        assertionSupporter.setUpAssertList([assert: [order: false]], actualResponse, expectedResponse)
+        assertionSupporter.executeAssert()
+
+        then:
+        thrown(AssertionFailedError)
+    }
+
     @Unroll
     def "test getXmlCompareMode"() {
         given:
@@ -268,6 +316,44 @@ class XmlAssertionSupporterSpec extends Specification {
                 "</note>"
     }
 
+    @Unroll
+    def "test executeAssert with streaming #metadata"() {
+        given:
+        def actualResponse = new ResponseEntity("<note><from>Jani</from><to>Tove</to></note>", HttpStatus.OK)
+        def expectedResponse = [status: 200, body: "<note><to>Tove</to><from>Jani</from></note>"]
+
+        when:
+        assertionSupporter.setUpAssertList(metadata, actualResponse, expectedResponse)
+        def streaming = assertionSupporter.assertList[1].streaming
+        def maxDifferences = assertionSupporter.assertList[1].maxDifferences
+        assertionSupporter.executeAssert()
+
+        then:
+        streaming
+        maxDifferences == expectedMaxDifferences
+        def ex = thrown(AssertionFailedError.class)
+        ex.message.startsWith("Expected to at /note[1]/to[1] but was from")
+
+        where:
+        metadata                                                   || expectedMaxDifferences
+        [assert: [streaming: true]]                                || StreamingXmlComparator.DEFAULT_MAX_DIFFERENCES
+        [assert: [streaming: true, order: true, maxDifferences: 1]] || 1
+    }
+
+    def "test executeAssert with streaming and order false"() {
+        given:
+        def metadata = [assert: [streaming: true, order: false]]
+        def actualResponse = new ResponseEntity("<note><from>Jani</from><to>Tove</to></note>", HttpStatus.OK)
+        def expectedResponse = [status: 200, body: "<note><to>Tove</to><from>Jani</from></note>"]
+
+        when:
+        assertionSupporter.setUpAssertList(metadata, actualResponse, expectedResponse)
+        assertionSupporter.executeAssert()
+
+        then:
+        noExceptionThrown()
+    }
+
     def "test executeAssert with header regex"() {
         given:
         def metadata = [assert: ["body"  : "IGNORE",
@@ -0,0 +1,187 @@
+package spring.integration.core.support.history
+
+import spock.lang.Specification
+import spock.lang.TempDir
+import spring.integration.core.support.recording.Phase
+import spring.integration.core.support.recording.PhaseRecorder
+
+import java.nio.file.Files
+import java.nio.file.Path
+import java.util.concurrent.TimeUnit
+import java.util.function.UnaryOperator
+
+class TimingHistorySpec extends Specification {
+
+    @TempDir
+    Path tempDir
+
+    def "Records are appended and read in order"() {
+        given:
+        def store = new TimingStore(tempDir.resolve("history/timings.bin"))
+
+        when:
+        store.append([new TimingRecord(1, "foo.json", 10), new TimingRecord(1, "foo.json#1 GET /foo", 5)])
+        store.append([new TimingRecord(2, "foo.json", 12)])
+
+        then:
+        store.readAll() == [new TimingRecord(1, "foo.json", 10), new TimingRecord(1, "foo.json#1 GET /foo", 5), new TimingRecord(2, "foo.json", 12)]
+    }
+
+    def "Partially written record is ignored"() {
+        given:
+        def file = tempDir.resolve("timings.bin")
+        def store = new TimingStore(file)
+        store.append([new TimingRecord(1, "foo.json", 10), new TimingRecord(1, "bar.json", 20)])
+        def bytes = Files.readAllBytes(file)
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 3))
+
+        expect:
+        store.readAll() == [new TimingRecord(1, "foo.json", 10)]
+    }
+
+    def "Partially written record is truncated before records are appended"() {
+        given:
+        def file = tempDir.resolve("timings.bin")
+        def store = new TimingStore(file)
+        store.append([new TimingRecord(1, "foo.json", 10), new TimingRecord(1, "bar.json", 20)])
+        def bytes = Files.readAllBytes(file)
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 3))
+
+        when:
+        store.append([new TimingRecord(2, "foo.json", 12)])
+
+        then:
+        store.readAll() == [new TimingRecord(1, "foo.json", 10), new TimingRecord(2, "foo.json", 12)]
+    }
+
+    def "Partially written header is rewritten"() {
+        given:
+        def file = tempDir.resolve("timings.bin")
+        Files.write(file, [0x49, 0x54] as byte[])
+
+        when:
+        new TimingStore(file).append([new TimingRecord(1, "foo.json", 10)])
+
+        then:
+        new TimingStore(file).readAll() == [new TimingRecord(1, "foo.json", 10)]
+    }
+
+    def "Baselines are read from a snapshot without appending to it"() {
+        given:
+        def file = tempDir.resolve("baseline.bin")
+        def store = new TimingStore(file)
+        store.append([new TimingRecord(1, "foo.json", 10), new TimingRecord(1, "bar.json", 20)])
+        store.append([new TimingRecord(2, "foo.json", 30)])
+        def size = Files.size(file)
+
+        expect:
+        TimingHistory.readBaselines(file) == ["foo.json": 20L, "bar.json": 20L]
+        Files.size(file) == size
+        TimingHistory.readBaselines(tempDir.resolve("missing.bin")).isEmpty()
+    }
+
+    def "Only timings of successful specifications are recorded with relative key"() {
+        given:
+        def store = new TimingStore(tempDir.resolve("timings.bin"))
+        def history = new TimingHistory(store, { it.replaceAll(".*/integration/", "") }, 20, 5, 3, 0.05, false)
+
+        when:
+        history.phaseExecuted("target/integration/foo.json", 1, Phase.REQUEST, "GET /foo", ms(10))
+        history.phaseExecuted("target/integration/foo.json", 1, Phase.ASSERTION, "response", ms(1))
+        history.specificationExecuted("target/integration/foo.json", ms(15), false)
+        history.phaseExecuted("target/integration/bar.json", 1, Phase.REQUEST, "GET /bar", ms(10))
+        history.specificationExecuted("target/integration/bar.json", ms(15), true)
+        history.finish()
+
+        then:
+        store.readAll()*.key == ["foo.json#1 GET /foo", "foo.json"]
+        store.readAll()*.elapsedTime == [ms(10), ms(15)]
+    }
+
+    def "Iterations of load tests are not recorded"() {
+        given:
+        def store = new TimingStore(tempDir.resolve("timings.bin"))
+        def history = new TimingHistory(store, UnaryOperator.identity(), 20, 5, 3, 0.05, false)
+        PhaseRecorder.addListener(history)
+
+        when:
+        PhaseRecorder.startSpecification("foo.json", true)
+        PhaseRecorder.setStep(1)
+        PhaseRecorder.record(Phase.REQUEST, "GET /foo", {} as Runnable)
+        PhaseRecorder.endSpecification(false)
+        PhaseRecorder.startSpecification("foo.json")
+        PhaseRecorder.setStep(1)
+        PhaseRecorder.record(Phase.REQUEST, "GET /foo", {} as Runnable)
+        PhaseRecorder.endSpecification(false)
+        history.finish()
+
+        then:
+        store.readAll()*.key == ["foo.json#1 GET /foo", "foo.json"]
+
+        cleanup:
+        PhaseRecorder.removeListener(history)
+    }
+
+    def "Significant slowdown compared with previous runs is detected"() {
+        given:
+        def history = new TimingHistory(new TimingStore(tempDir.resolve("timings.bin")), { it }, 20, 5, 3, 0.05, false)
+        def previous = (1..10).collectMany { run ->
+            [new TimingRecord(run, "stable.json", ms(100) + run % 3 * ms(1)),
+             new TimingRecord(run, "slow.json", ms(100) + run % 3 * ms(1)),
+             new TimingRecord(run, "noisy.json", ms(100) + run % 2 * ms(40))]
+        }
+        def current = [new TimingRecord(11, "stable.json", ms(102)),
+                       new TimingRecord(11, "slow.json", ms(115)),
+                       new TimingRecord(11, "noisy.json", ms(130)),
+                       new TimingRecord(11, "new.json", ms(500))]
+
+        when:
+        def regressions = history.detectRegressions(previous, current)
+
+        then:
+        regressions*.key == ["slow.json"]
+        regressions[0].baseline == ms(101)
+        regressions[0].current == ms(115)
+        regressions[0].baselineRuns == 10
+        regressions[0].increase > 0.13
+    }
+
+    def "Regressions are not detected without enough previous runs"() {
+        given:
+        def history = new TimingHistory(new TimingStore(tempDir.resolve("timings.bin")), { it }, 20, 5, 3, 0.05, false)
+        def previous = (1..4).collect { new TimingRecord(it, "foo.json", ms(100)) }
+
+        expect:
+        history.detectRegressions(previous, [new TimingRecord(5, "foo.json", ms(200))]).isEmpty()
+    }
+
+    def "Baseline consists of the latest runs in the window"() {
+        given:
+        def history = new TimingHistory(new TimingStore(tempDir.resolve("timings.bin")), { it }, 5, 5, 3, 0.05, false)
+        def previous = (1..10).collect { new TimingRecord(it, "foo.json", it <= 5 ? ms(50) : ms(100)) }
+
+        expect:
+        history.detectRegressions(previous, [new TimingRecord(11, "foo.json", ms(100))]).isEmpty()
+        history.detectRegressions(previous, [new TimingRecord(11, "foo.json", ms(110))])*.baseline == [ms(100)]
+    }
+
+    def "Regressions found in the store are reported once the run finishes"() {
+        given:
+        def store = new TimingStore(tempDir.resolve("timings.bin"))
+        store.append((1..5).collect { new TimingRecord(it, "foo.json", ms(100)) })
+        def history = new TimingHistory(store, { it }, 20, 5, 3, 0.05, false)
+        history.specificationExecuted("foo.json", ms(120), false)
+
+        when:
+        def regressions = history.finish()
+
+        then:
+        regressions*.key == ["foo.json"]
+        TimingHistory.toReport(regressions).contains("foo.json : 100.00 ms -> 120.00 ms (+20.0%")
+        store.readAll().size() == 6
+    }
+
+    private static long ms(long millis) {
+        TimeUnit.MILLISECONDS.toNanos(millis)
+    }
+}
@@ -0,0 +1,168 @@
+package spring.integration.core.support.incremental
+
+import spock.lang.Specification
+import spock.lang.TempDir
+
+import java.nio.file.Path
+
+class IncrementalSelectionSpec extends Specification {
+
+    static final String RESOURCE = "referenced_value_test/values_001.json"
+
+    @TempDir
+    Path tempDir
+
+    File specification
+
+    File classes
+
+    def setup() {
+        specification = new File(tempDir.toFile(), "spec.json")
+        specification.text = '{ "request": {} }'
+        classes = new File(tempDir.toFile(), "classes")
+        new File(classes, "com/example").mkdirs()
+        new File(classes, "com/example/App.class").bytes = [1, 2, 3] as byte[]
+    }
+
+    def "Only specifications which have been changed since the last successful execution are selected"() {
+        given:
+        def other = new File(tempDir.toFile(), "other.json")
+        other.text = '{}'
+        def first = newSelection()
+        first.record("/spec.json", specification, [RESOURCE] as Set, false)
+        first.record("/other.json", other, [] as Set, false)
+        first.save()
+
+        when:
+        other.text = '{ "changed": true }'
+        def selected = newSelection().select([specification, other], { "/" + it.name })
+
+        then:
+        selected == [other]
+    }
+
+    def "Failed specification is selected next time"() {
+        given:
+        def first = newSelection()
+        first.record("/spec.json", specification, [] as Set, false)
+        first.save()
+        def second = newSelection()
+        second.record("/spec.json", specification, [] as Set, true)
+        second.save()
+
+        expect:
+        newSelection().select([specification], { "/" + it.name }) == [specification]
+    }
+
+    def "Change of application classes selects all specifications"() {
+        given:
+        def first = newSelection()
+        first.record("/spec.json", specification, [] as Set, false)
+        first.save()
+
+        when:
+        new File(classes, "com/example/App.class").bytes = [1, 2, 4] as byte[]
+
+        then:
+        newSelection().isChanged("/spec.json", specification)
+    }
+
+    def "Change of read resource selects the specification"() {
+        given:
+        def first = newSelection()
+        first.record("/spec.json", specification, [RESOURCE] as Set, false)
+        first.save()
+        def file = tempDir.resolve("fingerprints.json").toFile()
+
+        expect:
+        !newSelection().isChanged("/spec.json", specification)
+
+        when:
+        // Hash of the resource at the last execution differs from the current one.
+        file.text = file.text.replaceFirst(/("${RESOURCE}" : ")[0-9a-f]+/, '$10000')
+
+        then:
+        newSelection().isChanged("/spec.json", specification)
+    }
+
+    def "All specifications are selected unless incremental mode is enabled"() {
+        given:
+        def first = newSelection()
+        first.record("/spec.json", specification, [] as Set, false)
+        first.save()
+
+        expect:
+        new IncrementalSelection(tempDir.resolve("fingerprints.json"), [classes.toPath()], false)
+                .select([specification], { "/" + it.name }) == [specification]
+    }
+
+    def "Fingerprints of other selections are kept when they are saved"() {
+        given:
+        def other = new File(tempDir.toFile(), "other.json")
+        other.text = '{}'
+        def first = newSelection()
+        def second = newSelection()
+
+        when:
+        first.record("/spec.json", specification, [] as Set, false)
+        second.record("/other.json", other, [] as Set, false)
+        first.save()
+        second.save()
+
+        then:
+        newSelection().select([specification, other], { "/" + it.name }).isEmpty()
+    }
+
+    def "Change of test classes or files read by the context selects all specifications"() {
+        given:
+        def testClasses = new File(tempDir.toFile(), "test-classes")
+        testClasses.mkdirs()
+        new File(testClasses, "AppTest.class").bytes = [1] as byte[]
+        new File(testClasses, "spec.json").text = '{}'
+        def mappings = new File(tempDir.toFile(), "mappings")
+        mappings.mkdirs()
+        new File(mappings, "stub.json").text = '{}'
+        DependencyRecorder.recordContextFile(mappings.toPath())
+        def first = newSelection(testClasses)
+        first.record("/spec.json", specification, [] as Set, false)
+        first.save()
+        // Resources of test classes are recorded by specifications which read them.
+        new File(testClasses, "spec.json").text = '{ "changed": true }'
+
+        expect:
+        !newSelection(testClasses).isChanged("/spec.json", specification)
+
+        when:
+        new File(tempDir.toFile(), changed).bytes = [2] as byte[]
+
+        then:
+        newSelection(testClasses).isChanged("/spec.json", specification)
+
+        where:
+        changed << ["test-classes/AppTest.class", "mappings/stub.json"]
+    }
+
+    def "Nested recording is recorded by the outer one as well"() {
+        when:
+        DependencyRecorder.start()
+        DependencyRecorder.record("a.json")
+        DependencyRecorder.start()
+        DependencyRecorder.record("b.json")
+        def inner = DependencyRecorder.finish()
+        def outer = DependencyRecorder.finish()
+        DependencyRecorder.record("c.json")
+
+        then:
+        inner == ["b.json"] as Set
+        outer == ["a.json", "b.json"] as Set
+        DependencyRecorder.finish().isEmpty()
+    }
+
+    private IncrementalSelection newSelection() {
+        new IncrementalSelection(tempDir.resolve("fingerprints.json"), [classes.toPath()], true)
+    }
+
+    private IncrementalSelection newSelection(File testClasses) {
+        new IncrementalSelection(tempDir.resolve("fingerprints.json"), [classes.toPath()], [testClasses.toPath()], true)
+    }
+}
@@ -1,6 +1,8 @@
 package spring.integration.core.support.injector
 
 
+import java.util.concurrent.Callable
+import java.util.concurrent.Executors
 import spock.lang.Shared
 import spock.lang.Specification
 import spock.lang.Unroll
@@ -87,4 +89,49 @@ class DynamicValueInjectorSpec extends Specification {
         def ex = thrown(TestException)
         ex.getMessage() == "Failed to load Groovy script."
     }
+
+    def "Variables defined in script are available in script part"() {
+        given:
+        def target = new DynamicValueInjector("prefix = 'foo'\ndef concat(value) { prefix + value }")
+        def input = ["test": "```concat('bar') + prefix```"]
+
+        when:
+        target.inject(input)
+
+        then:
+        input == ["test": "foobarfoo"]
+    }
+
+    def "Script parts can be evaluated by several instances concurrently"() {
+        given:
+        def executor = Executors.newFixedThreadPool(4)
+
+        when:
+        def futures = (1..100).collect { i ->
+            executor.submit({
+                def input = ["test": "```increment(${i})```".toString()]
+                new DynamicValueInjector(SCRIPT_STRING).inject(input)
+                input.test
+            } as Callable)
+        }
+
+        then:
+        futures*.get() == (2..101)
+
+        cleanup:
+        executor.shutdown()
+    }
+
+    def "Compiled script parts are bounded"() {
+        given:
+        def target = new DynamicValueInjector(SCRIPT_STRING)
+
+        when:
+        (1..DynamicValueInjector.MAXIMUM_SCRIPT_PARTS + 10).each { i ->
+            target.inject(["test": "```${i} + 1```".toString()])
+        }
+
+        then:
+        DynamicValueInjector.scriptPartsSize() <= DynamicValueInjector.MAXIMUM_SCRIPT_PARTS
+    }
 }
@@ -0,0 +1,55 @@
+package spring.integration.core.support.load
+
+import spock.lang.Specification
+
+class LatencyHistogramSpec extends Specification {
+
+    def "Percentiles are within precision of buckets"() {
+        given:
+        def target = new LatencyHistogram()
+
+        when:
+        (1..10000).each { target.record(it * 1000L) }
+
+        then:
+        target.count == 10000
+        target.max == 10_000_000L
+        Math.abs(target.getValueAtPercentile(50) - 5_000_000L) <= 5_000_000L / 64
+        Math.abs(target.getValueAtPercentile(99) - 9_900_000L) <= 9_900_000L / 64
+        target.getValueAtPercentile(100) == 10_000_000L
+    }
+
+    def "Small values are recorded exactly"() {
+        given:
+        def target = new LatencyHistogram()
+
+        when:
+        [1L, 2L, 3L, 100L].each { target.record(it) }
+
+        then:
+        target.getValueAtPercentile(25) == 1
+        target.getValueAtPercentile(75) == 3
+        target.getValueAtPercentile(100) == 100
+    }
+
+    def "Empty histogram returns zero"() {
+        expect:
+        new LatencyHistogram().getValueAtPercentile(99) == 0
+    }
+
+    def "Histograms can be added"() {
+        given:
+        def first = new LatencyHistogram()
+        def second = new LatencyHistogram()
+        first.record(1000)
+        second.record(3000)
+
+        when:
+        first.add(second)
+
+        then:
+        first.count == 2
+        first.max == 3000
+        Math.abs(first.getValueAtPercentile(50) - 1000) <= 1000 / 64
+    }
+}
@@ -0,0 +1,173 @@
+package spring.integration.core.support.load
+
+import com.fasterxml.jackson.databind.ObjectMapper
+import com.sun.net.httpserver.HttpServer
+import org.springframework.http.HttpMethod
+import org.springframework.http.RequestEntity
+import spock.lang.Specification
+import spring.integration.core.support.IntegrationRestTemplate
+import spring.integration.core.support.assertion.LatencyBudget
+
+import java.time.Duration
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+
+import static org.junit.jupiter.api.Assertions.fail
+
+class LoadTestRunnerSpec extends Specification {
+
+    def "Scenario is executed the given times by concurrent users"() {
+        given:
+        def executions = new AtomicInteger()
+        def threads = ConcurrentHashMap.newKeySet()
+        // First executions wait for each other, so that a user cannot finish all iterations before the others start.
+        def started = new CountDownLatch(4)
+        def target = new LoadTestRunner(new LoadProfile(20, 4, Duration.ZERO, 0))
+
+        when:
+        def result = target.run("test", { recorder ->
+            executions.incrementAndGet()
+            threads << Thread.currentThread().name
+            started.countDown()
+            started.await(5, TimeUnit.SECONDS)
+            recorder.record("GET /foo", 1_000_000L)
+            recorder.record("POST /bar", 2_000_000L)
+        })
+
+        then:
+        executions.get() == 20
+        threads.size() == 4
+        result.iterations == 20
+        result.steps.keySet() as List == ["1. GET /foo", "2. POST /bar"]
+        result.getStep("2. POST /bar").count == 20
+        Math.abs(result.getStep("2. POST /bar").getMillisAtPercentile(95) - 2.0) <= 2.0 / 64
+        !result.errorRateExceeded
+        result.toReport().contains("1. GET /foo")
+    }
+
+    def "Failures are counted as errors"() {
+        given:
+        def executions = new AtomicInteger()
+        def target = new LoadTestRunner(new LoadProfile(10, 2, Duration.ofMillis(10), 0.1))
+
+        when:
+        def result = target.run("test", { recorder ->
+            if (executions.incrementAndGet() % 5 == 0) {
+                fail("Unexpected response")
+            }
+        })
+
+        then:
+        result.failures == 2
+        result.errorRate == 0.2d
+        result.errorRateExceeded
+        result.toReport().contains("2 x AssertionFailedError: Unexpected response")
+    }
+
+    def "Iterations start at fixed rate regardless of slow responses"() {
+        given:
+        def target = new LoadTestRunner(new LoadProfile(20, 1, Duration.ZERO, 0, 100))
+
+        when:
+        def result = target.run("test", { recorder ->
+            Thread.sleep(100)
+            recorder.record("GET /foo", 100_000_000L)
+        })
+
+        then:
+        result.iterations == 20
+        result.elapsedSeconds < 1
+        result.scenario.getMillisAtPercentile(50) >= 100
+        result.toReport().contains("20 iterations at 100.0/s")
+    }
+
+    def "Delay from intended start time is added to the first step"() {
+        given:
+        def result = new LoadTestResult("test", new LoadProfile(1, 1, Duration.ZERO, 0, 100))
+
+        when:
+        def recorder = result.newStepRecorder(50_000_000L)
+        recorder.record("GET /foo", 10_000_000L)
+        recorder.record("GET /bar", 10_000_000L)
+
+        then:
+        Math.abs(result.getStep("1. GET /foo").getMillisAtPercentile(100) - 60.0) <= 60.0 / 64
+        Math.abs(result.getStep("2. GET /bar").getMillisAtPercentile(100) - 10.0) <= 10.0 / 64
+    }
+
+    def "Time waiting for connections is reported apart from latencies"() {
+        given:
+        def result = new LoadTestResult("test", new LoadProfile(1, 1, Duration.ZERO, 0))
+
+        when:
+        def recorder = result.newStepRecorder()
+        recorder.record("GET /foo", 10_000_000L, 30_000_000L)
+
+        then:
+        Math.abs(result.getStep("1. GET /foo").getMillisAtPercentile(100) - 10.0) <= 10.0 / 64
+        Math.abs(result.connectionWait.getMillisAtPercentile(100) - 30.0) <= 30.0 / 64
+        result.toReport().contains("Connection wait (ms)")
+    }
+
+    def "Concurrency is the number of users which have iterations"() {
+        expect:
+        new LoadProfile(iterations, users, Duration.ZERO, 0, rate).concurrency == concurrency
+
+        where:
+        iterations | users | rate || concurrency
+        100        | 20    | 0    || 20
+        5          | 20    | 0    || 5
+        100        | 20    | 50   || 0
+    }
+
+    def "Time waiting for connections is included in latencies in open-loop"() {
+        given:
+        def result = new LoadTestResult("test", new LoadProfile(1, 1, Duration.ZERO, 0, 100))
+
+        when:
+        result.newStepRecorder().record("GET /foo", 10_000_000L, 30_000_000L)
+
+        then:
+        Math.abs(result.getStep("1. GET /foo").getMillisAtPercentile(100) - 40.0) <= 40.0 / 64
+        Math.abs(result.connectionWait.getMillisAtPercentile(100) - 30.0) <= 30.0 / 64
+    }
+
+    def "Stall behind small connection pool exceeds percentile budget in open-loop"() {
+        given:
+        def server = HttpServer.create(new InetSocketAddress("localhost", 0), 0)
+        server.executor = Executors.newCachedThreadPool()
+        server.createContext("/slow", { exchange ->
+            Thread.sleep(100)
+            exchange.sendResponseHeaders(200, -1)
+            exchange.close()
+        })
+        server.start()
+        def restTemplate = new IntegrationRestTemplate()
+        restTemplate.maxConnections = 1
+        restTemplate.initRequestFactory()
+        def uri = URI.create("http://localhost:${server.address.port}/slow")
+        def target = new LoadTestRunner(new LoadProfile(10, 1, Duration.ZERO, 0, 50))
+
+        when:
+        def result = target.run("test", { recorder ->
+            // Same as latency of AssertionSupporter, which excludes time waiting for connections.
+            def startTime = System.nanoTime()
+            restTemplate.exchange(new ObjectMapper(), new RequestEntity(HttpMethod.GET, uri), String)
+            def connectionWaitTime = restTemplate.connectionWaitTime
+            recorder.record("GET /slow", System.nanoTime() - startTime - connectionWaitTime, connectionWaitTime)
+        })
+        def violations = LatencyBudget.of([:], [p99Ms: 300]).verify("1. GET /slow", result.getStep("1. GET /slow"))
+
+        then:
+        result.connectionWait.max >= TimeUnit.MILLISECONDS.toNanos(300)
+        violations.size() == 1
+        violations[0].startsWith("1. GET /slow took")
+
+        cleanup:
+        restTemplate.destroy()
+        server.stop(0)
+    }
+}
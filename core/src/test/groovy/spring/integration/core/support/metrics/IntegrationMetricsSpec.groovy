@@ -0,0 +1,120 @@
+package spring.integration.core.support.metrics
+
+import com.fasterxml.jackson.databind.ObjectMapper
+import spock.lang.Specification
+import spock.lang.TempDir
+import spring.integration.core.support.recording.Phase
+import spring.integration.core.support.recording.PhaseRecorder
+
+import java.nio.file.Path
+import java.util.concurrent.TimeUnit
+
+class IntegrationMetricsSpec extends Specification {
+
+    def objectMapper = new ObjectMapper()
+
+    @TempDir
+    Path tempDir
+
+    def "Phases are recorded per endpoint, mockable and assertion"() {
+        given:
+        def metrics = new IntegrationMetrics(objectMapper, tempDir.resolve("metrics.prom"))
+
+        when:
+        metrics.phaseExecuted("foo.json", 1, Phase.REQUEST, "GET /books/{id}", ms(10))
+        metrics.phaseExecuted("bar.json", 1, Phase.REQUEST, "GET /books/{id}", ms(30))
+        metrics.phaseExecuted("foo.json", 1, Phase.MOCK_SETUP, "database", ms(5))
+        metrics.phaseExecuted("foo.json", 1, Phase.CLEANUP, "database", ms(2))
+        metrics.phaseExecuted("foo.json", 1, Phase.ASSERTION, "response", ms(1))
+        metrics.phaseExecuted("foo.json", 1, Phase.INJECTION, "dynamic", ms(1))
+        metrics.specificationExecuted("foo.json", ms(20), false)
+        metrics.specificationExecuted("foo.json", ms(40), true)
+
+        then:
+        def request = metrics.getTimer(IntegrationMetrics.REQUEST_TIMER, "method", "GET", "uri", "/books/{id}")
+        request.count() == 2
+        request.totalTime(TimeUnit.NANOSECONDS) == ms(40)
+        request.max(TimeUnit.NANOSECONDS) == ms(30)
+        metrics.getTimer(IntegrationMetrics.MOCKABLE_TIMER, "mockable", "database", "operation", "setup").count() == 1
+        metrics.getTimer(IntegrationMetrics.MOCKABLE_TIMER, "mockable", "database", "operation", "cleanup").count() == 1
+        metrics.getTimer(IntegrationMetrics.ASSERTION_TIMER, "assertion", "response").count() == 1
+        metrics.getTimer(IntegrationMetrics.PHASE_TIMER, "phase", "INJECTION", "name", "dynamic").count() == 1
+        metrics.getTimer(IntegrationMetrics.SPECIFICATION_TIMER, "specification", "foo.json").count() == 2
+        metrics.getCount(IntegrationMetrics.SPECIFICATION_FAILURES, "specification", "foo.json") == 1
+    }
+
+    def "Metrics are exported in Prometheus text format"() {
+        given:
+        def file = tempDir.resolve("metrics.prom")
+        def metrics = new IntegrationMetrics(objectMapper, file)
+        metrics.phaseExecuted("foo.json", 1, Phase.REQUEST, "POST /books", ms(10))
+        metrics.specificationExecuted("foo.json", ms(20), false)
+
+        when:
+        metrics.export()
+        def lines = file.toFile().readLines()
+
+        then:
+        lines.contains('# TYPE integration_request_seconds summary')
+        def median = lines.find { it.startsWith('integration_request_seconds{method="POST",uri="/books",quantile="0.5",}') }
+        Math.abs((median.split(' ')[1] as double) - 0.01) <= 0.01 / 64
+        lines.contains('integration_request_seconds_sum{method="POST",uri="/books",} 0.01')
+        lines.contains('integration_request_seconds_count{method="POST",uri="/books",} 1.0')
+        lines.contains('# TYPE integration_request_seconds_max gauge')
+        lines.contains('# TYPE integration_specification_failures_total counter')
+        lines.contains('integration_specification_failures_total{specification="foo.json",} 0.0')
+    }
+
+    def "Metrics are exported as json"() {
+        given:
+        def file = tempDir.resolve("metrics.json")
+        def metrics = new IntegrationMetrics(objectMapper, file)
+        metrics.phaseExecuted("foo.json", 1, Phase.ASSERTION, "latency", ms(3))
+
+        when:
+        metrics.export()
+        def meters = objectMapper.readValue(file.toFile(), List)
+
+        then:
+        meters.size() == 1
+        meters[0].name == "integration_assertion_seconds"
+        meters[0].tags == [assertion: "latency"]
+        meters[0].type == "timer"
+        meters[0].count == 1
+        meters[0].sum == 0.003
+    }
+
+    def "Listener receives phases executed by PhaseRecorder"() {
+        given:
+        def metrics = new IntegrationMetrics(objectMapper, null)
+        PhaseRecorder.addListener(metrics)
+
+        when:
+        PhaseRecorder.startSpecification("foo.json")
+        PhaseRecorder.record(Phase.MOCK_SETUP, "wiremock", {} as Runnable)
+        PhaseRecorder.endSpecification(false)
+
+        then:
+        metrics.getTimer(IntegrationMetrics.MOCKABLE_TIMER, "mockable", "wiremock", "operation", "setup").count() == 1
+        metrics.getTimer(IntegrationMetrics.SPECIFICATION_TIMER, "specification", "foo.json").count() == 1
+
+        cleanup:
+        PhaseRecorder.removeListener(metrics)
+    }
+
+    def "Metrics are not exported when they are disabled"() {
+        given:
+        def metrics = new IntegrationMetrics(objectMapper, null)
+
+        when:
+        metrics.export()
+
+        then:
+        !metrics.isEnabled()
+        tempDir.toFile().list().length == 0
+    }
+
+    private static long ms(long millis) {
+        TimeUnit.MILLISECONDS.toNanos(millis)
+    }
+}
@@ -34,6 +34,34 @@ class MockSupporterSpec extends Specification {
 
     def MOCK_OF_MOCK_ASSERTION = Mock(MockOfMockableAssertion)
 
+    class MockOfMockableStepAssertion implements Mockable<Object, Object>, MockableStepAssertion<Map<String, Object>> {
+        @Override
+        void setup(List<Object> elements) {
+        }
+
+        @Override
+        void defaultCleanUp(List<Object> elements) {
+        }
+
+        @Override
+        void cleanup(List<Object> elements) {
+        }
+
+        @Override
+        void destroy() {
+        }
+
+        @Override
+        void startStep() {
+        }
+
+        @Override
+        void verifyStep(Map<String, Object> input) {
+        }
+    }
+
+    def MOCK_OF_MOCK_STEP_ASSERTION = Mock(MockOfMockableStepAssertion)
+
     def "Test for setup with Non Null"() {
         when:
         TARGET.addMockable("Test1", MOCK_OF_MOCK)
@@ -111,4 +139,47 @@ class MockSupporterSpec extends Specification {
         1 * MOCK_OF_MOCK_ASSERTION.verifyUtilizedMock(["k2": "v2"])
 
     }
+
+    def "Test for isConcurrentExecutable"() {
+        given:
+        def isolatedMockable = Mock(Mockable) {
+            isIsolated() >> true
+        }
+        TARGET.addMockable("Isolated", isolatedMockable)
+        TARGET.addMockable("Shared", MOCK_OF_MOCK)
+
+        expect:
+        TARGET.isConcurrentExecutable(setupData) == expected
+
+        where:
+        setupData                                  || expected
+        null                                       || true
+        [:]                                        || true
+        ["Isolated": []]                           || true
+        ["Shared": []]                             || false
+        ["Isolated": [], "Shared": []]             || false
+    }
+
+    def "Test for startStep and verifyStep"() {
+        when:
+        TARGET.addMockable("Test1", MOCK_OF_MOCK)
+        TARGET.addMockable("Test2", MOCK_OF_MOCK_STEP_ASSERTION)
+        TARGET.startStep()
+        TARGET.verifyStep(["Test2": ["maxQueries": 1]])
+        TARGET.verifyStep(null)
+
+        then:
+        1 * MOCK_OF_MOCK_STEP_ASSERTION.startStep()
+        1 * MOCK_OF_MOCK_STEP_ASSERTION.verifyStep(["maxQueries": 1])
+    }
+
+    def "Test for verifyStep with Mockable which doesn't support verification"() {
+        when:
+        TARGET.addMockable("Test1", MOCK_OF_MOCK)
+        TARGET.verifyStep(["Test1": ["maxQueries": 1]])
+
+        then:
+        def ex = thrown(TestException)
+        ex.message == "Mockable doesn't support verification of request : Test1"
+    }
 }
@@ -0,0 +1,132 @@
+package spring.integration.core.support.queue
+
+import spock.lang.Specification
+import spock.lang.TempDir
+import spring.integration.core.support.TestException
+
+import java.nio.file.Path
+import java.time.Duration
+import java.util.concurrent.ConcurrentLinkedQueue
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+
+class SpecificationQueueSpec extends Specification {
+
+    @TempDir
+    Path tempDir
+
+    def "Specifications are published only by the first worker"() {
+        given:
+        def first = new SpecificationQueue(tempDir, "first")
+        def second = new SpecificationQueue(tempDir, "second")
+        def discovered = 0
+
+        when:
+        def published = [
+                first.publish({ discovered++; ["/a.json", "/b.json"] }),
+                second.publish({ discovered++; ["/c.json"] })
+        ]
+
+        then:
+        published == [true, false]
+        discovered == 1
+        [second.poll(), first.poll(), second.poll()] == ["/a.json", "/b.json", null]
+        first.size() == 2
+    }
+
+    def "Each specification is taken by exactly one of concurrent workers"() {
+        given:
+        def specifications = (1..200).collect { "/spec_${it}.json".toString() }
+        new SpecificationQueue(tempDir, "publisher").publish({ specifications })
+        def taken = new ConcurrentLinkedQueue()
+        def executor = Executors.newFixedThreadPool(4)
+
+        when:
+        (1..4).each { worker ->
+            executor.submit {
+                def queue = new SpecificationQueue(tempDir, "worker-${worker}")
+                for (def specification = queue.poll(); specification != null; specification = queue.poll()) {
+                    taken << specification
+                    queue.complete(specification, false, Duration.ofMillis(1))
+                }
+            }
+        }
+        executor.shutdown()
+        executor.awaitTermination(30, TimeUnit.SECONDS)
+
+        then:
+        taken.sort() == specifications.sort()
+        new SpecificationQueue(tempDir, "reader").readResults().size() == 200
+    }
+
+    def "Results contain status, elapsed time and worker"() {
+        given:
+        def queue = new SpecificationQueue(tempDir, "1234@localhost")
+        queue.publish({ ["/a.json"] })
+
+        when:
+        queue.complete(queue.poll(), true, Duration.ofMillis(42))
+
+        then:
+        queue.readResults() == ["/a.json\tFAILED\t42\t1234@localhost"]
+    }
+
+    def "Queue cannot be taken before it's published"() {
+        when:
+        new SpecificationQueue(tempDir, "worker").poll()
+
+        then:
+        def ex = thrown(TestException)
+        ex.message.startsWith("Specification files are not published into ")
+    }
+
+    def "Consumed queue of an earlier run cannot be taken again without run id"() {
+        given:
+        def earlier = new SpecificationQueue(tempDir, "earlier")
+        earlier.publish({ ["/a.json"] })
+        earlier.poll()
+
+        when:
+        new SpecificationQueue(tempDir, "later").publish({ ["/a.json"] })
+
+        then:
+        def ex = thrown(TestException)
+        ex.message.contains("has already been consumed")
+    }
+
+    def "Queue of an earlier run is published again when run id differs"() {
+        given:
+        def earlier = new SpecificationQueue(tempDir, "earlier", "run-1")
+        earlier.publish({ ["/a.json"] })
+        earlier.complete(earlier.poll(), false, Duration.ofMillis(1))
+
+        when:
+        def later = new SpecificationQueue(tempDir, "later", "run-2")
+        def published = [
+                later.publish({ ["/a.json", "/b.json"] }),
+                new SpecificationQueue(tempDir, "other", "run-2").publish({ ["/c.json"] })
+        ]
+
+        then:
+        published == [true, false]
+        [later.poll(), later.poll(), later.poll()] == ["/a.json", "/b.json", null]
+        later.readResults().isEmpty()
+    }
+
+    def "Each test class has its own queue"() {
+        given:
+        System.setProperty(SpecificationQueue.PROPERTY, tempDir.toString())
+        def first = SpecificationQueue.fromSystemProperties("com.example.FirstTest")
+        def second = SpecificationQueue.fromSystemProperties("com.example.SecondTest")
+
+        when:
+        first.publish({ ["/a.json"] })
+        second.publish({ ["/b.json"] })
+
+        then:
+        [first.poll(), second.poll()] == ["/a.json", "/b.json"]
+
+        cleanup:
+        System.clearProperty(SpecificationQueue.PROPERTY)
+    }
+}
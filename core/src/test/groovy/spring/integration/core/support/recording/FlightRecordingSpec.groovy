@@ -0,0 +1,80 @@
+package spring.integration.core.support.recording
+
+import jdk.jfr.consumer.RecordingFile
+import spock.lang.Specification
+import spock.lang.TempDir
+
+import java.nio.file.Files
+import java.nio.file.Path
+import java.time.Duration
+import java.util.function.Supplier
+
+class FlightRecordingSpec extends Specification {
+
+    @TempDir
+    Path tempDir
+
+    def "Phases of specification are recorded with its step"() {
+        given:
+        def recording = new FlightRecording("default", tempDir, null)
+
+        when:
+        PhaseRecorder.startSpecification("foo.json")
+        PhaseRecorder.record(Phase.SCHEMA_VALIDATION, "foo.json", {} as Runnable)
+        PhaseRecorder.setStep(2)
+        def response = PhaseRecorder.record(Phase.REQUEST, "GET /foo", { "bar" } as Supplier)
+        PhaseRecorder.endSpecification(true)
+        def events = RecordingFile.readAllEvents(recording.dump("test"))
+        recording.close()
+
+        then:
+        response == "bar"
+        def phases = events.findAll { it.eventType.name == "spring.integration.Phase" }
+        phases*.getString("phase") == ["SCHEMA_VALIDATION", "REQUEST"]
+        phases*.getString("name") == ["foo.json", "GET /foo"]
+        phases*.getInt("step") == [0, 2]
+        phases.every { it.getString("specification") == "foo.json" }
+        def specifications = events.findAll { it.eventType.name == "spring.integration.Specification" }
+        specifications.size() == 1
+        specifications[0].getString("specification") == "foo.json"
+        specifications[0].getBoolean("failed")
+    }
+
+    def "Recording is dumped for failed or slow specification"() {
+        given:
+        def recording = new FlightRecording("default", tempDir, Duration.ofMillis(100))
+
+        when:
+        recording.dumpIfNeeded(new File("ok.json"), Duration.ofMillis(10), false)
+        recording.dumpIfNeeded(new File("slow.json"), Duration.ofMillis(200), false)
+        recording.dumpIfNeeded(new File("failed.json"), Duration.ofMillis(10), true)
+        recording.close()
+
+        then:
+        def names = Files.list(tempDir).collect { it.fileName.toString() }
+        names.size() == 3
+        names.any { it.startsWith("slow.json-slow-") }
+        names.any { it.startsWith("failed.json-failed-") }
+        names.any { it.startsWith("suite-") }
+    }
+
+    def "Recording keeps only events within the maximum age and size"() {
+        given:
+        def recording = new FlightRecording("default", tempDir, null, Duration.ofSeconds(30), 1024 * 1024)
+
+        expect:
+        recording.recording.maxAge == Duration.ofSeconds(30)
+        recording.recording.maxSize == 1024 * 1024
+
+        cleanup:
+        recording.close()
+    }
+
+    def "Phase is executed without recording"() {
+        when:
+        def result = PhaseRecorder.record(Phase.ASSERTION, "response", { 1 } as Supplier)
+
+        then:
+        result == 1
+    }
+}
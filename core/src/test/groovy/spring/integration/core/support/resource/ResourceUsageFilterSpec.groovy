@@ -0,0 +1,45 @@
+package spring.integration.core.support.resource
+
+import org.springframework.web.bind.annotation.GetMapping
+import org.springframework.web.bind.annotation.RestController
+import spock.lang.Specification
+import spring.integration.core.support.TestException
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get
+import static org.springframework.test.web.servlet.setup.MockMvcBuilders.standaloneSetup
+
+class ResourceUsageFilterSpec extends Specification {
+
+    def registry = new ResourceUsageRegistry(100)
+
+    def mockMvc = standaloneSetup(new AllocatingController()).addFilters(new ResourceUsageFilter(registry)).build()
+
+    def "Resources consumed by handler are measured for request with id"() {
+        when:
+        mockMvc.perform(get("/allocate").header(ResourceUsageRegistry.REQUEST_ID_HEADER, "foo"))
+        def usage = registry.take("foo")
+
+        then:
+        usage.allocatedBytes >= 1_000_000
+        usage.cpuTime >= 0
+    }
+
+    def "Request without id is not measured"() {
+        when:
+        mockMvc.perform(get("/allocate"))
+        registry.take("foo")
+
+        then:
+        def ex = thrown(TestException)
+        ex.message.startsWith("Resource usage of request foo is not measured.")
+    }
+
+    @RestController
+    static class AllocatingController {
+
+        @GetMapping("/allocate")
+        int allocate() {
+            new byte[1_000_000].length
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package spring.integration.core.support.resource
+
+import com.google.common.base.Ticker
+import spock.lang.Specification
+import spring.integration.core.support.TestException
+
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicLong
+
+class ResourceUsageRegistrySpec extends Specification {
+
+    def now = new AtomicLong()
+
+    def target = new ResourceUsageRegistry(100, 1000, { -> now.get() } as Ticker)
+
+    def "Usage which is never taken expires after time to live"() {
+        given:
+        target.register("foo", new ResourceUsage(1, 1))
+
+        when:
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(999))
+
+        then:
+        target.size() == 1
+
+        when:
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(1))
+
+        then:
+        target.size() == 0
+    }
+
+    def "Usage registered after timeout of take expires as well"() {
+        when:
+        target.take("foo")
+
+        then:
+        thrown(TestException)
+
+        when:
+        target.register("foo", new ResourceUsage(1, 1))
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(1000))
+
+        then:
+        target.size() == 0
+    }
+
+    def "Taken usage is removed"() {
+        given:
+        target.register("foo", new ResourceUsage(1, 2))
+
+        when:
+        def usage = target.take("foo")
+
+        then:
+        usage.allocatedBytes == 1
+        target.size() == 0
+    }
+
+    def "Time to live must be longer than timeout"() {
+        when:
+        new ResourceUsageRegistry(1000, 100)
+
+        then:
+        def ex = thrown(TestException)
+        ex.message == "Time to live of resource usage 100 ms must be longer than timeout 1000 ms."
+    }
+}
@@ -0,0 +1,66 @@
+package spring.integration.core.support.shard
+
+import spock.lang.Specification
+import spock.lang.Unroll
+import spring.integration.core.support.TestException
+
+class ShardPlannerSpec extends Specification {
+
+    def files = ["a.json", "b.json", "c.json", "d.json", "e.json", "f.json"].collect { new File(it) }
+
+    def "Shards are balanced by durations and ordered longest first"() {
+        given:
+        def durations = ["a.json": 100L, "b.json": 90L, "c.json": 10L, "d.json": 10L, "e.json": 10L, "f.json": 10L]
+
+        when:
+        def shards = (1..2).collect { ShardPlanner.plan(files, new Shard(it, 2), durations, { it.name }) }
+
+        then:
+        shards*.collect { it.name } == [["a.json", "d.json", "f.json"], ["b.json", "c.json", "e.json"]]
+    }
+
+    def "All files are assigned to exactly one shard"() {
+        given:
+        def durations = ["a.json": 5L, "c.json": 30L, "f.json": 1L]
+
+        when:
+        def shards = (1..4).collect { ShardPlanner.plan(files, new Shard(it, 4), durations, { it.name }) }
+
+        then:
+        shards.flatten()*.name.sort() == files*.name
+        shards.every { !it.isEmpty() }
+    }
+
+    def "Files without history are distributed evenly by count"() {
+        when:
+        def shards = (1..3).collect { ShardPlanner.plan(files, new Shard(it, 3), [:], { it.name }) }
+
+        then:
+        shards*.size() == [2, 2, 2]
+        shards[0]*.name == ["a.json", "d.json"]
+    }
+
+    @Unroll
+    def "Shard #value is parsed"() {
+        expect:
+        Shard.parse(value).index == index
+        Shard.parse(value).count == count
+
+        where:
+        value    | index | count
+        "3/8"    | 3     | 8
+        " 1 / 1" | 1     | 1
+    }
+
+    @Unroll
+    def "Shard #value is invalid"() {
+        when:
+        Shard.parse(value)
+
+        then:
+        thrown(TestException)
+
+        where:
+        value << ["3", "0/2", "3/2", "a/b"]
+    }
+}
@@ -1,12 +1,17 @@
 package spring.integration.rdbms;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import spring.integration.core.utils.ResourceUtility;
+import spring.integration.rdbms.tracking.DirtyTableTracker;
+import spring.integration.rdbms.tracking.QueryRecorder;
+import spring.integration.rdbms.tracking.TrackingDataSource;
+import spring.integration.rdbms.tracking.TrackingDataSourcePostProcessor;
 import spring.integration.rdbms.truncation.TruncationSupportFactory;
 
 import javax.sql.DataSource;
@@ -28,10 +33,43 @@ public class DbMockConfig {
     @Value("${integration.database.init:#{null}}")
     private Optional<String> initialFilePath;
 
+    @Value("${integration.database.snapshot:false}")
+    private boolean snapshot;
+
+    @Bean
+    public static DirtyTableTracker dirtyTableTracker() {
+        return new DirtyTableTracker();
+    }
+
+    @Bean
+    public static QueryRecorder queryRecorder() {
+        return new QueryRecorder();
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "integration.database", name = "tracking", matchIfMissing = true)
+    public static TrackingDataSourcePostProcessor trackingDataSourcePostProcessor(ObjectProvider<DirtyTableTracker> dirtyTableTracker,
+                                                                                  ObjectProvider<QueryRecorder> queryRecorder) {
+        return new TrackingDataSourcePostProcessor(dirtyTableTracker, queryRecorder);
+    }
+
     @Bean(name = NAME)
     public DbMockable databaseMockable() {
-        DbMockable databaseMockable = new DbMockable(dataSource, TruncationSupportFactory.getTruncateSupport(dataSourceUrl, dataSource));
+        DbMockable databaseMockable;
+        TrackingDataSource trackingDataSource = TrackingDataSourcePostProcessor.getTrackingDataSource(dataSource);
+        if (trackingDataSource != null) {
+            // Truncation itself doesn't need to be tracked.
+            databaseMockable = new DbMockable(dataSource,
+                    TruncationSupportFactory.getTruncateSupport(dataSourceUrl, trackingDataSource.getTargetDataSource()),
+                    trackingDataSource.getDirtyTableTracker(),
+                    trackingDataSource.getQueryRecorder());
+        } else {
+            databaseMockable = new DbMockable(dataSource, TruncationSupportFactory.getTruncateSupport(dataSourceUrl, dataSource));
+        }
         initialFilePath.ifPresent(path -> databaseMockable.init(ResourceUtility.getResourceAsString(path)));
+        if (snapshot) {
+            databaseMockable.snapshot();
+        }
         return databaseMockable;
     }
 }
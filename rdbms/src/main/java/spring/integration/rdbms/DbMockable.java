@@ -1,17 +1,32 @@
 package spring.integration.rdbms;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import javax.sql.DataSource;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.jdbc.core.JdbcTemplate;
+import spring.integration.core.support.TestException;
 import spring.integration.core.support.mock.Mockable;
+import spring.integration.core.support.mock.MockableStepAssertion;
+import spring.integration.rdbms.batch.SqlBatchExecutor;
+import spring.integration.rdbms.batch.SqlScript;
+import spring.integration.rdbms.dataset.DatasetLoader;
+import spring.integration.rdbms.tracking.DirtyTableTracker;
+import spring.integration.rdbms.tracking.QueryRecorder;
 import spring.integration.rdbms.truncation.TruncationSupport;
 
 @Slf4j
-public class DbMockable implements Mockable<String, String> {
+public class DbMockable implements Mockable<Object, String>, MockableStepAssertion<Map<String, Object>> {
 
-	private JdbcTemplate jdbcTemplate;
+	private static final String MAX_QUERIES = "maxQueries";
+	private static final String SELECTS = "selects";
+
+	private SqlBatchExecutor sqlBatchExecutor;
+	private DatasetLoader datasetLoader;
 	private TruncationSupport truncationSupport;
+	private DirtyTableTracker dirtyTableTracker;
+	private QueryRecorder queryRecorder;
 
 	/**
 	 * Constructor.
@@ -20,34 +35,146 @@ public class DbMockable implements Mockable<String, String> {
 	 * @param truncationSupport truncationSupport.
 	 */
 	public DbMockable(DataSource dataSource, TruncationSupport truncationSupport) {
-		this.jdbcTemplate = new JdbcTemplate(dataSource);
+		this(dataSource, truncationSupport, null);
+	}
+
+	/**
+	 * Constructor.
+	 *
+	 * @param dataSource        dataSource.
+	 * @param truncationSupport truncationSupport.
+	 * @param dirtyTableTracker dirtyTableTracker to truncate only written tables. All tables are truncated when it's null.
+	 */
+	public DbMockable(DataSource dataSource, TruncationSupport truncationSupport, DirtyTableTracker dirtyTableTracker) {
+		this(dataSource, truncationSupport, dirtyTableTracker, null);
+	}
+
+	/**
+	 * Constructor.
+	 *
+	 * @param dataSource        dataSource.
+	 * @param truncationSupport truncationSupport.
+	 * @param dirtyTableTracker dirtyTableTracker to truncate only written tables. All tables are truncated when it's null.
+	 * @param queryRecorder     queryRecorder to verify queries of each request. Verification isn't available when it's null.
+	 */
+	public DbMockable(DataSource dataSource, TruncationSupport truncationSupport, DirtyTableTracker dirtyTableTracker,
+			QueryRecorder queryRecorder) {
+		this.queryRecorder = queryRecorder;
+		this.sqlBatchExecutor = new SqlBatchExecutor(dataSource);
+		this.datasetLoader = new DatasetLoader(new JdbcTemplate(dataSource));
 		this.truncationSupport = truncationSupport;
+		this.dirtyTableTracker = dirtyTableTracker;
 	}
 
 	public void init(String sql) {
-		log.info("(Integration) DB-Support init : {}.", sql);
-		jdbcTemplate.execute(sql);
+		sqlBatchExecutor.execute("init", SqlScript.split(sql));
 	}
 
+	/**
+	 * Take snapshot of current data, which is restored by default cleanup instead of leaving tables empty.
+	 */
+	public void snapshot() {
+		log.info("(Integration) DB-Support snapshot of current data.");
+		truncationSupport.refreshTables();
+		truncationSupport.snapshot();
+		if (dirtyTableTracker != null) {
+			// Database is same as the snapshot now.
+			dirtyTableTracker.drain();
+			dirtyTableTracker.consumeSchemaChange();
+		}
+	}
+
+	/**
+	 * Setup with elements which are SQL or dataset.
+	 * Dataset is a map like { "table": "BOOK", "file": "@dataset/book.csv" }, see DatasetLoader.
+	 */
 	@Override
-	public void setup(List<String> elements) {
-		elements.forEach(sql -> {
-			log.info("(Integration) DB-Support setup : {}.", sql);
-			jdbcTemplate.execute(sql);
-		});
+	@SuppressWarnings("unchecked")
+	public void setup(List<Object> elements) {
+		List<String> statements = new ArrayList<>();
+		for (Object element : elements) {
+			if (element instanceof Map) {
+				// Execute preceding statements first to keep the order.
+				sqlBatchExecutor.execute("setup", statements);
+				statements = new ArrayList<>();
+				datasetLoader.load((Map<String, Object>) element);
+			} else {
+				statements.add(String.valueOf(element));
+			}
+		}
+		sqlBatchExecutor.execute("setup", statements);
 	}
 
 	@Override
-	public void defaultCleanUp(List<String> elements) {
-		truncationSupport.truncate();
+	public void defaultCleanUp(List<Object> elements) {
+		if (dirtyTableTracker == null) {
+			truncationSupport.truncate();
+			return;
+		}
+		if (dirtyTableTracker.consumeSchemaChange()) {
+			truncationSupport.refreshTables();
+		}
+		truncationSupport.truncate(dirtyTableTracker.drain());
 	}
 
 	@Override
 	public void cleanup(List<String> elements) {
-		elements.forEach(sql -> {
-			log.info("(Integration) DB-Support cleanup : {}.", sql);
-			jdbcTemplate.execute(sql);
-		});
+		sqlBatchExecutor.execute("cleanup", elements);
+	}
+
+	@Override
+	public void startStep() {
+		if (queryRecorder != null) {
+			queryRecorder.start();
+		}
+	}
+
+	/**
+	 * Verify queries executed for a request with input like { "maxQueries": 5, "selects": { "BOOK": 1 } }.
+	 * "maxQueries" limits number of all executed statements, and "selects" is exact number of queries which read each table.
+	 */
+	@Override
+	public void verifyStep(Map<String, Object> input) {
+		if (queryRecorder == null) {
+			throw new TestException("Verification of database requires integration.database.tracking to be enabled.");
+		}
+		List<String> violations = new ArrayList<>();
+		Object maxQueries = input.get(MAX_QUERIES);
+		if (maxQueries != null && queryRecorder.getQueryCount() > toCount(MAX_QUERIES, maxQueries)) {
+			violations.add(String.format("Executed %d queries, but maxQueries is %s.", queryRecorder.getQueryCount(), maxQueries));
+		}
+		Object selects = input.get(SELECTS);
+		if (selects != null && !(selects instanceof Map)) {
+			throw new TestException(String.format("%s : is not valid selects. It must be an object of table names and counts.", selects));
+		}
+		if (selects != null) {
+			((Map<?, ?>) selects).forEach((table, expected) -> {
+				int actual = queryRecorder.getSelectCount(String.valueOf(table));
+				if (actual != toCount(SELECTS + "." + table, expected)) {
+					violations.add(String.format("Executed %d queries which read %s, but expected %s.", actual, table, expected));
+				}
+			});
+		}
+		if (!violations.isEmpty()) {
+			StringBuilder message = new StringBuilder(String.join(System.lineSeparator(), violations));
+			message.append(System.lineSeparator()).append("Executed statements :");
+			List<String> statements = queryRecorder.getStatements();
+			for (int i = 0; i < statements.size(); i++) {
+				message.append(System.lineSeparator()).append(String.format("%4d. %s", i + 1, statements.get(i)));
+			}
+			throw new TestException(message.toString());
+		}
+	}
+
+	/**
+	 * Get count of expectation, which must be a non-negative integer so that a typo never passes verification silently.
+	 */
+	private static int toCount(String name, Object value) {
+		boolean integer = value instanceof Integer || value instanceof Long;
+		if (!integer || ((Number) value).longValue() < 0 || ((Number) value).longValue() > Integer.MAX_VALUE) {
+			throw new TestException(String.format("%s : is not valid %s. It must be a non-negative integer.", value, name));
+		}
+		return ((Number) value).intValue();
 	}
 
 	@Override
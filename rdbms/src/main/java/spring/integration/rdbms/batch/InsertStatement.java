@@ -0,0 +1,133 @@
+package spring.integration.rdbms.batch;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * INSERT statement which has only literal values, so that it can be executed as a prepared statement.
+ * e.g. INSERT INTO X (A,B,C) VALUES (1,'foo',NULL) is parsed into INSERT INTO X (A,B,C) VALUES (?,?,?) and [1, foo, null].
+ */
+@Getter
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+final class InsertStatement {
+
+	private static final Pattern INSERT_PATTERN =
+			Pattern.compile("^\\s*INSERT\\s+INTO\\s+([\\w$.\"]+)\\s*(\\([^()']*\\))?\\s*VALUES\\s*\\(", Pattern.CASE_INSENSITIVE);
+
+	private static final Pattern NUMBER_PATTERN = Pattern.compile("[+-]?(\\d+(\\.\\d*)?|\\.\\d+)([eE][+-]?\\d+)?");
+
+	/**
+	 * Statement with placeholders instead of values. Statements which have same shape can be executed in a batch.
+	 */
+	private final String shape;
+
+	private final Object[] values;
+
+	/**
+	 * Parse sql as INSERT statement with literal values.
+	 *
+	 * @return InsertStatement, or null when sql is not such an INSERT statement.
+	 */
+	static InsertStatement parse(String sql) {
+		Matcher matcher = INSERT_PATTERN.matcher(sql);
+		if (!matcher.find()) {
+			return null;
+		}
+		List<Object> values = new ArrayList<>();
+		int i = matcher.end();
+		while (true) {
+			i = skipWhitespace(sql, i);
+			if (i >= sql.length()) {
+				return null;
+			}
+			int end;
+			if (sql.charAt(i) == '\'') {
+				end = parseString(sql, i, values);
+			} else {
+				end = parseLiteral(sql, i, values);
+			}
+			if (end < 0) {
+				return null;
+			}
+			i = skipWhitespace(sql, end);
+			if (i >= sql.length()) {
+				return null;
+			}
+			if (sql.charAt(i) == ')') {
+				break;
+			}
+			if (sql.charAt(i) != ',') {
+				return null;
+			}
+			i++;
+		}
+		// Only a single row is supported, nothing can follow the values.
+		String rest = sql.substring(i + 1).trim();
+		if (!rest.isEmpty() && !";".equals(rest)) {
+			return null;
+		}
+		String shape = String.format("INSERT INTO %s %sVALUES (%s)", matcher.group(1),
+				matcher.group(2) == null ? "" : matcher.group(2).replaceAll("\\s+", "") + " ",
+				String.join(",", Collections.nCopies(values.size(), "?")));
+		return new InsertStatement(shape, values.toArray());
+	}
+
+	private static int skipWhitespace(String sql, int start) {
+		int i = start;
+		while (i < sql.length() && Character.isWhitespace(sql.charAt(i))) {
+			i++;
+		}
+		return i;
+	}
+
+	/**
+	 * Parse quoted string. Doubled quote is treated as escaped quote.
+	 */
+	private static int parseString(String sql, int start, List<Object> values) {
+		StringBuilder value = new StringBuilder();
+		int i = start + 1;
+		while (i < sql.length()) {
+			char c = sql.charAt(i);
+			if (c == '\'') {
+				if (i + 1 < sql.length() && sql.charAt(i + 1) == '\'') {
+					value.append('\'');
+					i += 2;
+					continue;
+				}
+				values.add(value.toString());
+				return i + 1;
+			}
+			value.append(c);
+			i++;
+		}
+		return -1;
+	}
+
+	/**
+	 * Parse number, NULL, TRUE or FALSE. Other expressions like functions are not supported.
+	 */
+	private static int parseLiteral(String sql, int start, List<Object> values) {
+		int end = start;
+		while (end < sql.length() && sql.charAt(end) != ',' && sql.charAt(end) != ')' && !Character.isWhitespace(sql.charAt(end))) {
+			end++;
+		}
+		String literal = sql.substring(start, end);
+		if ("NULL".equalsIgnoreCase(literal)) {
+			values.add(null);
+		} else if ("TRUE".equalsIgnoreCase(literal) || "FALSE".equalsIgnoreCase(literal)) {
+			values.add(Boolean.valueOf(literal));
+		} else if (NUMBER_PATTERN.matcher(literal).matches()) {
+			values.add(new BigDecimal(literal));
+		} else {
+			return -1;
+		}
+		return end;
+	}
+}
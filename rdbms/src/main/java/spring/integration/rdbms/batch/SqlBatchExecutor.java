@@ -0,0 +1,118 @@
+package spring.integration.rdbms.batch;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Execute SQL statements in a single transaction with as few round trips as possible.
+ * Consecutive INSERT statements which have same shape are executed as a batch of prepared statement,
+ * and other consecutive data change statements are executed as a batch of statements.
+ */
+@Slf4j
+public class SqlBatchExecutor {
+
+	private static final Pattern DATA_CHANGE_PATTERN = Pattern.compile("^\\s*(INSERT|UPDATE|DELETE|MERGE)\\b", Pattern.CASE_INSENSITIVE);
+
+	/**
+	 * Key for data change statements which can be executed as a batch of statements.
+	 */
+	private static final String PLAIN_BATCH = "";
+
+	private final JdbcTemplate jdbcTemplate;
+
+	private final TransactionTemplate transactionTemplate;
+
+	public SqlBatchExecutor(DataSource dataSource) {
+		this.jdbcTemplate = new JdbcTemplate(dataSource);
+		this.transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+	}
+
+	/**
+	 * Execute statements in a single transaction.
+	 *
+	 * @param phase      Name of phase to be shown in log. e.g. setup.
+	 * @param statements SQL statements to be executed in order.
+	 */
+	public void execute(String phase, List<String> statements) {
+		if (statements.isEmpty()) {
+			return;
+		}
+		long start = System.nanoTime();
+		Integer roundTrips = transactionTemplate.execute(status -> execute(phase, statements, status));
+		log.info("(Integration) DB-Support {} : {} statements in {} round trips ({} ms).",
+				phase, statements.size(), roundTrips, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+	}
+
+	private int execute(String phase, List<String> statements, TransactionStatus status) {
+		List<InsertStatement> inserts = statements.stream().map(InsertStatement::parse).collect(Collectors.toList());
+		List<String> keys = new ArrayList<>();
+		for (int i = 0; i < statements.size(); i++) {
+			keys.add(getBatchKey(statements.get(i), inserts.get(i)));
+		}
+		// INSERT which doesn't have any neighbor with same shape is executed as a plain statement.
+		for (int i = 0; i < keys.size(); i++) {
+			String key = keys.get(i);
+			if (inserts.get(i) != null && !(i > 0 && key.equals(keys.get(i - 1))) && !(i + 1 < keys.size() && key.equals(keys.get(i + 1)))) {
+				keys.set(i, PLAIN_BATCH);
+			}
+		}
+		int roundTrips = 0;
+		int start = 0;
+		while (start < statements.size()) {
+			String key = keys.get(start);
+			int end = start + 1;
+			while (key != null && end < statements.size() && key.equals(keys.get(end))) {
+				end++;
+			}
+			List<String> group = statements.subList(start, end);
+			group.forEach(sql -> log.debug("(Integration) DB-Support {} : {}.", phase, sql));
+			if (key == null || PLAIN_BATCH.equals(key)) {
+				executePlain(group);
+			} else {
+				executePrepared(phase, key, group, inserts.subList(start, end), status);
+			}
+			roundTrips++;
+			start = end;
+		}
+		return roundTrips;
+	}
+
+	private String getBatchKey(String sql, InsertStatement insert) {
+		if (insert != null) {
+			return insert.getShape();
+		}
+		return DATA_CHANGE_PATTERN.matcher(sql).find() ? PLAIN_BATCH : null;
+	}
+
+	private void executePlain(List<String> group) {
+		if (group.size() == 1) {
+			jdbcTemplate.execute(group.get(0));
+		} else {
+			jdbcTemplate.batchUpdate(group.toArray(new String[0]));
+		}
+	}
+
+	private void executePrepared(String phase, String shape, List<String> group, List<InsertStatement> inserts, TransactionStatus status) {
+		Object savepoint = status.createSavepoint();
+		try {
+			jdbcTemplate.batchUpdate(shape, inserts.stream().map(InsertStatement::getValues).collect(Collectors.toList()));
+			status.releaseSavepoint(savepoint);
+		} catch (DataAccessException ex) {
+			// Literal might be converted differently from a bound value, e.g. into DATE column.
+			log.debug("(Integration) DB-Support {} : failed to execute {} as prepared statement, execute statements as they are. {}",
+					phase, shape, ex.getMessage());
+			status.rollbackToSavepoint(savepoint);
+			executePlain(group);
+		}
+	}
+}
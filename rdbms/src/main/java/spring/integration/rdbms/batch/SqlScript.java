@@ -0,0 +1,149 @@
+package spring.integration.rdbms.batch;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import spring.integration.core.support.TestException;
+
+/**
+ * Split SQL script into statements by ";" which isn't in quoted literals, quoted identifiers or comments.
+ * Comments are removed and whitespaces outside of quotes are collapsed, so that statements of same shape can be batched.
+ * Bodies of CREATE statements, e.g. BEGIN ATOMIC ... END of triggers and procedures or $$ ... $$ of H2, are kept in one statement.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class SqlScript {
+
+	private static final String DOLLAR_QUOTE = "$$";
+
+	/**
+	 * Words which follow END of statements like IF ... END IF, which don't close BEGIN or CASE.
+	 */
+	private static final Set<String> NON_BLOCK_ENDS = Set.of("IF", "LOOP", "WHILE", "REPEAT", "FOR");
+
+	/**
+	 * Split SQL script into statements.
+	 *
+	 * @param script SQL script
+	 *
+	 * @return Statements without separators, which doesn't contain blank ones
+	 */
+	public static List<String> split(String script) {
+		List<String> statements = new ArrayList<>();
+		StringBuilder statement = new StringBuilder();
+		char quote = 0;
+		// Nesting of BEGIN ... END and CASE ... END in CREATE statement, where ";" doesn't separate statements.
+		int depth = 0;
+		boolean create = false;
+		int i = 0;
+		while (i < script.length()) {
+			char c = script.charAt(i);
+			if (quote != 0) {
+				// Escaped quote, e.g. 'it''s', is read as closing and opening quotes.
+				statement.append(c);
+				if (c == quote) {
+					quote = 0;
+				}
+				i++;
+			} else if (script.startsWith(DOLLAR_QUOTE, i)) {
+				int end = script.indexOf(DOLLAR_QUOTE, i + DOLLAR_QUOTE.length());
+				if (end < 0) {
+					throw new TestException("Dollar quoted literal is not closed in SQL script.");
+				}
+				end += DOLLAR_QUOTE.length();
+				statement.append(script, i, end);
+				i = end;
+			} else if (c == '\'' || c == '"') {
+				quote = c;
+				statement.append(c);
+				i++;
+			} else if (script.startsWith("--", i)) {
+				int end = script.indexOf('\n', i);
+				i = end < 0 ? script.length() : end;
+			} else if (script.startsWith("/*", i)) {
+				int end = script.indexOf("*/", i + 2);
+				if (end < 0) {
+					throw new TestException("Block comment is not closed in SQL script.");
+				}
+				appendWhitespace(statement);
+				i = end + 2;
+			} else if (c == ';' && depth == 0) {
+				add(statements, statement);
+				create = false;
+				i++;
+			} else if (isWordStart(script, i)) {
+				String word = readWord(script, i);
+				String keyword = word.toUpperCase(Locale.ROOT);
+				if (statement.length() == 0) {
+					create = keyword.equals("CREATE");
+				}
+				statement.append(word);
+				i += word.length();
+				if (create && (keyword.equals("BEGIN") || keyword.equals("CASE"))) {
+					depth++;
+				} else if (create && keyword.equals("END") && depth > 0) {
+					int next = i;
+					while (next < script.length() && Character.isWhitespace(script.charAt(next))) {
+						next++;
+					}
+					String nextKeyword = isWordStart(script, next) ? readWord(script, next).toUpperCase(Locale.ROOT) : "";
+					if (nextKeyword.equals("CASE")) {
+						// END CASE closes CASE statement, so that CASE isn't read as another one.
+						appendWhitespace(statement);
+						statement.append(script, next, next + nextKeyword.length());
+						i = next + nextKeyword.length();
+						depth--;
+					} else if (!NON_BLOCK_ENDS.contains(nextKeyword)) {
+						depth--;
+					}
+				}
+			} else if (Character.isWhitespace(c)) {
+				appendWhitespace(statement);
+				i++;
+			} else {
+				statement.append(c);
+				i++;
+			}
+		}
+		if (quote != 0) {
+			throw new TestException("Quoted literal is not closed in SQL script.");
+		}
+		if (depth != 0) {
+			throw new TestException("BEGIN or CASE is not closed by END in SQL script.");
+		}
+		add(statements, statement);
+		return statements;
+	}
+
+	private static boolean isWordStart(String script, int i) {
+		return i < script.length() && Character.isLetter(script.charAt(i)) && (i == 0 || !isWordPart(script.charAt(i - 1)));
+	}
+
+	private static boolean isWordPart(char c) {
+		return Character.isLetterOrDigit(c) || c == '_' || c == '$';
+	}
+
+	private static String readWord(String script, int start) {
+		int end = start;
+		while (end < script.length() && isWordPart(script.charAt(end))) {
+			end++;
+		}
+		return script.substring(start, end);
+	}
+
+	private static void appendWhitespace(StringBuilder statement) {
+		if (statement.length() > 0 && statement.charAt(statement.length() - 1) != ' ') {
+			statement.append(' ');
+		}
+	}
+
+	private static void add(List<String> statements, StringBuilder statement) {
+		String sql = statement.toString().trim();
+		if (!sql.isEmpty()) {
+			statements.add(sql);
+		}
+		statement.setLength(0);
+	}
+}
@@ -0,0 +1,107 @@
+package spring.integration.rdbms.dataset;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.PushbackReader;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import spring.integration.core.support.TestException;
+
+/**
+ * Streaming reader of CSV defined in RFC 4180.
+ * Empty field without quotes is read as null, quoted empty field is read as empty string.
+ */
+final class CsvReader implements Closeable {
+
+	private static final char BYTE_ORDER_MARK = '\uFEFF';
+
+	private final PushbackReader reader;
+
+	private long lineNumber = 1;
+
+	CsvReader(Reader reader) throws IOException {
+		this.reader = new PushbackReader(reader);
+		int first = this.reader.read();
+		if (first != -1 && first != BYTE_ORDER_MARK) {
+			this.reader.unread(first);
+		}
+	}
+
+	/**
+	 * Read next record.
+	 *
+	 * @return fields of the record, or null at the end of input.
+	 */
+	String[] readRecord() throws IOException {
+		int c = reader.read();
+		if (c == -1) {
+			return null;
+		}
+		List<String> fields = new ArrayList<>();
+		StringBuilder field = new StringBuilder();
+		boolean quoted = false;
+		while (true) {
+			if (c == '"' && field.length() == 0 && !quoted) {
+				quoted = true;
+				c = readQuoted(field);
+			} else if (c == ',') {
+				fields.add(toValue(field, quoted));
+				field.setLength(0);
+				quoted = false;
+				c = reader.read();
+			} else if (c == '\r' || c == '\n' || c == -1) {
+				if (c == '\r') {
+					int next = reader.read();
+					if (next != '\n' && next != -1) {
+						reader.unread(next);
+					}
+				}
+				lineNumber++;
+				fields.add(toValue(field, quoted));
+				return fields.toArray(new String[0]);
+			} else {
+				field.append((char) c);
+				c = reader.read();
+			}
+		}
+	}
+
+	/**
+	 * Line number of the next record, to be shown in messages.
+	 */
+	long getLineNumber() {
+		return lineNumber;
+	}
+
+	/**
+	 * Read quoted part into field, and returns the character next to the closing quote.
+	 */
+	private int readQuoted(StringBuilder field) throws IOException {
+		long startLineNumber = lineNumber;
+		while (true) {
+			int c = reader.read();
+			if (c == -1) {
+				throw new TestException(String.format("Quoted field starting at line %d is not closed.", startLineNumber));
+			}
+			if (c == '"') {
+				int next = reader.read();
+				if (next != '"') {
+					return next;
+				}
+			} else if (c == '\n') {
+				lineNumber++;
+			}
+			field.append((char) c);
+		}
+	}
+
+	private static String toValue(StringBuilder field, boolean quoted) {
+		return field.length() == 0 && !quoted ? null : field.toString();
+	}
+
+	@Override
+	public void close() throws IOException {
+		reader.close();
+	}
+}
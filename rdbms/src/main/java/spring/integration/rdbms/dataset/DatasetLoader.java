@@ -0,0 +1,199 @@
+package spring.integration.rdbms.dataset;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.FilenameUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+import spring.integration.core.support.TestException;
+import spring.integration.core.utils.ResourceUtility;
+
+/**
+ * Load dataset file into a table with batches of prepared INSERT statement.
+ * The file is read as a stream, only rows of a single batch are held in memory.
+ *
+ * <pre>
+ * { "table": "BOOK", "file": "@dataset/book.csv", "batchSize": 1000 }
+ * </pre>
+ * CSV file must have header line which contains column names.
+ * JSON lines file must have a JSON object in each line, and keys of the first object are used as column names.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class DatasetLoader {
+
+	static final String TABLE = "table";
+
+	static final String FILE = "file";
+
+	static final String FORMAT = "format";
+
+	static final String BATCH_SIZE = "batchSize";
+
+	private static final String START_CHARACTER_OF_FILE_PATH = "@";
+
+	private static final Set<String> JSON_LINES_FORMATS = new HashSet<>(Arrays.asList("jsonl", "ndjson", "json"));
+
+	private static final String CSV_FORMAT = "csv";
+
+	private static final int DEFAULT_BATCH_SIZE = 1000;
+
+	private static final String INSERT_SQL = "INSERT INTO %s (%s) VALUES (%s)";
+
+	private final JdbcTemplate jdbcTemplate;
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	/**
+	 * Load dataset defined by the map.
+	 *
+	 * @param dataset Map which has table, file and optionally format and batchSize.
+	 */
+	public void load(Map<String, Object> dataset) {
+		String table = getRequired(dataset, TABLE);
+		String file = getRequired(dataset, FILE);
+		String path = file.startsWith(START_CHARACTER_OF_FILE_PATH) ? file.substring(START_CHARACTER_OF_FILE_PATH.length()) : file;
+		String format = Optional.ofNullable(dataset.get(FORMAT)).map(String::valueOf)
+				.orElseGet(() -> FilenameUtils.getExtension(path)).toLowerCase(Locale.ROOT);
+		int batchSize = Optional.ofNullable(dataset.get(BATCH_SIZE)).map(String::valueOf).map(Integer::parseInt).orElse(DEFAULT_BATCH_SIZE);
+		long start = System.nanoTime();
+		long rows;
+		try (InputStream inputStream = ResourceUtility.getResourceAsStream(path)) {
+			if (inputStream == null) {
+				throw new TestException(String.format("'%s' is not found. Please make sure to exist it.", path));
+			}
+			BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+			if (CSV_FORMAT.equals(format)) {
+				rows = loadCsv(table, reader, batchSize);
+			} else if (JSON_LINES_FORMATS.contains(format)) {
+				rows = loadJsonLines(table, reader, batchSize);
+			} else {
+				throw new TestException(String.format("%s : is not supported dataset format.", format));
+			}
+		} catch (IOException ex) {
+			throw new TestException(String.format("Failed to load dataset %s into %s.", path, table), ex);
+		}
+		log.info("(Integration) DB-Support setup : {} rows loaded into {} from {} ({} ms).",
+				rows, table, path, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+	}
+
+	private long loadCsv(String table, BufferedReader reader, int batchSize) throws IOException {
+		try (CsvReader csvReader = new CsvReader(reader)) {
+			String[] columns = csvReader.readRecord();
+			if (columns == null) {
+				return 0;
+			}
+			BatchInserter inserter = new BatchInserter(table, Arrays.asList(columns), batchSize);
+			String[] record;
+			while ((record = csvReader.readRecord()) != null) {
+				if (record.length == 1 && record[0] == null) {
+					// Skip empty line
+					continue;
+				}
+				if (record.length != columns.length) {
+					throw new TestException(String.format("Line %d has %d fields, but header has %d columns.",
+							csvReader.getLineNumber() - 1, record.length, columns.length));
+				}
+				inserter.add(record);
+			}
+			return inserter.flush();
+		}
+	}
+
+	private long loadJsonLines(String table, BufferedReader reader, int batchSize) throws IOException {
+		try (MappingIterator<LinkedHashMap<String, Object>> iterator =
+				objectMapper.readerFor(LinkedHashMap.class).readValues(reader)) {
+			BatchInserter inserter = null;
+			List<String> columns = Collections.emptyList();
+			while (iterator.hasNextValue()) {
+				Map<String, Object> row = iterator.nextValue();
+				if (inserter == null) {
+					columns = new ArrayList<>(row.keySet());
+					inserter = new BatchInserter(table, columns, batchSize);
+				}
+				if (!columns.containsAll(row.keySet())) {
+					throw new TestException(String.format("Row %s has keys which are not in the first row %s.", row.keySet(), columns));
+				}
+				Object[] values = new Object[columns.size()];
+				for (int i = 0; i < values.length; i++) {
+					values[i] = toColumnValue(row.get(columns.get(i)));
+				}
+				inserter.add(values);
+			}
+			return inserter == null ? 0 : inserter.flush();
+		}
+	}
+
+	/**
+	 * Nested objects and arrays are stored as JSON string.
+	 */
+	private Object toColumnValue(Object value) throws JsonProcessingException {
+		if (value instanceof Map || value instanceof List) {
+			return objectMapper.writeValueAsString(value);
+		}
+		return value;
+	}
+
+	private static String getRequired(Map<String, Object> dataset, String key) {
+		Object value = dataset.get(key);
+		if (value == null) {
+			throw new TestException(String.format("Dataset %s doesn't have '%s'.", dataset, key));
+		}
+		return String.valueOf(value);
+	}
+
+	/**
+	 * Buffer rows and insert them when the buffer gets full.
+	 */
+	private class BatchInserter {
+
+		private final String sql;
+
+		private final int batchSize;
+
+		private final List<Object[]> buffer;
+
+		private long count;
+
+		BatchInserter(String table, List<String> columns, int batchSize) {
+			this.sql = String.format(INSERT_SQL, table, String.join(",", columns), String.join(",", Collections.nCopies(columns.size(), "?")));
+			this.batchSize = batchSize;
+			this.buffer = new ArrayList<>(batchSize);
+		}
+
+		void add(Object[] values) {
+			buffer.add(values);
+			if (buffer.size() >= batchSize) {
+				flush();
+			}
+		}
+
+		long flush() {
+			if (!buffer.isEmpty()) {
+				log.debug("(Integration) DB-Support setup : {} with {} rows.", sql, buffer.size());
+				jdbcTemplate.batchUpdate(sql, buffer);
+				count += buffer.size();
+				buffer.clear();
+			}
+			return count;
+		}
+	}
+}
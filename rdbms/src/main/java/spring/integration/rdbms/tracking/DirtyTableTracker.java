@@ -0,0 +1,82 @@
+package spring.integration.rdbms.tracking;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Records tables which have been written since the last cleanup.
+ * Every table is regarded as dirty at first, because data might have been written before tracking started.
+ * Tables written by triggers or cascading foreign keys are not seen in SQL, so that TruncationSupport adds them on truncation.
+ */
+@Slf4j
+public class DirtyTableTracker {
+
+	private final Set<String> dirtyTables = ConcurrentHashMap.newKeySet();
+
+	private final AtomicBoolean allDirty = new AtomicBoolean(true);
+
+	private final AtomicBoolean schemaChanged = new AtomicBoolean(false);
+
+	/**
+	 * Record tables written by sql. Any table can be dirty when it's not possible to know which tables are written.
+	 *
+	 * @param sql SQL which is executed or prepared. It can contain multiple statements.
+	 */
+	public void record(String sql) {
+		if (sql == null) {
+			return;
+		}
+		for (SqlStatement statement : SqlStatement.parse(sql)) {
+			switch (statement.getType()) {
+				case WRITE:
+					dirtyTables.add(statement.getTable());
+					break;
+				case DDL:
+					schemaChanged.set(true);
+					allDirty.set(true);
+					break;
+				case UNKNOWN:
+					log.debug("(Integration) DB-Support cannot detect written tables, all tables will be cleaned up : {}.", sql);
+					allDirty.set(true);
+					break;
+				default:
+					break;
+			}
+		}
+	}
+
+	/**
+	 * Mark all tables as dirty.
+	 */
+	public void markAllDirty() {
+		allDirty.set(true);
+	}
+
+	/**
+	 * Take dirty tables recorded so far and start recording again.
+	 *
+	 * @return Predicate which returns true for the name of dirty table.
+	 */
+	public Predicate<String> drain() {
+		boolean all = allDirty.getAndSet(false);
+		Set<String> tables = new HashSet<>();
+		// Remove one by one not to lose tables which are recorded concurrently.
+		for (Iterator<String> iterator = dirtyTables.iterator(); iterator.hasNext(); ) {
+			tables.add(iterator.next());
+			iterator.remove();
+		}
+		return all ? table -> true : table -> tables.contains(SqlStatement.normalize(table));
+	}
+
+	/**
+	 * Returns true only once after tables have been created, dropped or altered.
+	 */
+	public boolean consumeSchemaChange() {
+		return schemaChanged.getAndSet(false);
+	}
+}
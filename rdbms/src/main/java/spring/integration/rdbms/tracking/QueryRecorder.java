@@ -0,0 +1,85 @@
+package spring.integration.rdbms.tracking;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Records statements executed through TrackingDataSource since recording was started last time.
+ * Executions are counted separately per SELECT table, so that N+1 queries can be detected.
+ */
+public class QueryRecorder {
+
+	/**
+	 * Statements more than this are counted, but not kept for report.
+	 */
+	private static final int MAX_RECORDED_STATEMENTS = 1000;
+
+	private final AtomicInteger queryCount = new AtomicInteger();
+
+	private final Queue<String> statements = new ConcurrentLinkedQueue<>();
+
+	private final Map<String, AtomicInteger> selectCounts = new ConcurrentHashMap<>();
+
+	/**
+	 * Discard recorded statements and start recording again.
+	 */
+	public void start() {
+		queryCount.set(0);
+		statements.clear();
+		selectCounts.clear();
+	}
+
+	/**
+	 * Record an execution of sql.
+	 *
+	 * @param sql SQL which is executed. It can contain multiple statements.
+	 */
+	public void record(String sql) {
+		if (sql == null) {
+			return;
+		}
+		if (queryCount.incrementAndGet() <= MAX_RECORDED_STATEMENTS) {
+			statements.add(sql);
+		}
+		for (SqlStatement statement : SqlStatement.parse(sql)) {
+			statement.getReadTables().forEach(table -> selectCounts.computeIfAbsent(table, key -> new AtomicInteger()).incrementAndGet());
+		}
+	}
+
+	/**
+	 * Get number of executions including all kinds of statements.
+	 */
+	public int getQueryCount() {
+		return queryCount.get();
+	}
+
+	/**
+	 * Get number of executions which read each table, in order of table name.
+	 */
+	public Map<String, Integer> getSelectCounts() {
+		Map<String, Integer> counts = new TreeMap<>();
+		selectCounts.forEach((table, count) -> counts.put(table, count.get()));
+		return counts;
+	}
+
+	/**
+	 * Get number of executions which read the table.
+	 */
+	public int getSelectCount(String table) {
+		AtomicInteger count = selectCounts.get(SqlStatement.normalize(table));
+		return count == null ? 0 : count.get();
+	}
+
+	/**
+	 * Get executed statements in order, up to 1000 statements.
+	 */
+	public List<String> getStatements() {
+		return new ArrayList<>(statements);
+	}
+}
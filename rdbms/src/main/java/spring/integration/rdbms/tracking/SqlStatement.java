@@ -0,0 +1,236 @@
+package spring.integration.rdbms.tracking;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.AllArgsConstructor;
+
+/**
+ * Lightweight analysis of SQL statements to find out which tables are affected by them.
+ * It's not a complete SQL parser, statements which cannot be analyzed are classified as UNKNOWN.
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+final class SqlStatement {
+
+	enum Type {
+		/**
+		 * Statement which doesn't change any data. e.g. SELECT, SET.
+		 */
+		READ,
+		/**
+		 * Statement which changes data of a single table. e.g. INSERT, UPDATE, DELETE.
+		 */
+		WRITE,
+		/**
+		 * Statement which changes definition of tables. e.g. CREATE, DROP.
+		 */
+		DDL,
+		/**
+		 * Statement whose effect cannot be known. e.g. CALL.
+		 */
+		UNKNOWN
+	}
+
+	private static final Set<String> READ_KEYWORDS = new HashSet<>(Arrays.asList(
+			"SELECT", "VALUES", "TABLE", "SET", "SHOW", "EXPLAIN", "COMMIT", "ROLLBACK", "SAVEPOINT", "RELEASE",
+			"START", "BEGIN", "END", "CHECKPOINT", "GRANT", "REVOKE", "COMMENT", "ANALYZE", "HELP"));
+
+	private static final Set<String> DDL_KEYWORDS = new HashSet<>(Arrays.asList("CREATE", "DROP", "ALTER", "RENAME"));
+
+	private static final Set<String> WRITE_KEYWORDS = new HashSet<>(Arrays.asList("INSERT", "UPDATE", "DELETE", "MERGE", "REPLACE", "TRUNCATE", "UPSERT"));
+
+	/**
+	 * Keywords which can be placed between the command and the table name.
+	 */
+	private static final Set<String> TARGET_PREFIXES = new HashSet<>(Arrays.asList("INTO", "FROM", "TABLE", "IGNORE"));
+
+	/**
+	 * Keywords which can follow a table name in FROM clause, and so they are never an alias.
+	 */
+	private static final Set<String> TABLE_TERMINATORS = new HashSet<>(Arrays.asList(
+			"WHERE", "ON", "USING", "JOIN", "LEFT", "RIGHT", "INNER", "OUTER", "FULL", "CROSS", "NATURAL", "GROUP", "ORDER",
+			"HAVING", "LIMIT", "OFFSET", "FETCH", "UNION", "EXCEPT", "INTERSECT", "MINUS", "FOR", "WINDOW"));
+
+	private static final String STRING_LITERAL = "'";
+
+	private final Type type;
+
+	/**
+	 * Normalized name of written table, only for WRITE.
+	 */
+	private final String table;
+
+	/**
+	 * Normalized names of tables in FROM and JOIN clauses, only for READ.
+	 */
+	private final Set<String> readTables;
+
+	private SqlStatement(Type type, String table) {
+		this(type, table, Collections.emptySet());
+	}
+
+	/**
+	 * Normalize table name to be compared with table names in the database case-insensitively.
+	 */
+	static String normalize(String table) {
+		return table.toUpperCase(Locale.ROOT);
+	}
+
+	/**
+	 * Split sql into statements and analyze each of them.
+	 */
+	static List<SqlStatement> parse(String sql) {
+		List<SqlStatement> statements = new ArrayList<>();
+		List<String> tokens = new ArrayList<>();
+		int length = sql.length();
+		int i = 0;
+		while (i < length) {
+			char c = sql.charAt(i);
+			char next = i + 1 < length ? sql.charAt(i + 1) : 0;
+			if (c == '-' && next == '-') {
+				int end = sql.indexOf('\n', i);
+				i = end < 0 ? length : end + 1;
+			} else if (c == '/' && next == '*') {
+				int end = sql.indexOf("*/", i + 2);
+				i = end < 0 ? length : end + 2;
+			} else if (c == '\'') {
+				i = skipQuoted(sql, i, c);
+				tokens.add(STRING_LITERAL);
+			} else if (c == '"' || c == '`') {
+				int end = skipQuoted(sql, i, c);
+				tokens.add(normalize(sql.substring(i + 1, Math.max(i + 1, end - 1))));
+				i = end;
+			} else if (c == ';') {
+				addStatement(statements, tokens);
+				tokens = new ArrayList<>();
+				i++;
+			} else if (Character.isWhitespace(c)) {
+				i++;
+			} else if (isIdentifierPart(c)) {
+				int start = i;
+				while (i < length && isIdentifierPart(sql.charAt(i))) {
+					i++;
+				}
+				tokens.add(normalize(sql.substring(start, i)));
+			} else {
+				tokens.add(String.valueOf(c));
+				i++;
+			}
+		}
+		addStatement(statements, tokens);
+		return statements;
+	}
+
+	private static void addStatement(List<SqlStatement> statements, List<String> tokens) {
+		if (!tokens.isEmpty()) {
+			statements.add(analyze(tokens));
+		}
+	}
+
+	private static SqlStatement analyze(List<String> tokens) {
+		String command = tokens.get(0);
+		if (WRITE_KEYWORDS.contains(command)) {
+			return analyzeWrite(tokens);
+		}
+		if (DDL_KEYWORDS.contains(command)) {
+			return new SqlStatement(Type.DDL, null);
+		}
+		if ("WITH".equals(command)) {
+			// Common table expression can be followed by data change statement.
+			return tokens.stream().anyMatch(WRITE_KEYWORDS::contains)
+					? new SqlStatement(Type.UNKNOWN, null) : new SqlStatement(Type.READ, null, findReadTables(tokens));
+		}
+		if (READ_KEYWORDS.contains(command) || "(".equals(command)) {
+			return new SqlStatement(Type.READ, null, findReadTables(tokens));
+		}
+		return new SqlStatement(Type.UNKNOWN, null);
+	}
+
+	private static SqlStatement analyzeWrite(List<String> tokens) {
+		int index = 1;
+		while (index < tokens.size() && TARGET_PREFIXES.contains(tokens.get(index))) {
+			index++;
+		}
+		if (index >= tokens.size() || !isIdentifier(tokens.get(index))) {
+			return new SqlStatement(Type.UNKNOWN, null);
+		}
+		index = skipQualifier(tokens, index);
+		return new SqlStatement(Type.WRITE, tokens.get(index));
+	}
+
+	/**
+	 * Find tables which follow FROM or JOIN, including comma separated ones like "FROM A X, B Y".
+	 * Subqueries are analyzed as well, because all tokens are scanned.
+	 */
+	private static Set<String> findReadTables(List<String> tokens) {
+		Set<String> tables = new LinkedHashSet<>();
+		for (int i = 0; i < tokens.size(); i++) {
+			String keyword = tokens.get(i);
+			if (!"FROM".equals(keyword) && !"JOIN".equals(keyword)) {
+				continue;
+			}
+			int index = i + 1;
+			while (index < tokens.size() && isIdentifier(tokens.get(index))) {
+				index = skipQualifier(tokens, index);
+				tables.add(tokens.get(index++));
+				if (index < tokens.size() && "AS".equals(tokens.get(index))) {
+					index++;
+				}
+				if (index < tokens.size() && isIdentifier(tokens.get(index)) && !TABLE_TERMINATORS.contains(tokens.get(index))) {
+					index++;
+				}
+				if (!"FROM".equals(keyword) || index >= tokens.size() || !",".equals(tokens.get(index))) {
+					break;
+				}
+				index++;
+			}
+		}
+		return tables;
+	}
+
+	/**
+	 * Returns index of the last part of qualified name like SCHEMA.TABLE, because table list doesn't contain schema.
+	 */
+	private static int skipQualifier(List<String> tokens, int index) {
+		while (index + 2 < tokens.size() && ".".equals(tokens.get(index + 1)) && isIdentifier(tokens.get(index + 2))) {
+			index += 2;
+		}
+		return index;
+	}
+
+	private static boolean isIdentifier(String token) {
+		return !token.isEmpty() && !STRING_LITERAL.equals(token) && (token.length() > 1 || isIdentifierPart(token.charAt(0)))
+				// Oracle style multi table insert like INSERT ALL INTO ...
+				&& !"ALL".equals(token) && !"FIRST".equals(token);
+	}
+
+	private static boolean isIdentifierPart(char c) {
+		return Character.isLetterOrDigit(c) || c == '_' || c == '$';
+	}
+
+	/**
+	 * Returns index next to the closing quote. Doubled quote is treated as escaped quote.
+	 */
+	private static int skipQuoted(String sql, int start, char quote) {
+		int i = start + 1;
+		while (i < sql.length()) {
+			if (sql.charAt(i) == quote) {
+				if (i + 1 < sql.length() && sql.charAt(i + 1) == quote) {
+					i += 2;
+					continue;
+				}
+				return i + 1;
+			}
+			i++;
+		}
+		return sql.length();
+	}
+}
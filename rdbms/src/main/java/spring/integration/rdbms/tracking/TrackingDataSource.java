@@ -0,0 +1,120 @@
+package spring.integration.rdbms.tracking;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import javax.sql.DataSource;
+import lombok.Getter;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * DataSource which passes every SQL executed through its connections to DirtyTableTracker, and to QueryRecorder if any.
+ */
+public class TrackingDataSource extends DelegatingDataSource {
+
+	@Getter
+	private final DirtyTableTracker dirtyTableTracker;
+
+	/**
+	 * Recorder of executed statements. Statements are not recorded when it's null.
+	 */
+	@Getter
+	private final QueryRecorder queryRecorder;
+
+	public TrackingDataSource(DataSource targetDataSource, DirtyTableTracker dirtyTableTracker) {
+		this(targetDataSource, dirtyTableTracker, null);
+	}
+
+	public TrackingDataSource(DataSource targetDataSource, DirtyTableTracker dirtyTableTracker, QueryRecorder queryRecorder) {
+		super(targetDataSource);
+		this.dirtyTableTracker = dirtyTableTracker;
+		this.queryRecorder = queryRecorder;
+	}
+
+	@Override
+	public Connection getConnection() throws SQLException {
+		return track(super.getConnection());
+	}
+
+	@Override
+	public Connection getConnection(String username, String password) throws SQLException {
+		return track(super.getConnection(username, password));
+	}
+
+	private Connection track(Connection connection) {
+		return proxy(Connection.class, connection, (proxy, method, args) -> {
+			String name = method.getName();
+			if ("prepareStatement".equals(name) || "prepareCall".equals(name)) {
+				dirtyTableTracker.record((String) args[0]);
+			}
+			Object result = invoke(proxy, method, args, connection);
+			if ("createStatement".equals(name)) {
+				return track(Statement.class, (Statement) result, null);
+			}
+			if (queryRecorder != null && "prepareStatement".equals(name)) {
+				return track(PreparedStatement.class, (PreparedStatement) result, (String) args[0]);
+			}
+			if (queryRecorder != null && "prepareCall".equals(name)) {
+				return track(CallableStatement.class, (CallableStatement) result, (String) args[0]);
+			}
+			return result;
+		});
+	}
+
+	/**
+	 * Track statement. A batch is recorded as a single execution, because it's sent at once.
+	 *
+	 * @param preparedSql SQL of prepared statement, or null for plain statement
+	 */
+	private <T extends Statement> T track(Class<T> type, T statement, String preparedSql) {
+		List<String> batch = new ArrayList<>();
+		return proxy(type, statement, (proxy, method, args) -> {
+			String name = method.getName();
+			String sql = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : null;
+			if ((name.startsWith("execute") || "addBatch".equals(name)) && sql != null) {
+				dirtyTableTracker.record(sql);
+			}
+			if (queryRecorder != null) {
+				if ("addBatch".equals(name) && sql != null) {
+					batch.add(sql);
+				} else if ("clearBatch".equals(name)) {
+					batch.clear();
+				} else if ("executeBatch".equals(name) || "executeLargeBatch".equals(name)) {
+					queryRecorder.record(preparedSql != null ? preparedSql : String.join(";\n", batch));
+					batch.clear();
+				} else if (name.startsWith("execute")) {
+					queryRecorder.record(sql != null ? sql : preparedSql);
+				}
+			}
+			return invoke(proxy, method, args, statement);
+		});
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> T proxy(Class<T> type, T target, InvocationHandler handler) {
+		return (T) Proxy.newProxyInstance(TrackingDataSource.class.getClassLoader(), new Class<?>[] {type}, handler);
+	}
+
+	private static Object invoke(Object proxy, Method method, Object[] args, Object target) throws Throwable {
+		switch (method.getName()) {
+			case "equals":
+				return proxy == args[0];
+			case "hashCode":
+				return System.identityHashCode(proxy);
+			default:
+				try {
+					return method.invoke(target, args);
+				} catch (InvocationTargetException ex) {
+					throw ex.getTargetException();
+				}
+		}
+	}
+}
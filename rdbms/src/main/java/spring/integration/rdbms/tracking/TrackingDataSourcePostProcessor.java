@@ -0,0 +1,78 @@
+package spring.integration.rdbms.tracking;
+
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import javax.sql.DataSource;
+import lombok.RequiredArgsConstructor;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.framework.Advised;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+/**
+ * Track every DataSource bean with TrackingDataSource, so that writes and queries by the application are tracked as well.
+ * Beans are wrapped by class-based proxies which keep their types, e.g. HikariDataSource can still be autowired by its class.
+ */
+@RequiredArgsConstructor
+public class TrackingDataSourcePostProcessor implements BeanPostProcessor {
+
+	private final ObjectProvider<DirtyTableTracker> dirtyTableTracker;
+
+	private final ObjectProvider<QueryRecorder> queryRecorder;
+
+	@Override
+	public Object postProcessAfterInitialization(Object bean, String beanName) {
+		if (bean instanceof DataSource && !(bean instanceof TrackingDataSource) && getTrackingDataSource((DataSource) bean) == null) {
+			TrackingDataSource trackingDataSource =
+					new TrackingDataSource((DataSource) bean, dirtyTableTracker.getObject(), queryRecorder.getIfAvailable());
+			ProxyFactory proxyFactory = new ProxyFactory(bean);
+			// Final classes and JDK proxies cannot be subclassed, so that they are proxied by their interfaces.
+			proxyFactory.setProxyTargetClass(!Modifier.isFinal(bean.getClass().getModifiers()) && !Proxy.isProxyClass(bean.getClass()));
+			proxyFactory.addAdvice(new TrackingInterceptor(trackingDataSource));
+			return proxyFactory.getProxy(bean.getClass().getClassLoader());
+		}
+		return bean;
+	}
+
+	/**
+	 * Get TrackingDataSource which tracks the data source.
+	 *
+	 * @return TrackingDataSource itself or the one of proxy created by this post processor, or null when it isn't tracked
+	 */
+	public static TrackingDataSource getTrackingDataSource(DataSource dataSource) {
+		if (dataSource instanceof TrackingDataSource) {
+			return (TrackingDataSource) dataSource;
+		}
+		if (dataSource instanceof Advised) {
+			for (Advisor advisor : ((Advised) dataSource).getAdvisors()) {
+				if (advisor.getAdvice() instanceof TrackingInterceptor) {
+					return ((TrackingInterceptor) advisor.getAdvice()).trackingDataSource;
+				}
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Interceptor which gets connections through TrackingDataSource, and passes other methods to the original bean.
+	 */
+	@RequiredArgsConstructor
+	private static class TrackingInterceptor implements MethodInterceptor {
+
+		private final TrackingDataSource trackingDataSource;
+
+		@Override
+		public Object invoke(MethodInvocation invocation) throws Throwable {
+			if (!"getConnection".equals(invocation.getMethod().getName())) {
+				return invocation.proceed();
+			}
+			Object[] arguments = invocation.getArguments();
+			return arguments.length == 0
+					? trackingDataSource.getConnection()
+					: trackingDataSource.getConnection((String) arguments[0], (String) arguments[1]);
+		}
+	}
+}
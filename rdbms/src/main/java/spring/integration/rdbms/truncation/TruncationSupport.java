@@ -1,23 +1,256 @@
 package spring.integration.rdbms.truncation;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.jdbc.core.JdbcTemplate;
 
 @Slf4j
 public abstract class TruncationSupport {
 
+	/**
+	 * Schema to keep copies of tables as snapshot.
+	 */
+	protected static final String SNAPSHOT_SCHEMA = "INTEGRATION_SNAPSHOT";
+
 	private static final String TABLE_TRUNCATION_SQL = "DELETE FROM ";
 
-	protected void truncate(JdbcTemplate jdbcTemplate, List<String> tables, String disableReferentialIntegrity, String enableReferentialIntegrity) {
+	private static final String DROP_SNAPSHOT_SCHEMA_SQL = "DROP SCHEMA IF EXISTS " + SNAPSHOT_SCHEMA + " CASCADE";
+
+	private static final String CREATE_SNAPSHOT_SCHEMA_SQL = "CREATE SCHEMA " + SNAPSHOT_SCHEMA;
+
+	private static final String TABLE_COUNT_SQL = "SELECT COUNT(*) FROM %s";
+
+	private static final String TABLE_RESTORATION_SQL = "INSERT INTO %s SELECT * FROM " + SNAPSHOT_SCHEMA + ".%s";
+
+	private static final String COLUMN_RESTORATION_SQL = "INSERT INTO %s (%s)%s SELECT %s FROM " + SNAPSHOT_SCHEMA + ".%s";
+
+	private static final String OVERRIDING_SYSTEM_VALUE = " OVERRIDING SYSTEM VALUE";
+
+	/**
+	 * Columns in the standard INFORMATION_SCHEMA, which tells generated columns and identity columns.
+	 */
+	private static final String COLUMN_LIST_SQL = "SELECT COLUMN_NAME, IS_GENERATED, IDENTITY_GENERATION FROM INFORMATION_SCHEMA.COLUMNS"
+			+ " WHERE TABLE_NAME = ? AND TABLE_SCHEMA <> '" + SNAPSHOT_SCHEMA + "' ORDER BY ORDINAL_POSITION";
+
+	private static final String ALWAYS = "ALWAYS";
+
+	/**
+	 * Tables which have triggers in the standard INFORMATION_SCHEMA.
+	 */
+	private static final String TRIGGER_TABLE_SQL = "SELECT DISTINCT EVENT_OBJECT_TABLE FROM INFORMATION_SCHEMA.TRIGGERS";
+
+	/**
+	 * Foreign keys in the standard INFORMATION_SCHEMA, with referenced (parent) and referencing (child) tables.
+	 */
+	private static final String FOREIGN_KEY_SQL = "SELECT P.TABLE_NAME AS PARENT_TABLE, C.TABLE_NAME AS CHILD_TABLE, R.DELETE_RULE, R.UPDATE_RULE"
+			+ " FROM INFORMATION_SCHEMA.REFERENTIAL_CONSTRAINTS R"
+			+ " JOIN INFORMATION_SCHEMA.TABLE_CONSTRAINTS C ON C.CONSTRAINT_SCHEMA = R.CONSTRAINT_SCHEMA AND C.CONSTRAINT_NAME = R.CONSTRAINT_NAME"
+			+ " JOIN INFORMATION_SCHEMA.TABLE_CONSTRAINTS P ON P.CONSTRAINT_SCHEMA = R.UNIQUE_CONSTRAINT_SCHEMA"
+			+ " AND P.CONSTRAINT_NAME = R.UNIQUE_CONSTRAINT_NAME";
+
+	/**
+	 * Rules of foreign keys which never write the referencing table. The others are CASCADE, SET NULL and SET DEFAULT.
+	 */
+	private static final Set<String> NON_CASCADING_RULES = Set.of("NO ACTION", "RESTRICT");
+
+	/**
+	 * Tables in the database, which are looked up only once until refreshTables is called.
+	 */
+	private volatile List<String> tables;
+
+	/**
+	 * Triggers and foreign keys, which are looked up only once until refreshTables is called as well as tables.
+	 */
+	private volatile TableDependencies tableDependencies;
+
+	/**
+	 * SQL to restore each table which has data in snapshot. They are restored from the snapshot after truncation.
+	 */
+	private volatile Map<String, String> restorationSqls = Collections.emptyMap();
+
+	protected void truncate(JdbcTemplate jdbcTemplate, List<String> tables, Predicate<String> tableFilter,
+							String disableReferentialIntegrity, String enableReferentialIntegrity) {
+		Predicate<String> dirtyTableFilter = withDependentTables(jdbcTemplate, tables, tableFilter);
+		List<String> targetTables = tables.stream().filter(dirtyTableFilter).collect(Collectors.toList());
+		if (targetTables.isEmpty()) {
+			log.debug("(Integration) DB-Support default cleanup : no table has been written.");
+			return;
+		}
 		jdbcTemplate.execute(disableReferentialIntegrity);
-		tables.stream().map(tableName -> TABLE_TRUNCATION_SQL.concat(tableName))
-				.forEach(sql -> {
-					log.info("(Integration) DB-Support default cleanup : {}.", sql);
+		try {
+			Map<String, String> restorations = restorationSqls;
+			targetTables.forEach(tableName -> {
+				String sql = TABLE_TRUNCATION_SQL.concat(tableName);
+				log.info("(Integration) DB-Support default cleanup : {}.", sql);
+				jdbcTemplate.execute(sql);
+				String restorationSql = restorations.get(tableName);
+				if (restorationSql != null) {
+					log.info("(Integration) DB-Support default cleanup : {}.", restorationSql);
+					jdbcTemplate.execute(restorationSql);
+				}
+			});
+		} finally {
+			// Referential integrity must not be left disabled for the application even if the cleanup fails.
+			jdbcTemplate.execute(enableReferentialIntegrity);
+		}
+	}
+
+	/**
+	 * Copy tables which have data into snapshot schema. Existing snapshot is replaced.
+	 *
+	 * @param createTableAsSelectSql SQL format to create a table with the result of select. Its arguments are new table and source table.
+	 */
+	protected void snapshot(JdbcTemplate jdbcTemplate, List<String> tables, String createTableAsSelectSql) {
+		jdbcTemplate.execute(DROP_SNAPSHOT_SCHEMA_SQL);
+		jdbcTemplate.execute(CREATE_SNAPSHOT_SCHEMA_SQL);
+		Map<String, String> copiedTables = new LinkedHashMap<>();
+		tables.stream()
+				.filter(tableName -> jdbcTemplate.queryForObject(String.format(TABLE_COUNT_SQL, tableName), Long.class) > 0)
+				.forEach(tableName -> {
+					String sql = String.format(createTableAsSelectSql, SNAPSHOT_SCHEMA + "." + tableName, tableName);
+					log.info("(Integration) DB-Support snapshot : {}.", sql);
 					jdbcTemplate.execute(sql);
+					copiedTables.put(tableName, getRestorationSql(jdbcTemplate, tableName));
 				});
-		jdbcTemplate.execute(enableReferentialIntegrity);
+		restorationSqls = Collections.unmodifiableMap(copiedTables);
 	}
 
-	public abstract void truncate();
+	/**
+	 * Get SQL to restore the table from snapshot. Generated columns cannot be inserted, so that they are excluded,
+	 * and values of identity columns which are always generated are restored with OVERRIDING SYSTEM VALUE.
+	 */
+	private String getRestorationSql(JdbcTemplate jdbcTemplate, String tableName) {
+		List<String> columns = new ArrayList<>();
+		boolean generated = false;
+		boolean alwaysIdentity = false;
+		for (Map<String, Object> column : jdbcTemplate.queryForList(COLUMN_LIST_SQL, tableName)) {
+			if (ALWAYS.equals(column.get("IS_GENERATED"))) {
+				generated = true;
+				continue;
+			}
+			alwaysIdentity |= ALWAYS.equals(column.get("IDENTITY_GENERATION"));
+			columns.add(String.valueOf(column.get("COLUMN_NAME")));
+		}
+		if (!generated && !alwaysIdentity) {
+			return String.format(TABLE_RESTORATION_SQL, tableName, tableName);
+		}
+		String columnList = columns.stream().map(column -> "\"" + column + "\"").collect(Collectors.joining(", "));
+		return String.format(COLUMN_RESTORATION_SQL, tableName, columnList, alwaysIdentity ? OVERRIDING_SYSTEM_VALUE : "", columnList, tableName);
+	}
+
+	/**
+	 * Add tables which are written by the database itself when the filtered tables are written, because they are not seen in SQL.
+	 * Referencing tables of cascading foreign keys are added, and all tables are regarded as written when any of them has triggers,
+	 * because tables written by triggers cannot be known.
+	 * With snapshot, referencing tables of every foreign key are added, so that their rows are restored together with the referenced rows.
+	 */
+	private Predicate<String> withDependentTables(JdbcTemplate jdbcTemplate, List<String> tables, Predicate<String> tableFilter) {
+		Set<String> dirtyTables = tables.stream().filter(tableFilter).collect(Collectors.toCollection(HashSet::new));
+		if (dirtyTables.isEmpty() || dirtyTables.size() == tables.size()) {
+			return tableFilter;
+		}
+		TableDependencies dependencies = getTableDependencies(jdbcTemplate);
+		Map<String, Set<String>> children = restorationSqls.isEmpty() ? dependencies.cascadingChildren : dependencies.referencingChildren;
+		Deque<String> queue = new ArrayDeque<>(dirtyTables);
+		while (!queue.isEmpty()) {
+			String table = queue.poll();
+			if (dependencies.triggerTables.contains(table)) {
+				log.debug("(Integration) DB-Support default cleanup : {} has triggers, all tables will be cleaned up.", table);
+				return tableName -> true;
+			}
+			for (String child : children.getOrDefault(table, Collections.emptySet())) {
+				if (dirtyTables.add(child)) {
+					queue.add(child);
+				}
+			}
+		}
+		return dirtyTables::contains;
+	}
+
+	private TableDependencies getTableDependencies(JdbcTemplate jdbcTemplate) {
+		TableDependencies dependencies = tableDependencies;
+		if (dependencies == null) {
+			Map<String, Set<String>> cascadingChildren = new HashMap<>();
+			Map<String, Set<String>> referencingChildren = new HashMap<>();
+			for (Map<String, Object> foreignKey : jdbcTemplate.queryForList(FOREIGN_KEY_SQL)) {
+				referencingChildren.computeIfAbsent(String.valueOf(foreignKey.get("PARENT_TABLE")), key -> new HashSet<>())
+						.add(String.valueOf(foreignKey.get("CHILD_TABLE")));
+				if (!NON_CASCADING_RULES.contains(String.valueOf(foreignKey.get("DELETE_RULE")))
+						|| !NON_CASCADING_RULES.contains(String.valueOf(foreignKey.get("UPDATE_RULE")))) {
+					cascadingChildren.computeIfAbsent(String.valueOf(foreignKey.get("PARENT_TABLE")), key -> new HashSet<>())
+							.add(String.valueOf(foreignKey.get("CHILD_TABLE")));
+				}
+			}
+			Set<String> triggerTables = jdbcTemplate.queryForList(TRIGGER_TABLE_SQL).stream()
+					.map(row -> String.valueOf(row.get("EVENT_OBJECT_TABLE")))
+					.collect(Collectors.toSet());
+			dependencies = new TableDependencies(triggerTables, cascadingChildren, referencingChildren);
+			tableDependencies = dependencies;
+		}
+		return dependencies;
+	}
+
+	protected List<String> getTables(JdbcTemplate jdbcTemplate, String tableListSql) {
+		List<String> cachedTables = tables;
+		if (cachedTables == null) {
+			cachedTables = jdbcTemplate.queryForList(tableListSql, String.class);
+			tables = cachedTables;
+		}
+		return cachedTables;
+	}
+
+	/**
+	 * Discard cached tables to look them up again. e.g. when tables have been created or dropped.
+	 */
+	public void refreshTables() {
+		tables = null;
+		tableDependencies = null;
+	}
+
+	/**
+	 * Take snapshot of current data. After that, truncated tables are restored to the snapshot.
+	 */
+	public abstract void snapshot();
+
+	/**
+	 * Delete data of all tables.
+	 */
+	public void truncate() {
+		truncate(table -> true);
+	}
+
+	/**
+	 * Delete data of tables which match with tableFilter.
+	 *
+	 * @param tableFilter Predicate which is tested with table name.
+	 */
+	public abstract void truncate(Predicate<String> tableFilter);
+
+	@RequiredArgsConstructor
+	private static class TableDependencies {
+
+		private final Set<String> triggerTables;
+
+		/**
+		 * Referencing tables of cascading foreign keys per referenced table.
+		 */
+		private final Map<String, Set<String>> cascadingChildren;
+
+		/**
+		 * Referencing tables of all foreign keys per referenced table.
+		 */
+		private final Map<String, Set<String>> referencingChildren;
+	}
 }
@@ -1,5 +1,6 @@
 package spring.integration.rdbms.truncation.h2;
 
+import java.util.function.Predicate;
 import lombok.AllArgsConstructor;
 import org.springframework.jdbc.core.JdbcTemplate;
 import spring.integration.rdbms.truncation.TruncationSupport;
@@ -7,14 +8,24 @@ import spring.integration.rdbms.truncation.TruncationSupport;
 @AllArgsConstructor
 public class H2TruncationSupport extends TruncationSupport {
 
-    private static final String TABLE_LIST_SQL = "SELECT TABLE_NAME FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_TYPE = 'TABLE'";
+    /**
+     * Type of tables is "TABLE" in H2 1.x and "BASE TABLE" in H2 2.x, which includes tables of INFORMATION_SCHEMA as well.
+     */
+    private static final String TABLE_LIST_SQL = "SELECT TABLE_NAME FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_TYPE IN ('TABLE', 'BASE TABLE')"
+            + " AND TABLE_SCHEMA NOT IN ('INFORMATION_SCHEMA', '" + SNAPSHOT_SCHEMA + "')";
     private static final String DISABLE_INTEGRITY = "SET REFERENTIAL_INTEGRITY FALSE";
     private static final String ENABLE_INTEGRITY = "SET REFERENTIAL_INTEGRITY TRUE";
+    private static final String CREATE_SNAPSHOT_SQL = "CREATE TABLE %s AS SELECT * FROM %s";
 
     private JdbcTemplate jdbcTemplate;
 
     @Override
-    public void truncate() {
-        truncate(jdbcTemplate, jdbcTemplate.queryForList(TABLE_LIST_SQL, String.class), DISABLE_INTEGRITY, ENABLE_INTEGRITY);
+    public void snapshot() {
+        snapshot(jdbcTemplate, getTables(jdbcTemplate, TABLE_LIST_SQL), CREATE_SNAPSHOT_SQL);
+    }
+
+    @Override
+    public void truncate(Predicate<String> tableFilter) {
+        truncate(jdbcTemplate, getTables(jdbcTemplate, TABLE_LIST_SQL), tableFilter, DISABLE_INTEGRITY, ENABLE_INTEGRITY);
     }
 }
@@ -1,5 +1,6 @@
 package spring.integration.rdbms.truncation.hsql;
 
+import java.util.function.Predicate;
 import lombok.AllArgsConstructor;
 import org.springframework.jdbc.core.JdbcTemplate;
 import spring.integration.rdbms.truncation.TruncationSupport;
@@ -7,14 +8,21 @@ import spring.integration.rdbms.truncation.TruncationSupport;
 @AllArgsConstructor
 public class HsqlTruncationSupport extends TruncationSupport {
 
-    private static final String TABLE_LIST_SQL = "SELECT TABLE_NAME FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_TYPE NOT IN ('SYSTEM TABLE', 'VIEW') AND TABLE_SCHEMA NOT LIKE 'SYSTEM_%'";
+    private static final String TABLE_LIST_SQL = "SELECT TABLE_NAME FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_TYPE NOT IN ('SYSTEM TABLE', 'VIEW') AND TABLE_SCHEMA NOT LIKE 'SYSTEM_%'"
+            + " AND TABLE_SCHEMA <> '" + SNAPSHOT_SCHEMA + "'";
     private static final String DISABLE_INTEGRITY = "SET DATABASE REFERENTIAL INTEGRITY FALSE";
     private static final String ENABLE_INTEGRITY = "SET DATABASE REFERENTIAL INTEGRITY TRUE";
+    private static final String CREATE_SNAPSHOT_SQL = "CREATE TABLE %s AS (SELECT * FROM %s) WITH DATA";
 
     private JdbcTemplate jdbcTemplate;
 
     @Override
-    public void truncate() {
-        truncate(jdbcTemplate, jdbcTemplate.queryForList(TABLE_LIST_SQL, String.class), DISABLE_INTEGRITY, ENABLE_INTEGRITY);
+    public void snapshot() {
+        snapshot(jdbcTemplate, getTables(jdbcTemplate, TABLE_LIST_SQL), CREATE_SNAPSHOT_SQL);
+    }
+
+    @Override
+    public void truncate(Predicate<String> tableFilter) {
+        truncate(jdbcTemplate, getTables(jdbcTemplate, TABLE_LIST_SQL), tableFilter, DISABLE_INTEGRITY, ENABLE_INTEGRITY);
     }
 }
@@ -0,0 +1,39 @@
+package spring.integration.rdbms.batch
+
+import spock.lang.Specification
+import spock.lang.Unroll
+
+class InsertStatementSpec extends Specification {
+
+    @Unroll
+    def "Parameterized test with parse : #sql"() {
+        when:
+        def result = InsertStatement.parse(sql)
+
+        then:
+        result.shape == shape
+        result.values as List == values
+
+        where:
+        test | sql                                                          || shape                                    | values
+        1    | "INSERT INTO X (A,B,C) VALUES (1,2,3)"                       || "INSERT INTO X (A,B,C) VALUES (?,?,?)"   | [1, 2, 3]
+        2    | "insert into X ( A, B ) values ( 'it''s', -1.5e2 );"         || "INSERT INTO X (A,B) VALUES (?,?)"       | ["it's", -150]
+        3    | "INSERT INTO PUBLIC.X VALUES (NULL, true, '(,)')"            || "INSERT INTO PUBLIC.X VALUES (?,?,?)"    | [null, true, "(,)"]
+    }
+
+    @Unroll
+    def "Not supported statement : #sql"() {
+        expect:
+        InsertStatement.parse(sql) == null
+
+        where:
+        sql << [
+                "UPDATE X SET A = 1",
+                "INSERT INTO X (A) VALUES (CURRENT_DATE)",
+                "INSERT INTO X (A) VALUES (DATE '2020-01-01')",
+                "INSERT INTO X (A) VALUES (1), (2)",
+                "INSERT INTO X (A) SELECT A FROM Y",
+                "INSERT INTO X (A) VALUES ('broken)",
+        ]
+    }
+}
@@ -0,0 +1,40 @@
+package spring.integration.rdbms.batch
+
+import spock.lang.Specification
+import spock.lang.Unroll
+import spring.integration.core.support.TestException
+
+class SqlScriptSpec extends Specification {
+
+    @Unroll
+    def "Parameterized test with split : #test"() {
+        expect:
+        SqlScript.split(script) == statements
+
+        where:
+        test | script                                                              || statements
+        1    | "CREATE TABLE X (A INT);\nINSERT INTO X VALUES (1);"                || ["CREATE TABLE X (A INT)", "INSERT INTO X VALUES (1)"]
+        2    | "-- comment; here\nINSERT INTO X\n  VALUES (1) /* ; */;\n\n;"       || ["INSERT INTO X VALUES (1)"]
+        3    | "INSERT INTO X VALUES ('a;  b', 'it''s');INSERT INTO \"Y;\" VALUES (2)" || ["INSERT INTO X VALUES ('a;  b', 'it''s')", "INSERT INTO \"Y;\" VALUES (2)"]
+        4    | "  \n-- only comment"                                               || []
+        5    | "CREATE TRIGGER T AFTER INSERT ON X REFERENCING NEW ROW AS N FOR EACH ROW BEGIN ATOMIC\n  INSERT INTO Y VALUES (N.A);\n  " +
+                "IF N.A > 0 THEN UPDATE Z SET B = CASE WHEN N.A > 1 THEN 2 ELSE 1 END; END IF;\nEND;\nINSERT INTO X VALUES (1);" ||
+                ["CREATE TRIGGER T AFTER INSERT ON X REFERENCING NEW ROW AS N FOR EACH ROW BEGIN ATOMIC INSERT INTO Y VALUES (N.A); " +
+                         "IF N.A > 0 THEN UPDATE Z SET B = CASE WHEN N.A > 1 THEN 2 ELSE 1 END; END IF; END", "INSERT INTO X VALUES (1)"]
+        6    | "CREATE PROCEDURE P() MODIFIES SQL DATA BEGIN ATOMIC CASE WHEN 1 = 1 THEN DELETE FROM X; END CASE; END; CALL P();" ||
+                ["CREATE PROCEDURE P() MODIFIES SQL DATA BEGIN ATOMIC CASE WHEN 1 = 1 THEN DELETE FROM X; END CASE; END", "CALL P()"]
+        7    | "CREATE ALIAS F AS \$\$int f() { return 1; }\$\$; BEGIN; END;"          || ["CREATE ALIAS F AS \$\$int f() { return 1; }\$\$", "BEGIN", "END"]
+    }
+
+    def "Script which isn't closed cannot be split"() {
+        when:
+        SqlScript.split(script)
+
+        then:
+        thrown(TestException)
+
+        where:
+        script << ["INSERT INTO X VALUES ('a)", "INSERT INTO X VALUES (1) /* comment", "CREATE PROCEDURE P() BEGIN ATOMIC DELETE FROM X;",
+                   "CREATE ALIAS F AS \$\$int f() { return 1; }"]
+    }
+}
@@ -0,0 +1,67 @@
+package spring.integration.rdbms.dataset
+
+import org.springframework.jdbc.core.JdbcTemplate
+import spock.lang.Specification
+import spring.integration.core.support.TestException
+
+class DatasetLoaderSpec extends Specification {
+
+    def jdbcTemplate = Mock(JdbcTemplate)
+
+    def target = new DatasetLoader(jdbcTemplate)
+
+    def "Load CSV file in batches"() {
+        given:
+        def batches = []
+
+        when:
+        target.load(["table": "BOOK", "file": "@dataset/book.csv", "batchSize": 2])
+
+        then:
+        2 * jdbcTemplate.batchUpdate("INSERT INTO BOOK (ID,NAME,NOTE) VALUES (?,?,?)", _ as List) >> { sql, args -> batches << args.collect { it as List }; new int[0] }
+        batches == [[["1", "Foo, \"Bar\"", null], ["2", "Baz", ""]], [["3", "multi\nline", "x"]]]
+    }
+
+    def "Load JSON lines file"() {
+        given:
+        def batches = []
+
+        when:
+        target.load(["table": "BOOK", "file": "@dataset/book.jsonl"])
+
+        then:
+        1 * jdbcTemplate.batchUpdate("INSERT INTO BOOK (ID,NAME,TAGS) VALUES (?,?,?)", _ as List) >> { sql, args -> batches << args.collect { it as List }; new int[0] }
+        batches == [[[1, "Foo", '["a","b"]'], [2, null, null]]]
+    }
+
+    def "Exception with not existing file"() {
+        when:
+        target.load(["table": "BOOK", "file": "@dataset/not_exist.csv"])
+
+        then:
+        def ex = thrown(TestException)
+        ex.getMessage() == "'dataset/not_exist.csv' is not found. Please make sure to exist it."
+    }
+
+    def "Exception without table"() {
+        when:
+        target.load(["file": "@dataset/book.csv"])
+
+        then:
+        def ex = thrown(TestException)
+        ex.getMessage() == "Dataset {file=@dataset/book.csv} doesn't have 'table'."
+    }
+
+    def "Exception with unclosed quote"() {
+        given:
+        def reader = new CsvReader(new StringReader('A,B\n1,"2\n'))
+
+        when:
+        reader.readRecord()
+        reader.readRecord()
+
+        then:
+        def ex = thrown(TestException)
+        ex.getMessage() == "Quoted field starting at line 2 is not closed."
+    }
+}
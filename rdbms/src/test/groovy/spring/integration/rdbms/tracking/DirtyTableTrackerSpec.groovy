@@ -0,0 +1,117 @@
+package spring.integration.rdbms.tracking
+
+import org.springframework.beans.factory.ObjectProvider
+import org.springframework.jdbc.datasource.DriverManagerDataSource
+import spock.lang.Specification
+import spock.lang.Unroll
+
+import javax.sql.DataSource
+import java.sql.Connection
+import java.sql.PreparedStatement
+import java.sql.Statement
+
+class DirtyTableTrackerSpec extends Specification {
+
+    def target = new DirtyTableTracker()
+
+    def "All tables are dirty at first"() {
+        expect:
+        target.drain().test("BOOK")
+        !target.drain().test("BOOK")
+    }
+
+    @Unroll
+    def "Parameterized test with record : #sql"() {
+        given:
+        target.drain()
+
+        when:
+        target.record(sql)
+        def dirtyTables = target.drain()
+
+        then:
+        ["BOOK", "AUTHOR", "SHOP"].findAll { dirtyTables.test(it) } == expected
+
+        where:
+        test | sql                                                                   || expected
+        1    | "INSERT INTO BOOK (ID) VALUES (1)"                                    || ["BOOK"]
+        2    | "insert into public.book(id) values (1)"                              || ["BOOK"]
+        3    | "UPDATE \"Book\" SET NAME = 'x' WHERE ID = 1"                         || ["BOOK"]
+        4    | "DELETE FROM AUTHOR WHERE NAME = 'INSERT INTO SHOP'"                  || ["AUTHOR"]
+        5    | "MERGE INTO SHOP KEY(ID) VALUES (1)"                                  || ["SHOP"]
+        6    | "-- INSERT INTO SHOP\nINSERT INTO BOOK VALUES (1); UPDATE AUTHOR SET A = 1" || ["BOOK", "AUTHOR"]
+        7    | "/* UPDATE SHOP */ SELECT * FROM BOOK FOR UPDATE"                     || []
+        8    | "SET REFERENTIAL_INTEGRITY FALSE"                                     || []
+        9    | "WITH X AS (SELECT 1) SELECT * FROM X"                                || []
+        10   | "CALL DO_SOMETHING()"                                                 || ["BOOK", "AUTHOR", "SHOP"]
+        11   | "CREATE TABLE SHOP (ID INT)"                                          || ["BOOK", "AUTHOR", "SHOP"]
+        12   | "INSERT ALL INTO BOOK VALUES (1) INTO AUTHOR VALUES (1) SELECT 1"     || ["BOOK", "AUTHOR", "SHOP"]
+    }
+
+    def "Schema change is consumed only once"() {
+        when:
+        target.record("DROP TABLE BOOK")
+
+        then:
+        target.consumeSchemaChange()
+        !target.consumeSchemaChange()
+    }
+
+    def "Statements executed through TrackingDataSource are recorded"() {
+        given:
+        def statement = Mock(Statement)
+        def preparedStatement = Mock(PreparedStatement)
+        def connection = Mock(Connection) {
+            createStatement() >> statement
+            prepareStatement(_ as String) >> preparedStatement
+        }
+        def dataSource = Mock(DataSource) {
+            getConnection() >> connection
+        }
+        def trackingDataSource = new TrackingDataSource(dataSource, target)
+        target.drain()
+
+        when:
+        def trackedConnection = trackingDataSource.getConnection()
+        trackedConnection.createStatement().execute("INSERT INTO BOOK VALUES (1)")
+        trackedConnection.prepareStatement("UPDATE AUTHOR SET NAME = ?")
+        def dirtyTables = target.drain()
+
+        then:
+        1 * statement.execute("INSERT INTO BOOK VALUES (1)")
+        dirtyTables.test("BOOK")
+        dirtyTables.test("AUTHOR")
+        !dirtyTables.test("SHOP")
+    }
+
+    def "DataSource bean keeps its class when it's tracked"() {
+        given:
+        def statement = Mock(Statement)
+        def connection = Mock(Connection) {
+            createStatement() >> statement
+        }
+        def dataSource = new ConnectionDataSource(connection: connection)
+        def postProcessor = new TrackingDataSourcePostProcessor(Stub(ObjectProvider) { getObject() >> target }, Stub(ObjectProvider) { getIfAvailable() >> null })
+        target.drain()
+
+        when:
+        def bean = postProcessor.postProcessAfterInitialization(dataSource, "dataSource")
+        bean.getConnection().createStatement().execute("DELETE FROM BOOK")
+
+        then:
+        bean instanceof ConnectionDataSource
+        TrackingDataSourcePostProcessor.getTrackingDataSource(bean).targetDataSource.is(dataSource)
+        postProcessor.postProcessAfterInitialization(bean, "dataSource").is(bean)
+        target.drain().test("BOOK")
+    }
+
+    static class ConnectionDataSource extends DriverManagerDataSource {
+
+        Connection connection
+
+        @Override
+        Connection getConnection() {
+            connection
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package spring.integration.rdbms.tracking
+
+import spock.lang.Specification
+import spock.lang.Unroll
+import spring.integration.core.support.TestException
+import spring.integration.rdbms.DbMockable
+import spring.integration.rdbms.truncation.TruncationSupport
+
+import javax.sql.DataSource
+import java.sql.Connection
+import java.sql.PreparedStatement
+import java.sql.Statement
+
+class QueryRecorderSpec extends Specification {
+
+    def target = new QueryRecorder()
+
+    @Unroll
+    def "Parameterized test with read tables : #sql"() {
+        when:
+        target.record(sql)
+
+        then:
+        target.selectCounts.keySet() as List == expected
+
+        where:
+        test | sql                                                                          || expected
+        1    | "SELECT * FROM BOOK WHERE ID = 1"                                            || ["BOOK"]
+        2    | "select b.* from public.book b join author a on a.id = b.author_id"          || ["AUTHOR", "BOOK"]
+        3    | "SELECT * FROM BOOK AS B, AUTHOR A LEFT JOIN SHOP S ON S.ID = A.SHOP_ID"     || ["AUTHOR", "BOOK", "SHOP"]
+        4    | "SELECT * FROM (SELECT * FROM \"Book\") X WHERE X.NAME = 'FROM AUTHOR'"      || ["BOOK"]
+        5    | "WITH X AS (SELECT * FROM AUTHOR) SELECT * FROM X"                           || ["AUTHOR", "X"]
+        6    | "INSERT INTO BOOK SELECT * FROM AUTHOR"                                      || []
+        7    | "SELECT 1"                                                                   || []
+    }
+
+    def "Queries are counted since start"() {
+        given:
+        target.record("SELECT * FROM BOOK")
+        target.start()
+
+        when:
+        target.record("SELECT * FROM BOOK WHERE ID = ?")
+        target.record("SELECT * FROM BOOK WHERE ID = ?")
+        target.record("UPDATE AUTHOR SET NAME = ?")
+
+        then:
+        target.queryCount == 3
+        target.getSelectCount("book") == 2
+        target.getSelectCount("AUTHOR") == 0
+        target.statements == ["SELECT * FROM BOOK WHERE ID = ?", "SELECT * FROM BOOK WHERE ID = ?", "UPDATE AUTHOR SET NAME = ?"]
+    }
+
+    def "Executions through TrackingDataSource are recorded"() {
+        given:
+        def statement = Mock(Statement)
+        def preparedStatement = Mock(PreparedStatement)
+        def connection = Mock(Connection) {
+            createStatement() >> statement
+            prepareStatement(_ as String) >> preparedStatement
+        }
+        def dataSource = Mock(DataSource) {
+            getConnection() >> connection
+        }
+        def trackingDataSource = new TrackingDataSource(dataSource, new DirtyTableTracker(), target)
+
+        when:
+        def trackedConnection = trackingDataSource.getConnection()
+        def prepared = trackedConnection.prepareStatement("SELECT * FROM BOOK WHERE ID = ?")
+        prepared.executeQuery()
+        prepared.executeQuery()
+        def plain = trackedConnection.createStatement()
+        plain.addBatch("INSERT INTO BOOK VALUES (1)")
+        plain.addBatch("INSERT INTO BOOK VALUES (2)")
+        plain.executeBatch()
+
+        then:
+        2 * preparedStatement.executeQuery()
+        1 * statement.executeBatch()
+        target.queryCount == 3
+        target.getSelectCount("BOOK") == 2
+        target.statements[2] == "INSERT INTO BOOK VALUES (1);\nINSERT INTO BOOK VALUES (2)"
+    }
+
+    def "DbMockable reports executed statements when verification fails"() {
+        given:
+        def dbMockable = new DbMockable(Mock(DataSource), Mock(TruncationSupport), new DirtyTableTracker(), target)
+        dbMockable.startStep()
+        (1..3).each { target.record("SELECT * FROM BOOK WHERE AUTHOR_ID = $it") }
+
+        when:
+        dbMockable.verifyStep([maxQueries: 2, selects: [BOOK: 1, AUTHOR: 0]])
+
+        then:
+        def ex = thrown(TestException)
+        ex.message.readLines() == [
+                "Executed 3 queries, but maxQueries is 2.",
+                "Executed 3 queries which read BOOK, but expected 1.",
+                "Executed statements :",
+                "   1. SELECT * FROM BOOK WHERE AUTHOR_ID = 1",
+                "   2. SELECT * FROM BOOK WHERE AUTHOR_ID = 2",
+                "   3. SELECT * FROM BOOK WHERE AUTHOR_ID = 3"]
+    }
+
+    def "DbMockable passes verification within expectation"() {
+        given:
+        def dbMockable = new DbMockable(Mock(DataSource), Mock(TruncationSupport), new DirtyTableTracker(), target)
+        target.record("SELECT * FROM AUTHOR")
+        dbMockable.startStep()
+        target.record("SELECT * FROM BOOK")
+
+        when:
+        dbMockable.verifyStep([maxQueries: 1, selects: [BOOK: 1, AUTHOR: 0]])
+
+        then:
+        noExceptionThrown()
+    }
+
+    @Unroll
+    def "DbMockable fails with invalid expectation : #input"() {
+        given:
+        def dbMockable = new DbMockable(Mock(DataSource), Mock(TruncationSupport), new DirtyTableTracker(), target)
+        dbMockable.startStep()
+
+        when:
+        dbMockable.verifyStep(input)
+
+        then:
+        def ex = thrown(TestException)
+        ex.message == message
+
+        where:
+        input                        || message
+        [maxQueries: "5"]            || "5 : is not valid maxQueries. It must be a non-negative integer."
+        [maxQueries: 1.5]            || "1.5 : is not valid maxQueries. It must be a non-negative integer."
+        [maxQueries: -1]             || "-1 : is not valid maxQueries. It must be a non-negative integer."
+        [selects: [BOOK: "one"]]     || "one : is not valid selects.BOOK. It must be a non-negative integer."
+        [selects: ["BOOK"]]          || "[BOOK] : is not valid selects. It must be an object of table names and counts."
+    }
+}
@@ -0,0 +1,180 @@
+package spring.integration.rdbms.truncation
+
+import org.springframework.jdbc.core.JdbcTemplate
+import org.springframework.jdbc.datasource.DriverManagerDataSource
+import spock.lang.Specification
+import spock.lang.Unroll
+import spring.integration.rdbms.truncation.h2.H2TruncationSupport
+
+class TruncationSupportSpec extends Specification {
+
+    def jdbcTemplate = Mock(JdbcTemplate)
+
+    def target = new H2TruncationSupport(jdbcTemplate)
+
+    def "Table list is looked up only once"() {
+        when:
+        target.truncate()
+        target.truncate()
+
+        then:
+        1 * jdbcTemplate.queryForList(_ as String, String.class) >> ["BOOK"]
+        2 * jdbcTemplate.execute("DELETE FROM BOOK")
+    }
+
+    def "Nothing is executed when no table matches"() {
+        when:
+        target.truncate({ false })
+
+        then:
+        1 * jdbcTemplate.queryForList(_ as String, String.class) >> ["BOOK", "AUTHOR"]
+        0 * jdbcTemplate.execute(_)
+    }
+
+    def "Tables which have data in snapshot are restored after truncation"() {
+        given:
+        jdbcTemplate.queryForList(_ as String, String.class) >> ["BOOK", "AUTHOR"]
+        jdbcTemplate.queryForObject("SELECT COUNT(*) FROM BOOK", Long.class) >> 10L
+        jdbcTemplate.queryForObject("SELECT COUNT(*) FROM AUTHOR", Long.class) >> 0L
+        jdbcTemplate.queryForList(_ as String, "BOOK") >> [[COLUMN_NAME: "ID", IS_GENERATED: "NEVER", IDENTITY_GENERATION: null]]
+
+        when:
+        target.snapshot()
+
+        then:
+        1 * jdbcTemplate.execute("CREATE TABLE INTEGRATION_SNAPSHOT.BOOK AS SELECT * FROM BOOK")
+        0 * jdbcTemplate.execute("CREATE TABLE INTEGRATION_SNAPSHOT.AUTHOR AS SELECT * FROM AUTHOR")
+
+        when:
+        target.truncate()
+
+        then:
+        1 * jdbcTemplate.execute("DELETE FROM BOOK")
+        then:
+        1 * jdbcTemplate.execute("INSERT INTO BOOK SELECT * FROM INTEGRATION_SNAPSHOT.BOOK")
+        1 * jdbcTemplate.execute("DELETE FROM AUTHOR")
+        0 * jdbcTemplate.execute("INSERT INTO AUTHOR SELECT * FROM INTEGRATION_SNAPSHOT.AUTHOR")
+    }
+
+    def "Generated columns are excluded and identity columns are restored with their values"() {
+        given:
+        jdbcTemplate.queryForList(_ as String, String.class) >> ["BOOK"]
+        jdbcTemplate.queryForObject("SELECT COUNT(*) FROM BOOK", Long.class) >> 10L
+        jdbcTemplate.queryForList(_ as String, "BOOK") >> [
+                [COLUMN_NAME: "ID", IS_GENERATED: "NEVER", IDENTITY_GENERATION: "ALWAYS"],
+                [COLUMN_NAME: "TITLE", IS_GENERATED: "NEVER", IDENTITY_GENERATION: null],
+                [COLUMN_NAME: "UPPER_TITLE", IS_GENERATED: "ALWAYS", IDENTITY_GENERATION: null]
+        ]
+        target.snapshot()
+
+        when:
+        target.truncate()
+
+        then:
+        1 * jdbcTemplate.execute('INSERT INTO BOOK ("ID", "TITLE") OVERRIDING SYSTEM VALUE SELECT "ID", "TITLE" FROM INTEGRATION_SNAPSHOT.BOOK')
+    }
+
+    def "Referential integrity is enabled again even if truncation fails"() {
+        given:
+        jdbcTemplate.queryForList(_ as String, String.class) >> ["BOOK"]
+
+        when:
+        target.truncate()
+
+        then:
+        1 * jdbcTemplate.execute("SET REFERENTIAL_INTEGRITY FALSE")
+        1 * jdbcTemplate.execute("DELETE FROM BOOK") >> { throw new IllegalStateException("locked") }
+        1 * jdbcTemplate.execute("SET REFERENTIAL_INTEGRITY TRUE")
+        thrown(IllegalStateException)
+    }
+
+    @Unroll
+    def "Referencing tables of cascading foreign keys are truncated with the written table in #url"() {
+        given:
+        def jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(url, "sa", ""))
+        jdbcTemplate.execute("CREATE TABLE AUTHOR (ID INT PRIMARY KEY)")
+        jdbcTemplate.execute("CREATE TABLE BOOK (ID INT PRIMARY KEY, AUTHOR_ID INT REFERENCES AUTHOR (ID) ON DELETE CASCADE)")
+        jdbcTemplate.execute("CREATE TABLE REVIEW (ID INT PRIMARY KEY, BOOK_ID INT REFERENCES BOOK (ID))")
+        jdbcTemplate.execute("INSERT INTO AUTHOR VALUES (1)")
+        jdbcTemplate.execute("INSERT INTO BOOK VALUES (1, 1)")
+        jdbcTemplate.execute("INSERT INTO REVIEW VALUES (1, 1)")
+        def truncationSupport = TruncationSupportFactory.getTruncateSupport(url, jdbcTemplate.dataSource)
+
+        when:
+        truncationSupport.truncate({ it == "AUTHOR" })
+
+        then:
+        count(jdbcTemplate, "AUTHOR") == 0
+        count(jdbcTemplate, "BOOK") == 0
+        count(jdbcTemplate, "REVIEW") == 1
+
+        cleanup:
+        jdbcTemplate.execute("SHUTDOWN")
+
+        where:
+        url << ["jdbc:h2:mem:cascade;DB_CLOSE_DELAY=-1", "jdbc:hsqldb:mem:cascade"]
+    }
+
+    @Unroll
+    def "All tables are truncated when the written table has triggers in #url"() {
+        given:
+        def jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(url, "sa", ""))
+        jdbcTemplate.execute("CREATE TABLE BOOK (ID INT PRIMARY KEY)")
+        jdbcTemplate.execute("CREATE TABLE AUDIT (ID INT)")
+        jdbcTemplate.execute(trigger)
+        jdbcTemplate.execute("INSERT INTO BOOK VALUES (1)")
+        jdbcTemplate.execute("INSERT INTO AUDIT VALUES (1)")
+        def truncationSupport = TruncationSupportFactory.getTruncateSupport(url, jdbcTemplate.dataSource)
+
+        when:
+        truncationSupport.truncate({ it == "BOOK" })
+
+        then:
+        count(jdbcTemplate, "BOOK") == 0
+        count(jdbcTemplate, "AUDIT") == 0
+
+        cleanup:
+        jdbcTemplate.execute("SHUTDOWN")
+
+        where:
+        url                                     | trigger
+        "jdbc:h2:mem:trigger;DB_CLOSE_DELAY=-1" | 'CREATE TRIGGER BOOK_AUDIT AFTER INSERT ON BOOK FOR EACH ROW AS $$org.h2.api.Trigger create() { ' +
+                'return new org.h2.api.Trigger() { public void fire(java.sql.Connection c, Object[] o, Object[] n) {} }; } $$'
+        "jdbc:hsqldb:mem:trigger"               | 'CREATE TRIGGER BOOK_AUDIT AFTER INSERT ON BOOK REFERENCING NEW ROW AS NEWROW FOR EACH ROW ' +
+                'BEGIN ATOMIC INSERT INTO AUDIT VALUES (NEWROW.ID); END'
+    }
+
+    @Unroll
+    def "Referencing tables are restored with the written table from snapshot in #url"() {
+        given:
+        def jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(url, "sa", ""))
+        jdbcTemplate.execute("CREATE TABLE AUTHOR (ID INT PRIMARY KEY)")
+        jdbcTemplate.execute("CREATE TABLE BOOK (ID INT PRIMARY KEY, AUTHOR_ID INT REFERENCES AUTHOR (ID) ON DELETE CASCADE)")
+        jdbcTemplate.execute("CREATE TABLE REVIEW (ID INT PRIMARY KEY, BOOK_ID INT REFERENCES BOOK (ID))")
+        jdbcTemplate.execute("INSERT INTO AUTHOR VALUES (1)")
+        jdbcTemplate.execute("INSERT INTO BOOK VALUES (1, 1)")
+        jdbcTemplate.execute("INSERT INTO REVIEW VALUES (1, 1)")
+        def truncationSupport = TruncationSupportFactory.getTruncateSupport(url, jdbcTemplate.dataSource)
+        truncationSupport.snapshot()
+        jdbcTemplate.execute("DELETE FROM REVIEW")
+        jdbcTemplate.execute("DELETE FROM AUTHOR")
+
+        when:
+        truncationSupport.truncate({ it == "AUTHOR" })
+
+        then:
+        count(jdbcTemplate, "AUTHOR") == 1
+        count(jdbcTemplate, "BOOK") == 1
+        count(jdbcTemplate, "REVIEW") == 1
+
+        cleanup:
+        jdbcTemplate.execute("SHUTDOWN")
+
+        where:
+        url << ["jdbc:h2:mem:restoration;DB_CLOSE_DELAY=-1", "jdbc:hsqldb:mem:restoration"]
+    }
+
+    private static long count(JdbcTemplate jdbcTemplate, String table) {
+        jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Long)
+    }
+}
@@ -11,9 +11,11 @@ import com.github.tomakehurst.wiremock.stubbing.StubMapping;
 import com.github.tomakehurst.wiremock.verification.LoggedRequest;
 import org.springframework.util.StringUtils;
 import spring.integration.core.support.TestException;
+import spring.integration.core.support.incremental.DependencyRecorder;
 import spring.integration.core.support.mock.Mockable;
 import spring.integration.core.support.mock.MockableAssertion;
 
+import java.nio.file.Paths;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -41,6 +43,7 @@ public class WireMockable implements Mockable<Map<String, Object>, Void>, Mockab
      * @param baseDirectoryPath directory path which contains configuration files of wiremock
      */
     void initWithMappingFiles(String baseDirectoryPath) {
+        DependencyRecorder.recordContextFile(Paths.get(baseDirectoryPath));
         mockServer.loadMappingsUsing(new JsonFileMappingsSource(new SingleRootFileSource(baseDirectoryPath), new FilenameMaker()));
     }
 